@@ -0,0 +1,53 @@
+package com.superleague.microservice;
+
+import com.superleague.microservice.config.TestSecurityConfiguration;
+import com.superleague.microservice.config.startup.StartupTimelineInitializer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Benchmark of the startup of the application, with and without the {@code fast-start} profile, on the test
+ * configuration: H2 and no Consul nor IdP.
+ * <p>
+ * Only the first start of each fork is a cold start, run it with
+ * {@code -Djmh.include=Startup -Djmh.warmup-iterations=0 -Djmh.iterations=1 -Djmh.forks=5}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SuperleagueAppStartupBenchmark {
+    @Param({ "default", "fast-start" })
+    private String profile;
+
+    private ConfigurableApplicationContext context;
+
+    @Benchmark
+    public ConfigurableApplicationContext start() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SuperleagueApp.class, TestSecurityConfiguration.class)
+            .initializers(new StartupTimelineInitializer())
+            .properties("server.port=0");
+        if (!"default".equals(profile)) {
+            builder.profiles(profile);
+        }
+        context = builder.run();
+        return context;
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.superleague.microservice.aop.timing;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.domain.Course;
+import com.superleague.microservice.service.SearchResultCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * Benchmark of the overhead of the {@link TimingAspect}, on a method doing next to nothing, for several sample rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimingAspectBenchmark {
+    @Param({ "0.0", "0.1", "1.0" })
+    private double sampleRate;
+
+    private SearchResultCache plain;
+
+    private SearchResultCache timed;
+
+    @Setup
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getTiming().setSampleRate(sampleRate);
+        plain = new SearchResultCache(applicationProperties, new SimpleMeterRegistry());
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(plain);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new TimingAspect(new SimpleMeterRegistry(), applicationProperties));
+        timed = proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public long plain() {
+        return plain.getGeneration(Course.class);
+    }
+
+    @Benchmark
+    public long timed() {
+        return timed.getGeneration(Course.class);
+    }
+}
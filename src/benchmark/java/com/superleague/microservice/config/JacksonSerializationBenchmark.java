@@ -0,0 +1,94 @@
+package com.superleague.microservice.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.superleague.microservice.domain.Batch;
+import com.superleague.microservice.domain.Course;
+import com.superleague.microservice.domain.Sprint;
+import com.superleague.microservice.domain.SubjectMatterExpert;
+import com.superleague.microservice.domain.enumeration.Status;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of the JSON serialization of entity graphs, with the modules of {@link JacksonConfiguration}.
+ * <p>
+ * Each {@link SubjectMatterExpert} is serialized with its sprint, batch and course, as returned by the REST API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JacksonSerializationBenchmark {
+    @Param({ "1", "20", "100" })
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+
+    private List<SubjectMatterExpert> subjectMatterExperts;
+
+    private String json;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        // Same modules and date format as the mapper of Spring Boot
+        objectMapper =
+            new ObjectMapper()
+                .registerModule(jacksonConfiguration.javaTimeModule())
+                .registerModule(jacksonConfiguration.jdk8TimeModule())
+                .registerModule(jacksonConfiguration.hibernate5Module())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        Course course = new Course().courseNo("C-1").courseName("Java").status(Status.INPROGRESS);
+        course.setId(1L);
+        Batch batch = new Batch()
+            .batchNo("B-1")
+            .batchName("Batch 1")
+            .participantCount(30)
+            .startDate(LocalDate.of(2020, 1, 6))
+            .endDate(LocalDate.of(2020, 6, 26))
+            .status(Status.INPROGRESS)
+            .course(course);
+        batch.setId(1L);
+        subjectMatterExperts = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Sprint sprint = new Sprint()
+                .sprintNo("S-" + i)
+                .status(Status.PLANNED)
+                .startDate(LocalDate.of(2020, 1, 6).plusWeeks(i))
+                .endDate(LocalDate.of(2020, 1, 17).plusWeeks(i))
+                .batch(batch);
+            sprint.setId((long) i);
+            SubjectMatterExpert subjectMatterExpert = new SubjectMatterExpert()
+                .empId("E" + i)
+                .name("Expert " + i)
+                .email("expert-" + i + "@example.com")
+                .contactNumber(5550000 + i)
+                .sprint(sprint);
+            subjectMatterExpert.setId((long) i);
+            subjectMatterExperts.add(subjectMatterExpert);
+        }
+        json = objectMapper.writeValueAsString(subjectMatterExperts);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(subjectMatterExperts);
+    }
+
+    @Benchmark
+    public SubjectMatterExpert[] deserialize() throws JsonProcessingException {
+        return objectMapper.readValue(json, SubjectMatterExpert[].class);
+    }
+}
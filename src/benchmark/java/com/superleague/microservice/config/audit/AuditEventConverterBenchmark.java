@@ -0,0 +1,52 @@
+package com.superleague.microservice.config.audit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Benchmark of {@link AuditEventConverter#convertDataToStrings(Map)}, done for each audit event written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuditEventConverterBenchmark {
+    private final AuditEventConverter auditEventConverter = new AuditEventConverter();
+
+    private Map<String, Object> authenticationData;
+
+    private Map<String, Object> failureData;
+
+    @Setup
+    public void setup() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        request.getSession(true);
+        authenticationData = new HashMap<>();
+        authenticationData.put("details", new WebAuthenticationDetails(request));
+
+        failureData = new HashMap<>();
+        failureData.put("type", "org.springframework.security.authentication.BadCredentialsException");
+        failureData.put("message", "Bad credentials");
+        failureData.put("attempts", 3);
+    }
+
+    @Benchmark
+    public Map<String, String> convertAuthenticationDetails() {
+        return auditEventConverter.convertDataToStrings(authenticationData);
+    }
+
+    @Benchmark
+    public Map<String, String> convertFailureData() {
+        return auditEventConverter.convertDataToStrings(failureData);
+    }
+}
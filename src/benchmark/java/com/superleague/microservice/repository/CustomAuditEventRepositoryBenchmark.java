@@ -0,0 +1,68 @@
+package com.superleague.microservice.repository;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of the truncation of the audit event data by {@link CustomAuditEventRepository}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CustomAuditEventRepositoryBenchmark {
+    private CustomAuditEventRepository customAuditEventRepository;
+
+    private Map<String, String> shortData;
+
+    private Map<String, String> longData;
+
+    private Logger logger;
+
+    private Level level;
+
+    @Setup
+    public void setup() {
+        // Every truncation logs a warning: measure the truncation, not the console
+        logger = (Logger) LoggerFactory.getLogger(CustomAuditEventRepository.class);
+        level = logger.getLevel();
+        logger.setLevel(Level.ERROR);
+
+        // Truncation needs neither the database nor the writer
+        customAuditEventRepository = new CustomAuditEventRepository(null, null, null);
+
+        shortData = new HashMap<>();
+        shortData.put("remoteAddress", "10.0.0.1");
+        shortData.put("sessionId", RandomStringUtils.randomAlphanumeric(32));
+
+        longData = new HashMap<>(shortData);
+        longData.put("message", RandomStringUtils.randomAlphanumeric(CustomAuditEventRepository.EVENT_DATA_COLUMN_MAX_LENGTH * 4));
+    }
+
+    @TearDown
+    public void tearDown() {
+        logger.setLevel(level);
+    }
+
+    @Benchmark
+    public Map<String, String> truncateShortData() {
+        return customAuditEventRepository.truncate(shortData);
+    }
+
+    @Benchmark
+    public Map<String, String> truncateLongData() {
+        return customAuditEventRepository.truncate(longData);
+    }
+}
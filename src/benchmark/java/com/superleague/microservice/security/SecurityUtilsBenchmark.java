@@ -0,0 +1,58 @@
+package com.superleague.microservice.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Benchmark of {@link SecurityUtils#extractAuthorityFromClaims(Map)}, for growing numbers of groups in the claims.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SecurityUtilsBenchmark {
+    @Param({ "2", "20", "200" })
+    private int groupCount;
+
+    private Map<String, Object> groupsClaims;
+
+    private Map<String, Object> rolesClaims;
+
+    @Setup
+    public void setup() {
+        List<String> groups = new ArrayList<>(Arrays.asList(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER));
+        // Most IdP groups are not application roles, and are filtered out
+        for (int i = groups.size(); i < groupCount; i++) {
+            groups.add("Everyone-" + i);
+        }
+        groupsClaims = new HashMap<>();
+        groupsClaims.put("sub", "user");
+        groupsClaims.put("groups", groups);
+        rolesClaims = new HashMap<>();
+        rolesClaims.put("sub", "user");
+        rolesClaims.put("roles", Collections.unmodifiableList(groups));
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> extractAuthorityFromGroups() {
+        return SecurityUtils.extractAuthorityFromClaims(groupsClaims);
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> extractAuthorityFromRoles() {
+        return SecurityUtils.extractAuthorityFromClaims(rolesClaims);
+    }
+}
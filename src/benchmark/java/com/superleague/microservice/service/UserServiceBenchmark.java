@@ -0,0 +1,54 @@
+package com.superleague.microservice.service;
+
+import com.superleague.microservice.domain.User;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of the mapping of the IdP claims to a {@link User}, done on each authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserServiceBenchmark {
+    private Map<String, Object> oidcClaims;
+
+    private Map<String, Object> jwtClaims;
+
+    @Setup
+    public void setup() {
+        oidcClaims = new HashMap<>();
+        oidcClaims.put("sub", "00u1ab2cd3EF4gh5ij6k");
+        oidcClaims.put("preferred_username", "John.Doe");
+        oidcClaims.put("given_name", "John");
+        oidcClaims.put("family_name", "Doe");
+        oidcClaims.put("email", "John.Doe@example.com");
+        oidcClaims.put("email_verified", true);
+        oidcClaims.put("locale", "en-US");
+        oidcClaims.put("picture", "https://example.com/john.doe.png");
+
+        // Resource server tokens carry the email as subject and the ID as uid
+        jwtClaims = new HashMap<>();
+        jwtClaims.put("sub", "john.doe@example.com");
+        jwtClaims.put("uid", "00u1ab2cd3EF4gh5ij6k");
+        jwtClaims.put("langKey", "en");
+    }
+
+    @Benchmark
+    public User getUserFromOidcClaims() {
+        return UserService.getUser(oidcClaims);
+    }
+
+    @Benchmark
+    public User getUserFromJwtClaims() {
+        return UserService.getUser(jwtClaims);
+    }
+}
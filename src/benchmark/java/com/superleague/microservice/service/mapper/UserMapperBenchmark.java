@@ -0,0 +1,71 @@
+package com.superleague.microservice.service.mapper;
+
+import com.superleague.microservice.domain.Authority;
+import com.superleague.microservice.domain.User;
+import com.superleague.microservice.security.AuthoritiesConstants;
+import com.superleague.microservice.service.dto.UserDTO;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of the {@link UserMapper} conversions, for pages of growing sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserMapperBenchmark {
+    @Param({ "1", "20", "100" })
+    private int pageSize;
+
+    private final UserMapper userMapper = new UserMapper();
+
+    private List<User> users;
+
+    private List<UserDTO> userDTOs;
+
+    @Setup
+    public void setup() {
+        Set<Authority> authorities = new HashSet<>();
+        for (String name : new String[] { AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN }) {
+            Authority authority = new Authority();
+            authority.setName(name);
+            authorities.add(authority);
+        }
+        users = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            User user = new User();
+            user.setId("id-" + i);
+            user.setLogin("user-" + i);
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setEmail("user-" + i + "@example.com");
+            user.setImageUrl("https://example.com/user-" + i + ".png");
+            user.setActivated(true);
+            user.setLangKey("en");
+            user.setAuthorities(authorities);
+            users.add(user);
+        }
+        userDTOs = userMapper.usersToUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<User> userDTOsToUsers() {
+        return userMapper.userDTOsToUsers(userDTOs);
+    }
+}
@@ -1,6 +1,8 @@
 package com.superleague.microservice;
 
 import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.config.Constants;
+import com.superleague.microservice.config.startup.StartupTimelineInitializer;
 import io.github.jhipster.config.DefaultProfileUtil;
 import io.github.jhipster.config.JHipsterConstants;
 import java.net.InetAddress;
@@ -15,7 +17,9 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 
 @SpringBootApplication
 @EnableConfigurationProperties({ LiquibaseProperties.class, ApplicationProperties.class })
@@ -64,7 +68,14 @@ public class SuperleagueApp {
     public static void main(String[] args) {
         SpringApplication app = new SpringApplication(SuperleagueApp.class);
         DefaultProfileUtil.addDefaultProfile(app);
-        Environment env = app.run(args).getEnvironment();
+        app.addInitializers(new StartupTimelineInitializer());
+        ConfigurableApplicationContext context = app.run(args);
+        Environment env = context.getEnvironment();
+        if (env.acceptsProfiles(Profiles.of(Constants.SPRING_PROFILE_MIGRATE))) {
+            // Liquibase ran while the context started
+            log.info("Liquibase migrations applied, exiting");
+            System.exit(SpringApplication.exit(context));
+        }
         logApplicationStartup(env);
     }
 
@@ -2,6 +2,8 @@ package com.superleague.microservice.aop.logging;
 
 import io.github.jhipster.config.JHipsterConstants;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
@@ -22,6 +24,8 @@ import org.springframework.core.env.Profiles;
 public class LoggingAspect {
     private final Environment env;
 
+    private final Map<String, Logger> loggers = new ConcurrentHashMap<>();
+
     public LoggingAspect(Environment env) {
         this.env = env;
     }
@@ -57,7 +61,7 @@ public class LoggingAspect {
      * @return {@link Logger} associated to the given {@link JoinPoint}.
      */
     private Logger logger(JoinPoint joinPoint) {
-        return LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+        return loggers.computeIfAbsent(joinPoint.getSignature().getDeclaringTypeName(), LoggerFactory::getLogger);
     }
 
     /**
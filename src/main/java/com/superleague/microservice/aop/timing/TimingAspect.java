@@ -0,0 +1,134 @@
+package com.superleague.microservice.aop.timing;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Aspect timing the execution of service, repository and REST Spring components, in the {@code method.timed} timer.
+ * <p>
+ * Only a share of the calls is timed, set by {@code application.timing.sample-rate}: the counts of the timers are
+ * sampled, their percentiles are not. Whether a method is timed, and its timers, are resolved on its first call and
+ * kept, so that the following calls only pay for a map lookup and the timing itself.
+ */
+@Aspect
+public class TimingAspect {
+    static final String METRIC_NAME = "method.timed";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationProperties.Timing properties;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher(".");
+
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public TimingAspect(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = applicationProperties.getTiming();
+    }
+
+    /**
+     * Pointcut that matches all repositories, services and Web REST endpoints.
+     */
+    @Pointcut(
+        "within(@org.springframework.stereotype.Repository *)" +
+        " || within(@org.springframework.stereotype.Service *)" +
+        " || within(@org.springframework.web.bind.annotation.RestController *)"
+    )
+    public void springBeanPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all Spring beans in the application's main packages.
+     */
+    @Pointcut(
+        "within(com.superleague.microservice.repository..*)" +
+        " || within(com.superleague.microservice.service..*)" +
+        " || within(com.superleague.microservice.web.rest..*)"
+    )
+    public void applicationPackagePointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Advice that times a share of the method calls.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the exception of the method.
+     */
+    @Around("applicationPackagePointcut() && springBeanPointcut()")
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        MethodTimers methodTimers = timers.computeIfAbsent(signature.getMethod(), method -> createTimers(signature));
+        if (methodTimers == MethodTimers.NONE || !isSampled()) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            methodTimers.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            methodTimers.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private boolean isSampled() {
+        double sampleRate = properties.getSampleRate();
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private MethodTimers createTimers(MethodSignature signature) {
+        String path = signature.getDeclaringTypeName() + "." + signature.getName();
+        boolean included = properties.getIncludes().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+        boolean excluded = properties.getExcludes().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+        if (!included || excluded) {
+            return MethodTimers.NONE;
+        }
+        String className = signature.getDeclaringType().getSimpleName();
+        return new MethodTimers(timer(className, signature.getName(), "success"), timer(className, signature.getName(), "error"));
+    }
+
+    private Timer timer(String className, String methodName, String outcome) {
+        return Timer
+            .builder(METRIC_NAME)
+            .description("Execution time of the application methods, sampled")
+            .tag("class", className)
+            .tag("method", methodName)
+            .tag("outcome", outcome)
+            .publishPercentiles(properties.getPercentiles())
+            .publishPercentileHistogram(properties.isPercentileHistogram())
+            .register(meterRegistry);
+    }
+
+    private static class MethodTimers {
+        /**
+         * Marks the methods which are not timed.
+         */
+        static final MethodTimers NONE = new MethodTimers(null, null);
+
+        private final Timer success;
+
+        private final Timer error;
+
+        MethodTimers(Timer success, Timer error) {
+            this.success = success;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.superleague.microservice.client;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulkhead limiting the concurrent calls to a downstream service, with a limit adapted to its health by additive
+ * increase and multiplicative decrease (AIMD).
+ * <p>
+ * The limit grows by one after each good call made while more than half of it was in use, and is multiplied by the
+ * backoff ratio after each call which failed, was answered with {@code 429} or a {@code 5xx} status, or took longer
+ * than the latency threshold. Calls over the limit are rejected right away rather than queued.
+ */
+public class AdaptiveBulkhead {
+    private final ApplicationProperties.Bulkhead properties;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    public AdaptiveBulkhead(ApplicationProperties.Bulkhead properties) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+    }
+
+    /**
+     * Try to start a call.
+     *
+     * @return true if the call may proceed, in which case {@link #onComplete(long, boolean)} must be called; false if
+     * the limit is reached.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * End a call started by {@link #tryAcquire()}, and adapt the limit to its outcome.
+     *
+     * @param latencyNanos the duration of the call.
+     * @param failed whether the call failed, or the service reported being overloaded.
+     */
+    public void onComplete(long latencyNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (failed || latencyNanos > properties.getLatencyThreshold().toNanos()) {
+                limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+            } else if (current * 2 >= limit) {
+                limit = Math.min(properties.getMaxLimit(), limit + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,12 @@
+package com.superleague.microservice.client;
+
+/**
+ * Thrown when a Feign call is rejected because its client has reached its concurrency limit.
+ */
+public class BulkheadFullException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public BulkheadFullException(String clientName, int limit) {
+        super("Too many concurrent calls to " + clientName + ", the limit is " + limit);
+    }
+}
@@ -0,0 +1,40 @@
+package com.superleague.microservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Step run around the requests of the Feign clients, such as the {@link RequestCoalescer}.
+ */
+public interface ClientFilter {
+    /**
+     * Execute a request.
+     *
+     * @param request the request.
+     * @param options the options of the request.
+     * @param next the client sending the request, through the next filters.
+     * @return the response.
+     * @throws IOException if the request failed.
+     */
+    Response execute(Request request, Request.Options options, Client next) throws IOException;
+
+    /**
+     * Chain filters in front of a client.
+     *
+     * @param filters the filters, in the order they run.
+     * @param client the client sending the requests.
+     * @return the client running the filters.
+     */
+    static Client chain(List<ClientFilter> filters, Client client) {
+        Client chained = client;
+        for (int i = filters.size() - 1; i >= 0; i--) {
+            ClientFilter filter = filters.get(i);
+            Client next = chained;
+            chained = (request, options) -> filter.execute(request, options, next);
+        }
+        return chained;
+    }
+}
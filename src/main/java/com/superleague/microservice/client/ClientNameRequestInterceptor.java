@@ -0,0 +1,20 @@
+package com.superleague.microservice.client;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Marks the requests of a Feign client with its name, for the {@link FeignBulkheads}.
+ */
+public class ClientNameRequestInterceptor implements RequestInterceptor {
+    private final String clientName;
+
+    public ClientNameRequestInterceptor(String clientName) {
+        this.clientName = clientName;
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        template.header(FeignBulkheads.CLIENT_NAME_HEADER, clientName);
+    }
+}
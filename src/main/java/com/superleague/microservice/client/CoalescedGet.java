@@ -0,0 +1,24 @@
+package com.superleague.microservice.client;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a GET method of an {@link AuthorizedFeignClient} whose identical concurrent calls share a single request, and
+ * whose successful responses are cached for a short time, per principal.
+ * <p>
+ * Calls are identical when they have the same URL, {@code Accept} and {@code Authorization} headers. Responses are
+ * cached for the {@link #ttl()} of the method, or for their {@code Cache-Control} max-age if it is shorter, and not
+ * cached at all when it has {@code no-store} or {@code no-cache}.
+ *
+ * @see RequestCoalescer
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface CoalescedGet {
+    /**
+     * How long the responses are cached, such as {@code 2s}; {@code 0} only shares the concurrent calls.
+     * @return the time to live of the responses, or empty for the one of {@code application.cache.feign-responses}.
+     */
+    String ttl() default "";
+}
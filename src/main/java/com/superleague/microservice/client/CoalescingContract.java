@@ -0,0 +1,33 @@
+package com.superleague.microservice.client;
+
+import feign.MethodMetadata;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.convert.ConversionService;
+
+/**
+ * {@link SpringMvcContract} marking the requests of the methods annotated with {@link CoalescedGet}, for the
+ * {@link RequestCoalescer}.
+ */
+public class CoalescingContract extends SpringMvcContract {
+
+    public CoalescingContract(ConversionService conversionService) {
+        super(Collections.emptyList(), conversionService);
+    }
+
+    @Override
+    public MethodMetadata parseAndValidateMetadata(Class<?> targetType, Method method) {
+        MethodMetadata metadata = super.parseAndValidateMetadata(targetType, method);
+        CoalescedGet coalescedGet = AnnotatedElementUtils.findMergedAnnotation(method, CoalescedGet.class);
+        if (coalescedGet != null) {
+            if (!"GET".equals(metadata.template().method())) {
+                throw new IllegalStateException("@CoalescedGet is only supported on GET methods, not on " + metadata.configKey());
+            }
+            String ttl = coalescedGet.ttl().isEmpty() ? RequestCoalescer.DEFAULT_TTL : coalescedGet.ttl();
+            metadata.template().header(RequestCoalescer.MARKER_HEADER, ttl);
+        }
+        return metadata;
+    }
+}
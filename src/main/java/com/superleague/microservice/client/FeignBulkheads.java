@@ -0,0 +1,118 @@
+package com.superleague.microservice.client;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs the calls of each Feign client in its own {@link AdaptiveBulkhead}, so that a slow downstream service can only
+ * hold the request threads up to the limit of its client.
+ * <p>
+ * Clients are named after their {@code @AuthorizedFeignClient} name, marked on their requests by the
+ * {@link ClientNameRequestInterceptor}; the requests of other clients are left alone. Bulkheads are configured by
+ * {@code application.feign-client.bulkheads}, and publish their limit, calls in flight and rejected calls in the
+ * {@code feign.client.bulkhead.*} meters.
+ */
+public class FeignBulkheads implements ClientFilter {
+    /**
+     * Header carrying the name of the client of a request; it is never sent.
+     */
+    static final String CLIENT_NAME_HEADER = "X-Feign-Client";
+
+    static final String METRIC_PREFIX = "feign.client.bulkhead";
+
+    private final ApplicationProperties.Bulkheads properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, NamedBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public FeignBulkheads(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getFeignClient().getBulkheads();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options, Client next) throws IOException {
+        Collection<String> clientNames = request.headers().get(CLIENT_NAME_HEADER);
+        if (clientNames == null || clientNames.isEmpty()) {
+            return next.execute(request, options);
+        }
+        String clientName = clientNames.iterator().next();
+        request = unmarked(request);
+        if (!properties.getBulkhead(clientName).isEnabled()) {
+            return next.execute(request, options);
+        }
+
+        NamedBulkhead bulkhead = bulkheads.computeIfAbsent(clientName, this::createBulkhead);
+        if (!bulkhead.bulkhead.tryAcquire()) {
+            bulkhead.rejected.increment();
+            throw new BulkheadFullException(clientName, bulkhead.bulkhead.getLimit());
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Response response = next.execute(request, options);
+            failed = response.status() == 429 || response.status() >= 500;
+            return response;
+        } finally {
+            bulkhead.bulkhead.onComplete(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * @param clientName the name of a Feign client.
+     * @return the bulkhead of this client, if it has been called.
+     */
+    AdaptiveBulkhead getBulkhead(String clientName) {
+        NamedBulkhead bulkhead = bulkheads.get(clientName);
+        return bulkhead == null ? null : bulkhead.bulkhead;
+    }
+
+    private static Request unmarked(Request request) {
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(request.headers());
+        headers.remove(CLIENT_NAME_HEADER);
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(), request.requestTemplate());
+    }
+
+    private NamedBulkhead createBulkhead(String clientName) {
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead(properties.getBulkhead(clientName));
+        Gauge
+            .builder(METRIC_PREFIX + ".limit", bulkhead, AdaptiveBulkhead::getLimit)
+            .description("Concurrent calls allowed to the client")
+            .tag("client", clientName)
+            .register(meterRegistry);
+        Gauge
+            .builder(METRIC_PREFIX + ".inflight", bulkhead, AdaptiveBulkhead::getInFlight)
+            .description("Calls of the client in flight")
+            .tag("client", clientName)
+            .register(meterRegistry);
+        Counter rejected = Counter
+            .builder(METRIC_PREFIX + ".rejected")
+            .description("Calls of the client rejected as its limit was reached")
+            .tag("client", clientName)
+            .register(meterRegistry);
+        return new NamedBulkhead(bulkhead, rejected);
+    }
+
+    private static class NamedBulkhead {
+        private final AdaptiveBulkhead bulkhead;
+
+        private final Counter rejected;
+
+        NamedBulkhead(AdaptiveBulkhead bulkhead, Counter rejected) {
+            this.bulkhead = bulkhead;
+            this.rejected = rejected;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.superleague.microservice.client;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * Connection pool of the Feign clients, with a connection limit per target.
+ * <p>
+ * Targets are the hosts and ports the requests are sent to. Each one gets {@code max-connections-per-target}
+ * connections, unless it is listed in {@code application.feign-client.targets}, by {@code host:port} or by host. As the
+ * targets of load balanced clients are only known once an instance is chosen, limits are applied to each target on its
+ * first connection, along with its {@code feign.client.pool.*} gauges.
+ * <p>
+ * Instances of load balanced services come and go: the routes without connections nor requests for
+ * {@code idle-timeout} are forgotten when the idle connections are closed, and their gauges and
+ * {@code feign.client.requests} timers removed, so that the meters do not grow with every instance ever called.
+ */
+public class FeignConnectionManager extends PoolingHttpClientConnectionManager {
+    static final String METRIC_PREFIX = "feign.client.pool";
+
+    private final ApplicationProperties.FeignClient properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<HttpRoute, KnownRoute> knownRoutes = new ConcurrentHashMap<>();
+
+    public FeignConnectionManager(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        super(applicationProperties.getFeignClient().getTimeToLive().toMillis(), TimeUnit.MILLISECONDS);
+        this.properties = applicationProperties.getFeignClient();
+        this.meterRegistry = meterRegistry;
+        setMaxTotal(properties.getMaxConnections());
+        setDefaultMaxPerRoute(properties.getMaxConnectionsPerTarget());
+        setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        KnownRoute knownRoute = knownRoutes.get(route);
+        if (knownRoute == null) {
+            knownRoute = knownRoutes.computeIfAbsent(route, this::configureRoute);
+        }
+        knownRoute.lastRequest = System.currentTimeMillis();
+        return super.requestConnection(route, state);
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTimeout, TimeUnit unit) {
+        super.closeIdleConnections(idleTimeout, unit);
+        removeUnusedRoutes();
+    }
+
+    /**
+     * Forget the routes without connections nor requests for {@code idle-timeout}, along with their meters.
+     */
+    void removeUnusedRoutes() {
+        long unusedSince = System.currentTimeMillis() - properties.getIdleTimeout().toMillis();
+        for (HttpRoute route : knownRoutes.keySet()) {
+            knownRoutes.computeIfPresent(
+                route,
+                (unusedRoute, knownRoute) -> {
+                    PoolStats stats = getStats(unusedRoute);
+                    if (
+                        knownRoute.lastRequest > unusedSince ||
+                        stats.getLeased() > 0 ||
+                        stats.getPending() > 0 ||
+                        stats.getAvailable() > 0
+                    ) {
+                        return knownRoute;
+                    }
+                    knownRoute.gauges.forEach(meterRegistry::remove);
+                    meterRegistry
+                        .find(TimedHttpRequestExecutor.METRIC_NAME)
+                        .tag("target", knownRoute.target)
+                        .meters()
+                        .forEach(meterRegistry::remove);
+                    return null;
+                }
+            );
+        }
+    }
+
+    private KnownRoute configureRoute(HttpRoute route) {
+        String target = route.getTargetHost().toHostString();
+        Integer max = properties.getTargets().get(target);
+        if (max == null) {
+            max = properties.getTargets().get(route.getTargetHost().getHostName());
+        }
+        if (max != null) {
+            setMaxPerRoute(route, max);
+        }
+        KnownRoute knownRoute = new KnownRoute(target);
+        knownRoute.gauges.add(gauge("leased", "Connections to the target in use", target, route, PoolStats::getLeased));
+        knownRoute.gauges.add(gauge("available", "Idle connections to the target", target, route, PoolStats::getAvailable));
+        knownRoute.gauges.add(gauge("pending", "Requests waiting for a connection to the target", target, route, PoolStats::getPending));
+        knownRoute.gauges.add(gauge("max", "Maximum connections to the target", target, route, PoolStats::getMax));
+        return knownRoute;
+    }
+
+    private Gauge gauge(String name, String description, String target, HttpRoute route, ToDoubleFunction<PoolStats> value) {
+        return Gauge
+            .builder(METRIC_PREFIX + "." + name, this, connectionManager -> value.applyAsDouble(connectionManager.getStats(route)))
+            .description(description)
+            .tag("target", target)
+            .register(meterRegistry);
+    }
+
+    private static class KnownRoute {
+        private final String target;
+
+        private final List<Meter> gauges = new ArrayList<>();
+
+        private volatile long lastRequest;
+
+        KnownRoute(String target) {
+            this.target = target;
+        }
+    }
+}
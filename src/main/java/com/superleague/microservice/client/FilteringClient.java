@@ -0,0 +1,23 @@
+package com.superleague.microservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@link Client} running {@link ClientFilter}s around the requests of its delegate.
+ */
+public class FilteringClient implements Client {
+    private final Client chain;
+
+    public FilteringClient(Client delegate, List<ClientFilter> filters) {
+        this.chain = ClientFilter.chain(filters, delegate);
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        return chain.execute(request, options);
+    }
+}
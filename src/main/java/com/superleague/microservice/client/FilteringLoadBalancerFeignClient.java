@@ -0,0 +1,37 @@
+package com.superleague.microservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import java.io.IOException;
+import java.util.List;
+import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
+import org.springframework.cloud.openfeign.ribbon.CachingSpringLoadBalancerFactory;
+import org.springframework.cloud.openfeign.ribbon.LoadBalancerFeignClient;
+
+/**
+ * {@link LoadBalancerFeignClient} running {@link ClientFilter}s before an instance is chosen, so that they see the
+ * calls to a service whichever instance serves them.
+ * <p>
+ * Feign clients with a fixed URL bypass the load balancer and only use its delegate, which should then be a
+ * {@link FilteringClient} with the same filters. Filters only act once on each request, as they remove the headers
+ * marking the requests they act on.
+ */
+public class FilteringLoadBalancerFeignClient extends LoadBalancerFeignClient {
+    private final Client chain;
+
+    public FilteringLoadBalancerFeignClient(
+        Client delegate,
+        CachingSpringLoadBalancerFactory lbClientFactory,
+        SpringClientFactory clientFactory,
+        List<ClientFilter> filters
+    ) {
+        super(delegate, lbClientFactory, clientFactory);
+        this.chain = ClientFilter.chain(filters, super::execute);
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        return chain.execute(request, options);
+    }
+}
@@ -1,8 +1,11 @@
 package com.superleague.microservice.client;
 
 import com.superleague.microservice.security.oauth2.AuthorizationHeaderUtil;
+import feign.Contract;
 import feign.RequestInterceptor;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.env.Environment;
 
 public class OAuth2InterceptedFeignConfiguration {
 
@@ -10,4 +13,20 @@ public class OAuth2InterceptedFeignConfiguration {
     public RequestInterceptor getOAuth2RequestInterceptor(AuthorizationHeaderUtil authorizationHeaderUtil) {
         return new TokenRelayRequestInterceptor(authorizationHeaderUtil);
     }
+
+    /**
+     * Marks the requests with the name of the client, which Spring Cloud sets in the context of each client.
+     */
+    @Bean
+    public RequestInterceptor clientNameRequestInterceptor(Environment environment) {
+        return new ClientNameRequestInterceptor(environment.getRequiredProperty("feign.client.name"));
+    }
+
+    /**
+     * Spring MVC contract, which also honours {@link CoalescedGet} on the methods of the clients.
+     */
+    @Bean
+    public Contract feignContract(ConversionService feignConversionService) {
+        return new CoalescingContract(feignConversionService);
+    }
 }
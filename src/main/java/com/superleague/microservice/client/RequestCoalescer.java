@@ -0,0 +1,270 @@
+package com.superleague.microservice.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.superleague.microservice.config.ApplicationProperties;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Shares the responses of the Feign GETs annotated with {@link CoalescedGet}.
+ * <p>
+ * The first of several identical calls sends the request, and the others wait for its response instead of sending
+ * their own. Successful responses are then cached, each for the time to live of its method, shortened by its
+ * {@code Cache-Control} max-age. Calls are keyed by their URL, {@code Accept} header and the digest of their
+ * {@code Authorization} header, so that responses are only ever shared between calls of the same principal.
+ * <p>
+ * Only {@code 200} responses whose body fits in {@code max-body-size} are shared: the calls waiting for another
+ * response send their own request.
+ */
+public class RequestCoalescer implements ClientFilter {
+    /**
+     * Header marking the requests to coalesce, with the time to live of their responses; it is never sent.
+     */
+    static final String MARKER_HEADER = "X-Coalesced-Get";
+
+    static final String DEFAULT_TTL = "default";
+
+    static final String CACHE_NAME = "feignResponses";
+
+    private final ApplicationProperties.FeignResponseCache properties;
+
+    private final Map<String, CompletableFuture<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<String, Duration> timesToLive = new ConcurrentHashMap<>();
+
+    private final Cache<String, SharedResponse> cache;
+
+    private final Counter coalescedCounter;
+
+    public RequestCoalescer(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getCache().getFeignResponses();
+        this.cache =
+            Caffeine.newBuilder().maximumSize(properties.getMaximumSize()).expireAfter(new ResponseExpiry()).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.coalescedCounter =
+            Counter
+                .builder("feign.client.coalesced")
+                .description("Feign calls which shared the response of an identical call in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Execute a request, sharing its response if it is marked.
+     *
+     * @param request the request.
+     * @param options the options of the request.
+     * @param next the client sending the request.
+     * @return the response.
+     * @throws IOException if the request, or the identical request this one waited for, failed.
+     */
+    @Override
+    public Response execute(Request request, Request.Options options, Client next) throws IOException {
+        Collection<String> marker = request.headers().get(MARKER_HEADER);
+        if (marker == null || marker.isEmpty()) {
+            return next.execute(request, options);
+        }
+        Request unmarked = unmarked(request);
+        if (unmarked.httpMethod() != Request.HttpMethod.GET) {
+            return next.execute(unmarked, options);
+        }
+        String key = key(unmarked);
+        if (properties.isEnabled()) {
+            SharedResponse cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return cached.toResponse(unmarked);
+            }
+        }
+
+        CompletableFuture<SharedResponse> future = new CompletableFuture<>();
+        CompletableFuture<SharedResponse> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            coalescedCounter.increment();
+            SharedResponse shared = await(running);
+            return shared != null ? shared.toResponse(unmarked) : next.execute(unmarked, options);
+        }
+        try {
+            Response response = next.execute(unmarked, options);
+            if (response.status() == 200 && response.body() != null) {
+                response = buffer(response);
+            }
+            if (response.status() != 200 || response.body() == null || !response.body().isRepeatable()) {
+                future.complete(null);
+                return response;
+            }
+            byte[] body = Util.toByteArray(response.body().asInputStream());
+            SharedResponse shared = new SharedResponse(response, body, timeToLive(marker.iterator().next(), response));
+            if (properties.isEnabled() && !shared.timeToLive.isZero()) {
+                cache.put(key, shared);
+            }
+            future.complete(shared);
+            return shared.toResponse(unmarked);
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private static Request unmarked(Request request) {
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(request.headers());
+        headers.remove(MARKER_HEADER);
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(), request.requestTemplate());
+    }
+
+    private static String key(Request request) {
+        Collection<String> authorization = request.headers().getOrDefault(HttpHeaders.AUTHORIZATION, Collections.emptyList());
+        Collection<String> accept = request.headers().getOrDefault(HttpHeaders.ACCEPT, Collections.emptyList());
+        return request.url() + "\n" + accept + "\n" + digest(String.join(",", authorization));
+    }
+
+    private static SharedResponse await(CompletableFuture<SharedResponse> running) throws IOException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an identical request");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Identical request failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Read the body of a response in memory, if it fits in {@code max-body-size}.
+     *
+     * @return the response with a repeatable body, or with its body left to stream if it is too large.
+     */
+    private Response buffer(Response response) throws IOException {
+        long maxBodySize = properties.getMaxBodySize().toBytes();
+        Integer length = response.body().length();
+        if (length != null && length > maxBodySize) {
+            return response;
+        }
+        InputStream in = response.body().asInputStream();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length != null ? length : 4096);
+        byte[] buffer = new byte[4096];
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+            out.write(buffer, 0, read);
+            if (out.size() > maxBodySize) {
+                // Hand the part already read back to the caller, followed by the rest
+                return response.toBuilder().body(new SequenceInputStream(new ByteArrayInputStream(out.toByteArray()), in), null).build();
+            }
+        }
+        response.close();
+        return response.toBuilder().body(out.toByteArray()).build();
+    }
+
+    private Duration timeToLive(String ttl, Response response) {
+        Duration timeToLive = timesToLive.computeIfAbsent(
+            ttl,
+            value -> DEFAULT_TTL.equals(value) ? properties.getTimeToLive() : DurationStyle.detectAndParse(value)
+        );
+        for (String cacheControl : response.headers().getOrDefault(HttpHeaders.CACHE_CONTROL, Collections.emptyList())) {
+            for (String directive : cacheControl.toLowerCase().split(",")) {
+                directive = directive.trim();
+                if (directive.equals("no-store") || directive.equals("no-cache")) {
+                    return Duration.ZERO;
+                }
+                if (directive.startsWith("max-age=")) {
+                    try {
+                        Duration maxAge = Duration.ofSeconds(Long.parseLong(directive.substring("max-age=".length())));
+                        if (maxAge.compareTo(timeToLive) < 0) {
+                            timeToLive = maxAge;
+                        }
+                    } catch (NumberFormatException e) {
+                        return Duration.ZERO;
+                    }
+                }
+            }
+        }
+        return timeToLive;
+    }
+
+    private static String digest(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A response read in full, from which each call gets its own copy.
+     */
+    private static class SharedResponse {
+        private final int status;
+
+        private final String reason;
+
+        private final Map<String, Collection<String>> headers;
+
+        private final byte[] body;
+
+        private final Duration timeToLive;
+
+        SharedResponse(Response response, byte[] body, Duration timeToLive) {
+            this.status = response.status();
+            this.reason = response.reason();
+            this.headers = response.headers();
+            this.body = body;
+            this.timeToLive = timeToLive;
+        }
+
+        Response toResponse(Request request) {
+            return Response.builder().status(status).reason(reason).headers(headers).body(body).request(request).build();
+        }
+    }
+
+    /**
+     * Expires each response after its own time to live.
+     */
+    private static class ResponseExpiry implements Expiry<String, SharedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, SharedResponse value, long currentTime) {
+            return value.timeToLive.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, SharedResponse value, long currentTime, long currentDuration) {
+            return value.timeToLive.toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, SharedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
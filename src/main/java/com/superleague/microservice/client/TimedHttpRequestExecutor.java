@@ -0,0 +1,54 @@
+package com.superleague.microservice.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+/**
+ * {@link HttpRequestExecutor} timing the exchanges of the Feign clients with each target, in the
+ * {@code feign.client.requests} timer.
+ * <p>
+ * The time measured runs from sending the request on a connection to receiving the response headers: the wait for a
+ * pooled connection is shown by the {@code feign.client.pool.pending} gauges instead. The timers of the targets no
+ * longer called are removed by the {@link FeignConnectionManager}.
+ */
+public class TimedHttpRequestExecutor extends HttpRequestExecutor {
+    static final String METRIC_NAME = "feign.client.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    public TimedHttpRequestExecutor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequest request, HttpClientConnection conn, HttpContext context)
+        throws IOException, HttpException {
+        long start = System.nanoTime();
+        String status = "IO_ERROR";
+        try {
+            HttpResponse response = super.execute(request, conn, context);
+            status = String.valueOf(response.getStatusLine().getStatusCode());
+            return response;
+        } finally {
+            HttpHost targetHost = HttpClientContext.adapt(context).getTargetHost();
+            Timer
+                .builder(METRIC_NAME)
+                .description("Time of the requests of the Feign clients, by target")
+                .tag("target", targetHost == null ? "UNKNOWN" : targetHost.toHostString())
+                .tag("method", request.getRequestLine().getMethod())
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
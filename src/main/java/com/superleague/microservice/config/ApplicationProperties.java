@@ -1,6 +1,14 @@
 package com.superleague.microservice.config;
 
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Superleague.
@@ -9,4 +17,805 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link io.github.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+    private final SearchIndexer searchIndexer = new SearchIndexer();
+
+    private final SearchReindex searchReindex = new SearchReindex();
+
+    private final Search search = new Search();
+
+    private final Bulk bulk = new Bulk();
+
+    private final Cache cache = new Cache();
+
+    private final Audit audit = new Audit();
+
+    private final TokenRefresh tokenRefresh = new TokenRefresh();
+
+    private final Timing timing = new Timing();
+
+    private final FeignClient feignClient = new FeignClient();
+
+    private final Startup startup = new Startup();
+
+    private final Liquibase liquibase = new Liquibase();
+
+    public SearchIndexer getSearchIndexer() {
+        return searchIndexer;
+    }
+
+    public SearchReindex getSearchReindex() {
+        return searchReindex;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public TokenRefresh getTokenRefresh() {
+        return tokenRefresh;
+    }
+
+    public Timing getTiming() {
+        return timing;
+    }
+
+    public FeignClient getFeignClient() {
+        return feignClient;
+    }
+
+    public Startup getStartup() {
+        return startup;
+    }
+
+    public Liquibase getLiquibase() {
+        return liquibase;
+    }
+
+    public static class SearchIndexer {
+        private boolean enabled = true;
+
+        private long pollInterval = 1000;
+
+        private int batchSize = 500;
+
+        private int maxAttempts = 5;
+
+        private Duration leaseDuration = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(long pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getLeaseDuration() {
+            return leaseDuration;
+        }
+
+        public void setLeaseDuration(Duration leaseDuration) {
+            this.leaseDuration = leaseDuration;
+        }
+    }
+
+    public static class SearchReindex {
+        private int workers = 4;
+
+        private int pageSize = 500;
+
+        private Duration gcDeletes = Duration.ofMinutes(10);
+
+        private Duration abandonedAfter = Duration.ofMinutes(5);
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        public Duration getGcDeletes() {
+            return gcDeletes;
+        }
+
+        public void setGcDeletes(Duration gcDeletes) {
+            this.gcDeletes = gcDeletes;
+        }
+
+        public Duration getAbandonedAfter() {
+            return abandonedAfter;
+        }
+
+        public void setAbandonedAfter(Duration abandonedAfter) {
+            this.abandonedAfter = abandonedAfter;
+        }
+    }
+
+    public static class Search {
+        private int maxResultWindow = 10000;
+
+        private int maxPageSize = 200;
+
+        public int getMaxResultWindow() {
+            return maxResultWindow;
+        }
+
+        public void setMaxResultWindow(int maxResultWindow) {
+            this.maxResultWindow = maxResultWindow;
+        }
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+    }
+
+    public static class Bulk {
+        private int chunkSize = 100;
+
+        private int maxItems = 1000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+    }
+
+    public static class Audit {
+        private boolean async = true;
+
+        private int bufferSize = 10000;
+
+        private int flushSize = 100;
+
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        private Duration offerTimeout = Duration.ofMillis(10);
+
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+        private final Purge purge = new Purge();
+
+        public boolean isAsync() {
+            return async;
+        }
+
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getFlushSize() {
+            return flushSize;
+        }
+
+        public void setFlushSize(int flushSize) {
+            this.flushSize = flushSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public Duration getOfferTimeout() {
+            return offerTimeout;
+        }
+
+        public void setOfferTimeout(Duration offerTimeout) {
+            this.offerTimeout = offerTimeout;
+        }
+
+        public Duration getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+
+        public Purge getPurge() {
+            return purge;
+        }
+
+        public static class Purge {
+            private int chunkSize = 1000;
+
+            private Duration pause = Duration.ofMillis(100);
+
+            private Duration leaseDuration = Duration.ofMinutes(10);
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+
+            public Duration getPause() {
+                return pause;
+            }
+
+            public void setPause(Duration pause) {
+                this.pause = pause;
+            }
+
+            public Duration getLeaseDuration() {
+                return leaseDuration;
+            }
+
+            public void setLeaseDuration(Duration leaseDuration) {
+                this.leaseDuration = leaseDuration;
+            }
+        }
+    }
+
+    public static class TokenRefresh {
+        private double proactiveRatio = 0.2;
+
+        private Duration proactiveWindow = Duration.ofMinutes(5);
+
+        private int maxConnections = 20;
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        private Duration readTimeout = Duration.ofSeconds(10);
+
+        public double getProactiveRatio() {
+            return proactiveRatio;
+        }
+
+        public void setProactiveRatio(double proactiveRatio) {
+            this.proactiveRatio = proactiveRatio;
+        }
+
+        public Duration getProactiveWindow() {
+            return proactiveWindow;
+        }
+
+        public void setProactiveWindow(Duration proactiveWindow) {
+            this.proactiveWindow = proactiveWindow;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+    }
+
+    public static class Timing {
+        private boolean enabled = false;
+
+        private double sampleRate = 1.0;
+
+        private List<String> includes = new ArrayList<>(Collections.singletonList("com.superleague.microservice.**"));
+
+        private List<String> excludes = new ArrayList<>();
+
+        private double[] percentiles = { 0.5, 0.99 };
+
+        private boolean percentileHistogram = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public List<String> getIncludes() {
+            return includes;
+        }
+
+        public void setIncludes(List<String> includes) {
+            this.includes = includes;
+        }
+
+        public List<String> getExcludes() {
+            return excludes;
+        }
+
+        public void setExcludes(List<String> excludes) {
+            this.excludes = excludes;
+        }
+
+        public double[] getPercentiles() {
+            return percentiles;
+        }
+
+        public void setPercentiles(double[] percentiles) {
+            this.percentiles = percentiles;
+        }
+
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+    }
+
+    public static class FeignClient {
+        private final Bulkheads bulkheads = new Bulkheads();
+
+        private int maxConnections = 200;
+
+        private int maxConnectionsPerTarget = 50;
+
+        private Map<String, Integer> targets = new HashMap<>();
+
+        private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+        private Duration idleTimeout = Duration.ofSeconds(30);
+
+        private Duration timeToLive = Duration.ofMinutes(15);
+
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getMaxConnectionsPerTarget() {
+            return maxConnectionsPerTarget;
+        }
+
+        public void setMaxConnectionsPerTarget(int maxConnectionsPerTarget) {
+            this.maxConnectionsPerTarget = maxConnectionsPerTarget;
+        }
+
+        public Map<String, Integer> getTargets() {
+            return targets;
+        }
+
+        public void setTargets(Map<String, Integer> targets) {
+            this.targets = targets;
+        }
+
+        public Duration getConnectionRequestTimeout() {
+            return connectionRequestTimeout;
+        }
+
+        public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+            this.connectionRequestTimeout = connectionRequestTimeout;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getValidateAfterInactivity() {
+            return validateAfterInactivity;
+        }
+
+        public void setValidateAfterInactivity(Duration validateAfterInactivity) {
+            this.validateAfterInactivity = validateAfterInactivity;
+        }
+
+        public Bulkheads getBulkheads() {
+            return bulkheads;
+        }
+    }
+
+    public static class Bulkheads {
+        private final Bulkhead defaults = new Bulkhead();
+
+        private Map<String, Bulkhead> clients = new HashMap<>();
+
+        public Bulkhead getDefaults() {
+            return defaults;
+        }
+
+        public Map<String, Bulkhead> getClients() {
+            return clients;
+        }
+
+        public void setClients(Map<String, Bulkhead> clients) {
+            this.clients = clients;
+        }
+
+        /**
+         * @param clientName the name of the Feign client.
+         * @return the bulkhead of this client, or the default one if it has none.
+         */
+        public Bulkhead getBulkhead(String clientName) {
+            return clients.getOrDefault(clientName, defaults);
+        }
+    }
+
+    public static class Bulkhead {
+        private boolean enabled = true;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 2;
+
+        private int maxLimit = 200;
+
+        private double backoffRatio = 0.9;
+
+        private Duration latencyThreshold = Duration.ofSeconds(2);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+    }
+
+    public static class Startup {
+        private boolean timeline = true;
+
+        private String reportFile = Paths.get(System.getProperty("java.io.tmpdir"), "superleague-startup.json").toString();
+
+        private int reportSize = 50;
+
+        private boolean deferOidcDiscovery = false;
+
+        private boolean deferMemcachedConnections = false;
+
+        public boolean isTimeline() {
+            return timeline;
+        }
+
+        public void setTimeline(boolean timeline) {
+            this.timeline = timeline;
+        }
+
+        public String getReportFile() {
+            return reportFile;
+        }
+
+        public void setReportFile(String reportFile) {
+            this.reportFile = reportFile;
+        }
+
+        public int getReportSize() {
+            return reportSize;
+        }
+
+        public void setReportSize(int reportSize) {
+            this.reportSize = reportSize;
+        }
+
+        public boolean isDeferOidcDiscovery() {
+            return deferOidcDiscovery;
+        }
+
+        public void setDeferOidcDiscovery(boolean deferOidcDiscovery) {
+            this.deferOidcDiscovery = deferOidcDiscovery;
+        }
+
+        public boolean isDeferMemcachedConnections() {
+            return deferMemcachedConnections;
+        }
+
+        public void setDeferMemcachedConnections(boolean deferMemcachedConnections) {
+            this.deferMemcachedConnections = deferMemcachedConnections;
+        }
+    }
+
+    public static class Liquibase {
+        private boolean skipUnchanged = true;
+
+        public boolean isSkipUnchanged() {
+            return skipUnchanged;
+        }
+
+        public void setSkipUnchanged(boolean skipUnchanged) {
+            this.skipUnchanged = skipUnchanged;
+        }
+    }
+
+    public static class Cache {
+        private final NearCache nearCache = new NearCache();
+
+        private final CacheSpecs hibernate = new CacheSpecs();
+
+        private final SearchCache search = new SearchCache();
+
+        private final JwtCache jwt = new JwtCache();
+
+        private final CacheSpec userSync = new CacheSpec();
+
+        private final FeignResponseCache feignResponses = new FeignResponseCache();
+
+        public NearCache getNearCache() {
+            return nearCache;
+        }
+
+        public CacheSpecs getHibernate() {
+            return hibernate;
+        }
+
+        public SearchCache getSearch() {
+            return search;
+        }
+
+        public JwtCache getJwt() {
+            return jwt;
+        }
+
+        public CacheSpec getUserSync() {
+            return userSync;
+        }
+
+        public FeignResponseCache getFeignResponses() {
+            return feignResponses;
+        }
+    }
+
+    public static class CacheSpecs {
+        private final CacheSpec defaults = new CacheSpec();
+
+        private Map<String, CacheSpec> caches = new HashMap<>();
+
+        public CacheSpec getDefaults() {
+            return defaults;
+        }
+
+        public Map<String, CacheSpec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, CacheSpec> caches) {
+            this.caches = caches;
+        }
+
+        /**
+         * @param cacheName the name of the cache.
+         * @return the specification of this cache, or the default one if it has none.
+         */
+        public CacheSpec getSpec(String cacheName) {
+            return caches.getOrDefault(cacheName, defaults);
+        }
+    }
+
+    public static class NearCache extends CacheSpecs {
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class SearchCache extends CacheSpec {
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class JwtCache extends CacheSpec {
+        private boolean enabled = true;
+
+        public JwtCache() {
+            setMaximumSize(10000);
+            setTimeToLive(Duration.ofMinutes(5));
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class FeignResponseCache extends CacheSpec {
+        private boolean enabled = true;
+
+        private DataSize maxBodySize = DataSize.ofKilobytes(256);
+
+        public FeignResponseCache() {
+            setTimeToLive(Duration.ofSeconds(5));
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+    }
+
+    public static class CacheSpec {
+        private long maximumSize = 1000;
+
+        private Duration timeToLive = Duration.ofSeconds(60);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+}
@@ -1,24 +1,36 @@
 package com.superleague.microservice.config;
 
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
 import com.google.code.ssm.CacheFactory;
 import com.google.code.ssm.config.DefaultAddressProvider;
 import com.google.code.ssm.providers.xmemcached.MemcacheClientFactoryImpl;
 import com.google.code.ssm.providers.xmemcached.XMemcachedConfiguration;
 import com.google.code.ssm.spring.SSMCache;
 import com.google.code.ssm.spring.SSMCacheManager;
+import com.superleague.microservice.config.cache.LazyCacheManager;
+import com.superleague.microservice.config.cache.TwoTierCacheManager;
 import com.superleague.microservice.repository.UserRepository;
 import io.github.jhipster.config.JHipsterProperties;
 import io.github.jhipster.config.cache.PrefixedKeyGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
 import net.rubyeye.xmemcached.auth.AuthInfo;
 import net.rubyeye.xmemcached.utils.AddrUtil;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.CacheManager;
@@ -36,13 +48,41 @@ public class CacheConfiguration {
     private final Logger log = LoggerFactory.getLogger(CacheConfiguration.class);
 
     @Bean
-    public CacheManager memcachedCacheManager(JHipsterProperties jHipsterProperties, List<CacheFactory> caches) throws Exception {
+    public CacheManager memcachedCacheManager(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        List<CacheFactory> caches,
+        MeterRegistry meterRegistry
+    ) throws Exception {
         if (!jHipsterProperties.getCache().getMemcached().isEnabled()) {
             // Note that Memcached cannot work with Spring Boot devtools
             // So it should be disabled in development mode
             log.debug("Memcached is disabled");
             return new NoOpCacheManager();
         }
+        if (applicationProperties.getStartup().isDeferMemcachedConnections()) {
+            log.debug("Deferring the Memcached connections to the first cache access");
+            List<String> cacheNames = caches.stream().map(CacheFactory::getCacheName).collect(Collectors.toList());
+            return new LazyCacheManager(
+                () -> {
+                    try {
+                        return createMemcachedCacheManager(jHipsterProperties, applicationProperties, caches, meterRegistry);
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Could not connect to Memcached", e);
+                    }
+                },
+                cacheNames
+            );
+        }
+        return createMemcachedCacheManager(jHipsterProperties, applicationProperties, caches, meterRegistry);
+    }
+
+    private CacheManager createMemcachedCacheManager(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        List<CacheFactory> caches,
+        MeterRegistry meterRegistry
+    ) throws Exception {
         log.debug("Starting Memcached configuration");
         SSMCacheManager cacheManager = new SSMCacheManager();
         List<SSMCache> ssmCaches = new ArrayList<>();
@@ -52,9 +92,60 @@ public class CacheConfiguration {
             ssmCaches.add(ssmCache);
         }
         cacheManager.setCaches(ssmCaches);
+        cacheManager.afterPropertiesSet();
+        ApplicationProperties.NearCache nearCache = applicationProperties.getCache().getNearCache();
+        if (!nearCache.isEnabled()) {
+            return cacheManager;
+        }
+        log.debug("Adding a near cache in front of Memcached");
+        return new TwoTierCacheManager(cacheManager, nearCache, meterRegistry);
+    }
+
+    /**
+     * Local JCache provider backing the Hibernate second-level cache, with one region per cached entity.
+     * <p>
+     * The regions, update timestamps included, are not shared between instances: a write is only seen by the other
+     * instances once their entries expire, after the {@code time-to-live} of {@code application.cache.hibernate}.
+     */
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager hibernateCacheManager(ApplicationProperties applicationProperties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        javax.cache.CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), provider.getDefaultClassLoader());
+        ApplicationProperties.CacheSpecs regions = applicationProperties.getCache().getHibernate();
+        createRegion(cacheManager, com.superleague.microservice.domain.Authority.class.getName(), regions);
+        createRegion(cacheManager, com.superleague.microservice.domain.Course.class.getName(), regions);
+        createRegion(cacheManager, com.superleague.microservice.domain.Batch.class.getName(), regions);
+        createRegion(cacheManager, com.superleague.microservice.domain.Sprint.class.getName(), regions);
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, regions);
+        // Query results are only valid as long as the update timestamps of their tables are known: never expire them.
+        // This only covers the writes of this instance, those of the others are bounded by the query region time-to-live.
+        if (cacheManager.getCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME) == null) {
+            CaffeineConfiguration<Object, Object> timestampsConfiguration = new CaffeineConfiguration<>();
+            timestampsConfiguration.setStatisticsEnabled(true);
+            cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestampsConfiguration);
+        }
         return cacheManager;
     }
 
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private void createRegion(javax.cache.CacheManager cacheManager, String regionName, ApplicationProperties.CacheSpecs regions) {
+        if (cacheManager.getCache(regionName) != null) {
+            return;
+        }
+        ApplicationProperties.CacheSpec spec = regions.getSpec(regionName);
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(spec.getMaximumSize()));
+        if (spec.getTimeToLive() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(spec.getTimeToLive().toNanos()));
+        }
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(regionName, configuration);
+    }
+
     @Bean
     public CacheFactory usersByLoginCache(JHipsterProperties jHipsterProperties) {
         return this.createCache(UserRepository.USERS_BY_LOGIN_CACHE, jHipsterProperties);
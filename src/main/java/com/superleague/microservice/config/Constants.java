@@ -11,5 +11,8 @@ public final class Constants {
     public static final String DEFAULT_LANGUAGE = "en";
     public static final String ANONYMOUS_USER = "anonymoususer";
 
+    // Spring profile running the Liquibase migrations, then exiting
+    public static final String SPRING_PROFILE_MIGRATE = "migrate";
+
     private Constants() {}
 }
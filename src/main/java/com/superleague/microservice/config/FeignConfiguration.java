@@ -1,7 +1,27 @@
 package com.superleague.microservice.config;
 
+import com.superleague.microservice.client.ClientFilter;
+import com.superleague.microservice.client.FeignBulkheads;
+import com.superleague.microservice.client.FeignConnectionManager;
+import com.superleague.microservice.client.FilteringClient;
+import com.superleague.microservice.client.FilteringLoadBalancerFeignClient;
+import com.superleague.microservice.client.GzipRequestInterceptor;
+import com.superleague.microservice.client.RequestCoalescer;
+import com.superleague.microservice.client.TimedHttpRequestExecutor;
+import feign.Client;
+import feign.httpclient.ApacheHttpClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.cloud.openfeign.FeignClientsConfiguration;
+import org.springframework.cloud.openfeign.ribbon.CachingSpringLoadBalancerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -18,4 +38,72 @@ public class FeignConfiguration {
     feign.Logger.Level feignLoggerLevel() {
         return feign.Logger.Level.BASIC;
     }
+
+    /**
+     * Connection pool of the Feign clients, configured by {@code application.feign-client}.
+     * <p>
+     * Spring Cloud backs off its own pool and clients when these beans are defined.
+     */
+    @Bean
+    public FeignConnectionManager feignConnectionManager(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        FeignConnectionManager connectionManager = new FeignConnectionManager(applicationProperties, meterRegistry);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "feign").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    /**
+     * HTTP client of the Feign clients. Connect and read timeouts are set per request by Feign, from
+     * {@code feign.client.config}.
+     */
+    @Bean
+    public CloseableHttpClient feignHttpClient(
+        FeignConnectionManager feignConnectionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.FeignClient properties = applicationProperties.getFeignClient();
+        RequestConfig requestConfig = RequestConfig
+            .custom()
+            .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+            .build();
+        return HttpClients
+            .custom()
+            .setConnectionManager(feignConnectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .setRequestExecutor(new TimedHttpRequestExecutor(meterRegistry))
+            .addInterceptorFirst(new GzipRequestInterceptor())
+            .evictExpiredConnections()
+            .evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+            .disableCookieManagement()
+            .build();
+    }
+
+    @Bean
+    public RequestCoalescer requestCoalescer(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        return new RequestCoalescer(applicationProperties, meterRegistry);
+    }
+
+    @Bean
+    public FeignBulkheads feignBulkheads(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        return new FeignBulkheads(applicationProperties, meterRegistry);
+    }
+
+    /**
+     * Feign client sending the requests through the Ribbon load balancer and the pooled HTTP client. Each call first
+     * shares the response of an identical call if its method is annotated with
+     * {@link com.superleague.microservice.client.CoalescedGet}, then goes through the bulkhead of its client: only the
+     * requests actually sent take a permit and adapt its limit.
+     */
+    @Bean
+    public Client feignClient(
+        CloseableHttpClient feignHttpClient,
+        CachingSpringLoadBalancerFactory cachingFactory,
+        SpringClientFactory clientFactory,
+        FeignBulkheads feignBulkheads,
+        RequestCoalescer requestCoalescer
+    ) {
+        List<ClientFilter> filters = Arrays.asList(requestCoalescer, feignBulkheads);
+        Client delegate = new FilteringClient(new ApacheHttpClient(feignHttpClient), filters);
+        return new FilteringLoadBalancerFeignClient(delegate, cachingFactory, clientFactory, filters);
+    }
 }
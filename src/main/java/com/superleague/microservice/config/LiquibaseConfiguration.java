@@ -1,7 +1,11 @@
 package com.superleague.microservice.config;
 
+import com.superleague.microservice.config.liquibase.ChangelogDigest;
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.config.liquibase.SpringLiquibaseUtil;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Executor;
 import javax.sql.DataSource;
 import liquibase.integration.spring.SpringLiquibase;
@@ -33,18 +37,38 @@ public class LiquibaseConfiguration {
         @LiquibaseDataSource ObjectProvider<DataSource> liquibaseDataSource,
         LiquibaseProperties liquibaseProperties,
         ObjectProvider<DataSource> dataSource,
-        DataSourceProperties dataSourceProperties
+        DataSourceProperties dataSourceProperties,
+        ApplicationProperties applicationProperties
     ) {
-        // If you don't want Liquibase to start asynchronously, substitute by this:
-        // SpringLiquibase liquibase = SpringLiquibaseUtil.createSpringLiquibase(liquibaseDataSource.getIfAvailable(), liquibaseProperties, dataSource.getIfUnique(), dataSourceProperties);
-        SpringLiquibase liquibase = SpringLiquibaseUtil.createAsyncSpringLiquibase(
-            this.env,
-            executor,
-            liquibaseDataSource.getIfAvailable(),
-            liquibaseProperties,
-            dataSource.getIfUnique(),
-            dataSourceProperties
-        );
+        SpringLiquibase liquibase;
+        if (env.acceptsProfiles(Profiles.of(Constants.SPRING_PROFILE_MIGRATE))) {
+            // The migration is all this run does: wait for it
+            liquibase =
+                SpringLiquibaseUtil.createSpringLiquibase(
+                    liquibaseDataSource.getIfAvailable(),
+                    liquibaseProperties,
+                    dataSource.getIfUnique(),
+                    dataSourceProperties
+                );
+        } else {
+            // If you don't want Liquibase to start asynchronously, substitute by this:
+            // SpringLiquibase liquibase = SpringLiquibaseUtil.createSpringLiquibase(liquibaseDataSource.getIfAvailable(), liquibaseProperties, dataSource.getIfUnique(), dataSourceProperties);
+            liquibase =
+                SpringLiquibaseUtil.createAsyncSpringLiquibase(
+                    this.env,
+                    executor,
+                    liquibaseDataSource.getIfAvailable(),
+                    liquibaseProperties,
+                    dataSource.getIfUnique(),
+                    dataSourceProperties
+                );
+        }
+        Optional<ChangelogDigest> changelogDigest = ChangelogDigest.read(liquibaseProperties.getContexts(), liquibaseProperties.getLabels());
+        Map<String, String> changeLogParameters = new HashMap<>();
+        if (liquibaseProperties.getParameters() != null) {
+            changeLogParameters.putAll(liquibaseProperties.getParameters());
+        }
+        changelogDigest.ifPresent(digest -> changeLogParameters.put(ChangelogDigest.PARAMETER, digest.getValue()));
         liquibase.setChangeLog("classpath:config/liquibase/master.xml");
         liquibase.setContexts(liquibaseProperties.getContexts());
         liquibase.setDefaultSchema(liquibaseProperties.getDefaultSchema());
@@ -54,11 +78,20 @@ public class LiquibaseConfiguration {
         liquibase.setDatabaseChangeLogTable(liquibaseProperties.getDatabaseChangeLogTable());
         liquibase.setDropFirst(liquibaseProperties.isDropFirst());
         liquibase.setLabels(liquibaseProperties.getLabels());
-        liquibase.setChangeLogParameters(liquibaseProperties.getParameters());
+        liquibase.setChangeLogParameters(changeLogParameters);
         liquibase.setRollbackFile(liquibaseProperties.getRollbackFile());
         liquibase.setTestRollbackOnUpdate(liquibaseProperties.isTestRollbackOnUpdate());
         if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_NO_LIQUIBASE))) {
             liquibase.setShouldRun(false);
+        } else if (
+            liquibaseProperties.isEnabled() &&
+            applicationProperties.getLiquibase().isSkipUnchanged() &&
+            !liquibaseProperties.isDropFirst() &&
+            changelogDigest.isPresent() &&
+            changelogDigest.get().isApplied(liquibase.getDataSource(), liquibaseProperties.getDefaultSchema())
+        ) {
+            log.info("Liquibase changelogs already applied, skipping Liquibase");
+            liquibase.setShouldRun(false);
         } else {
             liquibase.setShouldRun(liquibaseProperties.isEnabled());
             log.debug("Configuring Liquibase");
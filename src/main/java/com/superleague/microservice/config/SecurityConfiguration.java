@@ -3,10 +3,18 @@ package com.superleague.microservice.config;
 import com.superleague.microservice.security.*;
 import com.superleague.microservice.security.SecurityUtils;
 import com.superleague.microservice.security.oauth2.AudienceValidator;
+import com.superleague.microservice.security.oauth2.CachingJwtDecoder;
+import com.superleague.microservice.security.oauth2.DeferredClientRegistrationRepository;
+import com.superleague.microservice.security.oauth2.DeferredJwtDecoder;
 import com.superleague.microservice.security.oauth2.JwtGrantedAuthorityConverter;
 import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.*;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.convert.converter.Converter;
@@ -18,6 +26,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.*;
@@ -33,11 +42,23 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     private String issuerUri;
 
     private final JHipsterProperties jHipsterProperties;
+    private final ApplicationProperties applicationProperties;
     private final SecurityProblemSupport problemSupport;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<CachingJwtDecoder> cachingJwtDecoder;
 
-    public SecurityConfiguration(JHipsterProperties jHipsterProperties, SecurityProblemSupport problemSupport) {
+    public SecurityConfiguration(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SecurityProblemSupport problemSupport,
+        MeterRegistry meterRegistry,
+        ObjectProvider<CachingJwtDecoder> cachingJwtDecoder
+    ) {
         this.problemSupport = problemSupport;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
+        this.cachingJwtDecoder = cachingJwtDecoder;
     }
 
     @Override
@@ -87,20 +108,36 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     Converter<Jwt, AbstractAuthenticationToken> authenticationConverter() {
         JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(new JwtGrantedAuthorityConverter());
+        // Reuses the authorities extracted by the caching decoder, when the decoder has not been replaced
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(new JwtGrantedAuthorityConverter(cachingJwtDecoder.getIfAvailable()));
         return jwtAuthenticationConverter;
     }
 
     @Bean
-    JwtDecoder jwtDecoder() {
-        NimbusJwtDecoder jwtDecoder = (NimbusJwtDecoder) JwtDecoders.fromOidcIssuerLocation(issuerUri);
+    CachingJwtDecoder jwtDecoder() {
+        Supplier<JwtDecoder> jwtDecoder = () -> {
+            NimbusJwtDecoder nimbusJwtDecoder = (NimbusJwtDecoder) JwtDecoders.fromOidcIssuerLocation(issuerUri);
 
-        OAuth2TokenValidator<Jwt> audienceValidator = new AudienceValidator(jHipsterProperties.getSecurity().getOauth2().getAudience());
-        OAuth2TokenValidator<Jwt> withIssuer = JwtValidators.createDefaultWithIssuer(issuerUri);
-        OAuth2TokenValidator<Jwt> withAudience = new DelegatingOAuth2TokenValidator<>(withIssuer, audienceValidator);
+            OAuth2TokenValidator<Jwt> audienceValidator = new AudienceValidator(jHipsterProperties.getSecurity().getOauth2().getAudience());
+            OAuth2TokenValidator<Jwt> withIssuer = JwtValidators.createDefaultWithIssuer(issuerUri);
+            OAuth2TokenValidator<Jwt> withAudience = new DelegatingOAuth2TokenValidator<>(withIssuer, audienceValidator);
 
-        jwtDecoder.setJwtValidator(withAudience);
+            nimbusJwtDecoder.setJwtValidator(withAudience);
+            return nimbusJwtDecoder;
+        };
+        JwtDecoder delegate = applicationProperties.getStartup().isDeferOidcDiscovery()
+            ? new DeferredJwtDecoder(jwtDecoder)
+            : jwtDecoder.get();
 
-        return jwtDecoder;
+        return new CachingJwtDecoder(delegate, applicationProperties, meterRegistry);
+    }
+
+    /**
+     * Client registrations read on first use, replacing those Spring Boot reads at startup.
+     */
+    @Bean
+    @ConditionalOnProperty("application.startup.defer-oidc-discovery")
+    static ClientRegistrationRepository clientRegistrationRepository(OAuth2ClientProperties oAuth2ClientProperties) {
+        return new DeferredClientRegistrationRepository(oAuth2ClientProperties);
     }
 }
@@ -0,0 +1,47 @@
+package com.superleague.microservice.config;
+
+import com.superleague.microservice.config.startup.StartupTimeline;
+import com.superleague.microservice.config.startup.StartupTimelineEndpoint;
+import java.lang.reflect.Method;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+
+@Configuration
+public class StartupConfiguration {
+
+    /**
+     * Keeps the database migrations and the scheduled tasks eager when {@code spring.main.lazy-initialization} is
+     * set, see the {@code fast-start} profile: nothing would otherwise create them.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeansFilter() {
+        return (beanName, beanDefinition, beanType) ->
+            beanType != null && (SpringLiquibase.class.isAssignableFrom(beanType) || hasScheduledMethods(beanType));
+    }
+
+    @Bean
+    @ConditionalOnBean(StartupTimeline.class)
+    public StartupTimelineEndpoint startupTimelineEndpoint(StartupTimeline startupTimeline, ApplicationProperties applicationProperties) {
+        return new StartupTimelineEndpoint(startupTimeline, applicationProperties);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector
+            .selectMethods(
+                beanType,
+                (MethodIntrospector.MetadataLookup<Boolean>) method -> isScheduled(method) ? Boolean.TRUE : null
+            )
+            .isEmpty();
+    }
+
+    private static boolean isScheduled(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) || AnnotatedElementUtils.hasAnnotation(method, Schedules.class);
+    }
+}
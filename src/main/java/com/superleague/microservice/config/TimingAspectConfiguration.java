@@ -0,0 +1,19 @@
+package com.superleague.microservice.config;
+
+import com.superleague.microservice.aop.timing.TimingAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class TimingAspectConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.timing", name = "enabled", havingValue = "true")
+    public TimingAspect timingAspect(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        return new TimingAspect(meterRegistry, applicationProperties);
+    }
+}
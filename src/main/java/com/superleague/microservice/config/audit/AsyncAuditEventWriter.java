@@ -0,0 +1,220 @@
+package com.superleague.microservice.config.audit;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.domain.PersistentAuditEvent;
+import com.superleague.microservice.repository.PersistenceAuditEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes the {@link PersistentAuditEvent}s off the request threads.
+ * <p>
+ * Events are put in a bounded buffer, which a background thread drains into one transaction per
+ * {@code application.audit.flush-size} events, so that Hibernate sends their inserts in JDBC batches. When the buffer
+ * is full, a request waits at most {@code application.audit.offer-timeout} for some room, then the event is dropped and
+ * counted in {@code audit.events.dropped}: auditing never holds requests back for long. The buffer is drained on
+ * shutdown. When a batch cannot be written, its events are written one by one, so that a single invalid event does
+ * not lose the others.
+ * <p>
+ * With {@code application.audit.async} set to {@code false}, events are written right away. Either way, events are
+ * written in their own transaction: they are kept when the transaction of the caller is rolled back.
+ */
+@Component
+public class AsyncAuditEventWriter {
+    private static final long DROP_WARNING_INTERVAL_MILLIS = 60_000;
+
+    private final Logger log = LoggerFactory.getLogger(AsyncAuditEventWriter.class);
+
+    private final PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Audit properties;
+
+    private final BlockingQueue<PersistentAuditEvent> buffer;
+
+    private final Counter writtenCounter;
+
+    private final Counter droppedCounter;
+
+    private final Counter failedCounter;
+
+    private final AtomicLong lastDropWarning = new AtomicLong();
+
+    private final Object flushLock = new Object();
+
+    private volatile boolean running;
+
+    private Thread flusher;
+
+    public AsyncAuditEventWriter(
+        PersistenceAuditEventRepository persistenceAuditEventRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = applicationProperties.getAudit();
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+        this.writtenCounter = meterRegistry.counter("audit.events.written");
+        this.droppedCounter = meterRegistry.counter("audit.events.dropped");
+        this.failedCounter = meterRegistry.counter("audit.events.failed");
+        Gauge.builder("audit.events.buffered", buffer, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isAsync()) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::run, "audit-event-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Write an event, or buffer it until the next flush.
+     *
+     * @param event the event to write.
+     * @return {@code false} if the buffer was full and the event has been dropped.
+     */
+    public boolean write(PersistentAuditEvent event) {
+        if (!properties.isAsync()) {
+            transactionTemplate.execute(status -> persistenceAuditEventRepository.save(event));
+            writtenCounter.increment();
+            return true;
+        }
+        try {
+            if (buffer.offer(event, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        droppedCounter.increment();
+        long now = System.currentTimeMillis();
+        long last = lastDropWarning.get();
+        if (now - last >= DROP_WARNING_INTERVAL_MILLIS && lastDropWarning.compareAndSet(last, now)) {
+            log.warn("Audit event buffer is full, {} events dropped so far", (long) droppedCounter.count());
+        }
+        return false;
+    }
+
+    /**
+     * Write all the buffered events.
+     */
+    public void flush() {
+        List<PersistentAuditEvent> events = new ArrayList<>(properties.getFlushSize());
+        synchronized (flushLock) {
+            while (buffer.drainTo(events, properties.getFlushSize()) > 0) {
+                writeBatch(events);
+                events.clear();
+            }
+        }
+    }
+
+    /**
+     * @return the number of events waiting to be written.
+     */
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher == null) {
+            return;
+        }
+        // The flusher is not interrupted, which could break a batch being written: it notices within a flush interval
+        running = false;
+        try {
+            flusher.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            log.warn("Audit event writer did not stop in time, {} events left unwritten", buffer.size());
+        } else {
+            // Events added while the flusher was stopping
+            flush();
+        }
+    }
+
+    private void run() {
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<PersistentAuditEvent> events = new ArrayList<>(properties.getFlushSize());
+        while (running) {
+            try {
+                PersistentAuditEvent first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                events.add(first);
+                // Wait a little for a full batch, unless the buffer already holds one
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (events.size() < properties.getFlushSize() && running) {
+                    buffer.drainTo(events, properties.getFlushSize() - events.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (events.size() >= properties.getFlushSize() || remaining <= 0) {
+                        break;
+                    }
+                    PersistentAuditEvent next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    events.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            synchronized (flushLock) {
+                writeBatch(events);
+            }
+            events.clear();
+        }
+        flush();
+    }
+
+    private void writeBatch(List<PersistentAuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.execute(status -> persistenceAuditEventRepository.saveAll(events));
+            writtenCounter.increment(events.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not write {} audit events in a batch, writing them one by one: {}", events.size(), e.getMessage());
+            events.forEach(this::writeOne);
+        }
+    }
+
+    private void writeOne(PersistentAuditEvent event) {
+        // The id allocated by the failed batch was rolled back with it
+        event.setId(null);
+        try {
+            transactionTemplate.execute(status -> persistenceAuditEventRepository.save(event));
+            writtenCounter.increment();
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            log.error("Could not write the audit event {}", event, e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.superleague.microservice.config.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * A {@link CacheManager} creating its target, and so opening its connections, on the first operation on one of its
+ * caches rather than at startup.
+ * <p>
+ * The cache names are known up front, so that the caches can be resolved and their metrics bound without reaching
+ * the target. A target which fails to be created is created again on the next operation.
+ */
+public class LazyCacheManager implements CacheManager {
+    private final Supplier<CacheManager> targetCacheManager;
+
+    private final Collection<String> cacheNames;
+
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public LazyCacheManager(Supplier<CacheManager> targetCacheManager, Collection<String> cacheNames) {
+        this.targetCacheManager = SingletonSupplier.of(targetCacheManager);
+        this.cacheNames = Collections.unmodifiableSet(new LinkedHashSet<>(cacheNames));
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!cacheNames.contains(name)) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, LazyCache::new);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return cacheNames;
+    }
+
+    /**
+     * A {@link Cache} resolving the cache of the target on each operation.
+     */
+    private class LazyCache implements Cache {
+        private final String name;
+
+        LazyCache(String name) {
+            this.name = name;
+        }
+
+        private Cache target() {
+            Cache cache = targetCacheManager.get().getCache(name);
+            if (cache == null) {
+                throw new IllegalStateException("Cache '" + name + "' is not defined by the target cache manager");
+            }
+            return cache;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return target().getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return target().get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return target().get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return target().get(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            target().put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return target().putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            target().evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            return target().evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            target().clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            return target().invalidate();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.superleague.microservice.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+
+/**
+ * A {@link Cache} reading from an in-process near cache first, and from a shared remote cache on a near cache miss.
+ * <p>
+ * Writes and evictions go to the remote cache first, then to the near cache. Evictions are only seen by the near
+ * cache of the current instance: the near cache time to live bounds how long other instances may serve a stale entry.
+ * <p>
+ * The near cache holds the serialized values, as Memcached does, and every read returns a new copy: callers may modify
+ * what they get, such as a {@code User} entity, without changing what the next callers get. A near cache miss loads
+ * the value once per key, the other callers of {@link #get(Object, Callable)} waiting for it.
+ */
+public class TwoTierCache implements Cache {
+    static final String NEAR_TIER = "near";
+
+    static final String REMOTE_TIER = "remote";
+
+    private final Cache nearCache;
+
+    private final Cache remoteCache;
+
+    private final TierMetrics nearMetrics;
+
+    private final TierMetrics remoteMetrics;
+
+    private final SerializingConverter serializer = new SerializingConverter();
+
+    private final DeserializingConverter deserializer = new DeserializingConverter(TwoTierCache.class.getClassLoader());
+
+    public TwoTierCache(Cache nearCache, Cache remoteCache, MeterRegistry meterRegistry) {
+        this.nearCache = nearCache;
+        this.remoteCache = remoteCache;
+        this.nearMetrics = new TierMetrics(meterRegistry, remoteCache.getName(), NEAR_TIER);
+        this.remoteMetrics = new TierMetrics(meterRegistry, remoteCache.getName(), REMOTE_TIER);
+    }
+
+    @Override
+    public String getName() {
+        return remoteCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper nearValue = nearMetrics.get(() -> nearCache.get(key));
+        if (nearValue != null) {
+            return new SimpleValueWrapper(deserialize(nearValue.get()));
+        }
+        ValueWrapper value = remoteMetrics.get(() -> remoteCache.get(key));
+        if (value != null) {
+            nearCache.put(key, serialize(value.get()));
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+        Object cached = value.get();
+        if (cached != null && type != null && !type.isInstance(cached)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + cached);
+        }
+        return (T) cached;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper nearValue = nearMetrics.get(() -> nearCache.get(key));
+        if (nearValue != null) {
+            return (T) deserialize(nearValue.get());
+        }
+        // Only one caller per key reads the remote cache or calls the loader, the others wait for its value
+        byte[] serialized = nearCache.get(
+            key,
+            () -> {
+                ValueWrapper value = remoteMetrics.get(() -> remoteCache.get(key));
+                if (value != null) {
+                    return serialize(value.get());
+                }
+                // The near cache wraps the failures of the loader in a ValueRetrievalException
+                T loaded = valueLoader.call();
+                remoteCache.put(key, loaded);
+                return serialize(loaded);
+            }
+        );
+        return (T) deserialize(serialized);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        nearCache.put(key, serialize(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remoteCache.putIfAbsent(key, value);
+        nearCache.put(key, serialize(existing != null ? existing.get() : value));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        nearCache.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        nearCache.clear();
+    }
+
+    private byte[] serialize(Object value) {
+        return value != null ? serializer.convert(value) : null;
+    }
+
+    private Object deserialize(Object serialized) {
+        return serialized != null ? deserializer.convert((byte[]) serialized) : null;
+    }
+
+    private static class TierMetrics {
+        private final Counter hits;
+
+        private final Counter misses;
+
+        private final Timer latency;
+
+        TierMetrics(MeterRegistry meterRegistry, String cacheName, String tier) {
+            this.hits = meterRegistry.counter("cache.tier.gets", "cache", cacheName, "tier", tier, "result", "hit");
+            this.misses = meterRegistry.counter("cache.tier.gets", "cache", cacheName, "tier", tier, "result", "miss");
+            this.latency = meterRegistry.timer("cache.tier.latency", "cache", cacheName, "tier", tier);
+        }
+
+        ValueWrapper get(Supplier<ValueWrapper> read) {
+            ValueWrapper value = latency.record(read);
+            if (value != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+            }
+            return value;
+        }
+    }
+}
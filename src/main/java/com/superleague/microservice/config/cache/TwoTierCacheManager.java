@@ -0,0 +1,59 @@
+package com.superleague.microservice.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.superleague.microservice.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * A {@link CacheManager} putting a bounded Caffeine near cache in front of each cache of a remote {@link CacheManager}.
+ * <p>
+ * The size and time to live of each near cache are read from {@code application.cache.near-cache}, falling back to its defaults.
+ */
+public class TwoTierCacheManager implements CacheManager {
+    private final CacheManager remoteCacheManager;
+
+    private final ApplicationProperties.NearCache properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager, ApplicationProperties.NearCache properties, MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new TwoTierCache(createNearCache(cacheName), remoteCache, meterRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    private Cache createNearCache(String name) {
+        ApplicationProperties.CacheSpec spec = properties.getSpec(name);
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(spec.getMaximumSize());
+        if (spec.getTimeToLive() != null) {
+            builder.expireAfterWrite(spec.getTimeToLive());
+        }
+        return new CaffeineCache(name, builder.build());
+    }
+}
@@ -0,0 +1,113 @@
+package com.superleague.microservice.config.liquibase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StreamUtils;
+
+/**
+ * The digest of the Liquibase changelogs, which tells whether they were already applied to a database without
+ * running Liquibase.
+ * <p>
+ * The build computes the digest of {@code master.xml} and of the files it includes, into
+ * {@code config/liquibase/changelog.sha256}, and the last change set of {@code master.xml} records it in the
+ * {@code jhi_changelog_digest} table. The digest is combined with the Liquibase contexts and labels, so that a run with
+ * other contexts is not mistaken for the last one.
+ */
+public class ChangelogDigest {
+    /**
+     * Changelog parameter holding the digest, recorded by {@code changelog_digest.xml}.
+     */
+    public static final String PARAMETER = "changelogDigest";
+
+    static final String DIGEST_RESOURCE = "config/liquibase/changelog.sha256";
+
+    static final String MARKER_TABLE = "jhi_changelog_digest";
+
+    static final String MARKER_ID = "master";
+
+    private static final Logger log = LoggerFactory.getLogger(ChangelogDigest.class);
+
+    private final String value;
+
+    ChangelogDigest(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Read the digest computed by the build.
+     *
+     * @param contexts the Liquibase contexts, may be {@code null}.
+     * @param labels the Liquibase labels, may be {@code null}.
+     * @return the digest, or empty if the changelogs were not digested by the build, as when run from an IDE.
+     */
+    public static Optional<ChangelogDigest> read(String contexts, String labels) {
+        return read(new ClassPathResource(DIGEST_RESOURCE), contexts, labels);
+    }
+
+    static Optional<ChangelogDigest> read(Resource resource, String contexts, String labels) {
+        if (!resource.exists()) {
+            return Optional.empty();
+        }
+        try {
+            String changelogDigest = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8).trim();
+            if (changelogDigest.isEmpty()) {
+                return Optional.empty();
+            }
+            String scope = StringUtils.defaultString(contexts) + "\n" + StringUtils.defaultString(labels);
+            return Optional.of(new ChangelogDigest(sha256(changelogDigest + "\n" + scope)));
+        } catch (IOException e) {
+            log.warn("Could not read the digest of the Liquibase changelogs: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Check whether this digest is the last one applied to a database.
+     *
+     * @param dataSource the data source Liquibase runs on.
+     * @param schema the schema of the Liquibase tables, or {@code null} for the default schema.
+     * @return {@code true} if the changelogs of this digest were applied, {@code false} if they were not, or if the
+     * database could not tell.
+     */
+    public boolean isApplied(DataSource dataSource, String schema) {
+        String table = StringUtils.isEmpty(schema) ? MARKER_TABLE : schema + "." + MARKER_TABLE;
+        try {
+            String query = "select digest from " + table + " where id = ?";
+            List<String> digests = new JdbcTemplate(dataSource).queryForList(query, String.class, MARKER_ID);
+            return digests.contains(value);
+        } catch (DataAccessException e) {
+            // The marker table is created by the first run of Liquibase
+            log.debug("Could not read the digest of the Liquibase changelogs last applied: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
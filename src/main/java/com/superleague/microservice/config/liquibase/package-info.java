@@ -0,0 +1,4 @@
+/**
+ * Liquibase specific code.
+ */
+package com.superleague.microservice.config.liquibase;
@@ -0,0 +1,212 @@
+package com.superleague.microservice.config.startup;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+
+/**
+ * Records the time spent creating each bean of the application context, from its instantiation to the end of its
+ * initialization.
+ * <p>
+ * Beans created while another bean is created, to be injected in it, are nested: the time of a bean includes that of
+ * its dependencies, its self time does not. The beans created once the application is ready, such as the lazy beans,
+ * are recorded as deferred, on their first use.
+ * <p>
+ * Registered by the {@link StartupTimelineInitializer}, before any other bean is created.
+ */
+public class StartupTimeline implements InstantiationAwareBeanPostProcessor {
+    public static final String BEAN_NAME = "startupTimeline";
+
+    private final long startTime = System.nanoTime();
+
+    private final boolean lazyInitialization;
+
+    private final Queue<BeanTiming> timings = new ConcurrentLinkedQueue<>();
+
+    private final ThreadLocal<Deque<Frame>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private volatile long readyTime;
+
+    private volatile long jvmUptimeAtReady;
+
+    public StartupTimeline(boolean lazyInitialization) {
+        this.lazyInitialization = lazyInitialization;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+        frames.get().push(new Frame(beanName, System.nanoTime()));
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Deque<Frame> stack = frames.get();
+        // Objects created by factory beans, and beans short-circuited before instantiation, have no frame
+        if (stack.stream().noneMatch(frame -> frame.beanName.equals(beanName))) {
+            return bean;
+        }
+        // Frames above this one are beans whose creation failed
+        Frame frame = stack.pop();
+        while (!frame.beanName.equals(beanName)) {
+            frame = stack.pop();
+        }
+        long duration = System.nanoTime() - frame.start;
+        Frame parent = stack.peek();
+        if (parent != null) {
+            parent.children += duration;
+        }
+        timings.add(new BeanTiming(beanName, bean.getClass().getName(), duration, duration - frame.children, readyTime != 0));
+        return bean;
+    }
+
+    /**
+     * Mark the application as ready: the beans created from now on are deferred.
+     */
+    public void markReady() {
+        jvmUptimeAtReady = ManagementFactory.getRuntimeMXBean().getUptime();
+        readyTime = System.nanoTime();
+    }
+
+    /**
+     * Get the report of the startup.
+     *
+     * @param size the number of beans to list, slowest self time first.
+     * @return the report.
+     */
+    public Report getReport(int size) {
+        List<BeanTiming> beans = new ArrayList<>(timings);
+        long deferred = beans.stream().filter(BeanTiming::isDeferred).count();
+        List<BeanTiming> slowest = beans
+            .stream()
+            .sorted(Comparator.comparingDouble(BeanTiming::getSelfMillis).reversed())
+            .limit(size)
+            .collect(Collectors.toList());
+        long startupNanos = readyTime != 0 ? readyTime - startTime : 0;
+        return new Report(jvmUptimeAtReady, TimeUnit.NANOSECONDS.toMillis(startupNanos), lazyInitialization, beans.size(), deferred, slowest);
+    }
+
+    /**
+     * A bean in creation, on the stack of its thread.
+     */
+    private static class Frame {
+        private final String beanName;
+
+        private final long start;
+
+        private long children;
+
+        Frame(String beanName, long start) {
+            this.beanName = beanName;
+            this.start = start;
+        }
+    }
+
+    /**
+     * The creation time of a bean.
+     */
+    public static class BeanTiming {
+        private final String name;
+
+        private final String type;
+
+        private final double millis;
+
+        private final double selfMillis;
+
+        private final boolean deferred;
+
+        BeanTiming(String name, String type, long nanos, long selfNanos, boolean deferred) {
+            this.name = name;
+            this.type = type;
+            this.millis = nanos / 1_000_000.0;
+            this.selfMillis = selfNanos / 1_000_000.0;
+            this.deferred = deferred;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public double getMillis() {
+            return millis;
+        }
+
+        public double getSelfMillis() {
+            return selfMillis;
+        }
+
+        public boolean isDeferred() {
+            return deferred;
+        }
+    }
+
+    /**
+     * The startup of the application, and its slowest beans.
+     */
+    public static class Report {
+        private final long jvmUptimeAtReadyMillis;
+
+        private final long contextStartupMillis;
+
+        private final boolean lazyInitialization;
+
+        private final int beanCount;
+
+        private final long deferredBeanCount;
+
+        private final List<BeanTiming> slowestBeans;
+
+        Report(
+            long jvmUptimeAtReadyMillis,
+            long contextStartupMillis,
+            boolean lazyInitialization,
+            int beanCount,
+            long deferredBeanCount,
+            List<BeanTiming> slowestBeans
+        ) {
+            this.jvmUptimeAtReadyMillis = jvmUptimeAtReadyMillis;
+            this.contextStartupMillis = contextStartupMillis;
+            this.lazyInitialization = lazyInitialization;
+            this.beanCount = beanCount;
+            this.deferredBeanCount = deferredBeanCount;
+            this.slowestBeans = slowestBeans;
+        }
+
+        public long getJvmUptimeAtReadyMillis() {
+            return jvmUptimeAtReadyMillis;
+        }
+
+        public long getContextStartupMillis() {
+            return contextStartupMillis;
+        }
+
+        public boolean isLazyInitialization() {
+            return lazyInitialization;
+        }
+
+        public int getBeanCount() {
+            return beanCount;
+        }
+
+        public long getDeferredBeanCount() {
+            return deferredBeanCount;
+        }
+
+        public List<BeanTiming> getSlowestBeans() {
+            return slowestBeans;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.superleague.microservice.config.startup;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint exposing the report of the {@link StartupTimeline}, at {@code /management/startup}.
+ * <p>
+ * Unlike the report file, it also lists the beans created since the application is ready.
+ */
+@Endpoint(id = "startup")
+public class StartupTimelineEndpoint {
+    private final StartupTimeline startupTimeline;
+
+    private final ApplicationProperties applicationProperties;
+
+    public StartupTimelineEndpoint(StartupTimeline startupTimeline, ApplicationProperties applicationProperties) {
+        this.startupTimeline = startupTimeline;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @ReadOperation
+    public StartupTimeline.Report startup() {
+        return startupTimeline.getReport(applicationProperties.getStartup().getReportSize());
+    }
+}
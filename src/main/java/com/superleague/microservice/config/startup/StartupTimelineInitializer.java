@@ -0,0 +1,65 @@
+package com.superleague.microservice.config.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.superleague.microservice.config.ApplicationProperties;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Registers the {@link StartupTimeline} in the application context, unless {@code application.startup.timeline} is
+ * {@code false}, and writes its report to {@code application.startup.report-file} once the application is ready.
+ */
+public class StartupTimelineInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        if (!context.getEnvironment().getProperty("application.startup.timeline", Boolean.class, true)) {
+            return;
+        }
+        boolean lazyInitialization = context.getEnvironment().getProperty("spring.main.lazy-initialization", Boolean.class, false);
+        StartupTimeline startupTimeline = new StartupTimeline(lazyInitialization);
+        context.getBeanFactory().registerSingleton(StartupTimeline.BEAN_NAME, startupTimeline);
+        context.getBeanFactory().addBeanPostProcessor(startupTimeline);
+        context.addApplicationListener(new ReportWriter(startupTimeline));
+    }
+
+    /**
+     * Writes the report of the startup, as JSON.
+     */
+    private static class ReportWriter implements ApplicationListener<ApplicationReadyEvent> {
+        private final Logger log = LoggerFactory.getLogger(StartupTimelineInitializer.class);
+
+        private final StartupTimeline startupTimeline;
+
+        ReportWriter(StartupTimeline startupTimeline) {
+            this.startupTimeline = startupTimeline;
+        }
+
+        @Override
+        public void onApplicationEvent(ApplicationReadyEvent event) {
+            startupTimeline.markReady();
+            ApplicationProperties.Startup properties = event.getApplicationContext().getBean(ApplicationProperties.class).getStartup();
+            StartupTimeline.Report report = startupTimeline.getReport(properties.getReportSize());
+            log.info(
+                "Application context started in {} ms, {} ms after the JVM, creating {} beans",
+                report.getContextStartupMillis(),
+                report.getJvmUptimeAtReadyMillis(),
+                report.getBeanCount()
+            );
+            Path reportFile = Paths.get(properties.getReportFile());
+            try {
+                new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+                log.debug("Startup report written to {}", reportFile);
+            } catch (IOException e) {
+                log.warn("Could not write the startup report to {}: {}", reportFile, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Startup profiling code.
+ */
+package com.superleague.microservice.config.startup;
@@ -4,6 +4,9 @@ package com.superleague.microservice.domain;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import org.springframework.data.elasticsearch.annotations.FieldType;
 import java.io.Serializable;
 
@@ -14,13 +17,22 @@ import com.superleague.microservice.domain.enumeration.Status;
  */
 @Entity
 @Table(name = "course")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "course")
 public class Course implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "courseIdGenerator")
+    @TableGenerator(
+        name = "courseIdGenerator",
+        table = "jhi_id_sequence",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "course",
+        allocationSize = 50
+    )
     private Long id;
 
     @NotNull
@@ -19,7 +19,15 @@ public class Learning implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "learningIdGenerator")
+    @TableGenerator(
+        name = "learningIdGenerator",
+        table = "jhi_id_sequence",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "learning",
+        allocationSize = 50
+    )
     private Long id;
 
     @Enumerated(EnumType.STRING)
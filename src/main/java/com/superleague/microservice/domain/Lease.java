@@ -0,0 +1,81 @@
+package com.superleague.microservice.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * A lease held by one instance of the application at a time, to run a background task on a single instance.
+ *
+ * @see com.superleague.microservice.repository.LeaseRepository
+ */
+@Entity
+@Table(name = "jhi_lease")
+public class Lease implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "name", length = 50, nullable = false)
+    private String name;
+
+    @Size(max = 50)
+    @Column(name = "owner", length = 50)
+    private String owner;
+
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Instant getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(Instant lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Lease)) {
+            return false;
+        }
+        return name != null && name.equals(((Lease) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "Lease{" +
+            "name='" + name + '\'' +
+            ", owner='" + owner + '\'' +
+            ", lockedUntil=" + lockedUntil +
+            '}';
+    }
+}
@@ -19,7 +19,15 @@ public class Participant implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "participantIdGenerator")
+    @TableGenerator(
+        name = "participantIdGenerator",
+        table = "jhi_id_sequence",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "participant",
+        allocationSize = 50
+    )
     private Long id;
 
     @NotNull
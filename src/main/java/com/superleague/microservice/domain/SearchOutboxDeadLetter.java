@@ -0,0 +1,159 @@
+package com.superleague.microservice.domain;
+
+import com.superleague.microservice.domain.enumeration.SearchIndexOperation;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * An outbox event the {@link com.superleague.microservice.service.SearchIndexer} gave up on, kept with the id of the
+ * event, to be investigated and replayed by a reindex.
+ */
+@Entity
+@Table(name = "search_outbox_dead_letter")
+public class SearchOutboxDeadLetter implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long id;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "entity_type", length = 50, nullable = false)
+    private String entityType;
+
+    @NotNull
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", length = 10, nullable = false)
+    private SearchIndexOperation operation;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Size(max = 1000)
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @NotNull
+    @Column(name = "failed_date", nullable = false)
+    private Instant failedDate;
+
+    public SearchOutboxDeadLetter() {}
+
+    public SearchOutboxDeadLetter(SearchOutboxEvent event, String error) {
+        this.id = event.getId();
+        this.entityType = event.getEntityType();
+        this.entityId = event.getEntityId();
+        this.operation = event.getOperation();
+        this.attempts = event.getAttempts();
+        this.error = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        this.createdDate = event.getCreatedDate();
+        this.failedDate = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public SearchIndexOperation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(SearchIndexOperation operation) {
+        this.operation = operation;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getFailedDate() {
+        return failedDate;
+    }
+
+    public void setFailedDate(Instant failedDate) {
+        this.failedDate = failedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchOutboxDeadLetter)) {
+            return false;
+        }
+        return id != null && id.equals(((SearchOutboxDeadLetter) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchOutboxDeadLetter{" +
+            "id=" + id +
+            ", entityType='" + entityType + '\'' +
+            ", entityId=" + entityId +
+            ", operation='" + operation + '\'' +
+            ", attempts=" + attempts +
+            ", error='" + error + '\'' +
+            ", createdDate=" + createdDate +
+            ", failedDate=" + failedDate +
+            '}';
+    }
+}
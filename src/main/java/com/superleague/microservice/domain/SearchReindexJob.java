@@ -0,0 +1,222 @@
+package com.superleague.microservice.domain;
+
+import com.superleague.microservice.domain.enumeration.ReindexState;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * A rebuild of the Elasticsearch index of an entity, shared by all the instances.
+ *
+ * @see com.superleague.microservice.service.SearchReindexService
+ */
+@Entity
+@Table(name = "search_reindex_job")
+public class SearchReindexJob implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "searchReindexJobIdGenerator")
+    @TableGenerator(
+        name = "searchReindexJobIdGenerator",
+        table = "jhi_id_sequence",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "search_reindex_job",
+        allocationSize = 1
+    )
+    private Long id;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "entity_type", length = 50, nullable = false)
+    private String entityType;
+
+    @NotNull
+    @Column(name = "alias", nullable = false)
+    private String alias;
+
+    @NotNull
+    @Column(name = "index_name", nullable = false)
+    private String indexName;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", length = 10, nullable = false)
+    private ReindexState state;
+
+    /**
+     * The entity type while the job runs, {@code null} once it is finished.
+     */
+    @Size(max = 50)
+    @Column(name = "running_type", length = 50, unique = true)
+    private String runningType;
+
+    @NotNull
+    @Column(name = "started_date", nullable = false)
+    private Instant startedDate;
+
+    @NotNull
+    @Column(name = "heartbeat_date", nullable = false)
+    private Instant heartbeatDate;
+
+    @Column(name = "finished_date")
+    private Instant finishedDate;
+
+    @NotNull
+    @Column(name = "rows_read", nullable = false)
+    private Long rowsRead = 0L;
+
+    @NotNull
+    @Column(name = "documents_indexed", nullable = false)
+    private Long documentsIndexed = 0L;
+
+    @NotNull
+    @Column(name = "documents_failed", nullable = false)
+    private Long documentsFailed = 0L;
+
+    @Size(max = 1000)
+    @Column(name = "message", length = 1000)
+    private String message;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public ReindexState getState() {
+        return state;
+    }
+
+    public void setState(ReindexState state) {
+        this.state = state;
+    }
+
+    public String getRunningType() {
+        return runningType;
+    }
+
+    public void setRunningType(String runningType) {
+        this.runningType = runningType;
+    }
+
+    public Instant getStartedDate() {
+        return startedDate;
+    }
+
+    public void setStartedDate(Instant startedDate) {
+        this.startedDate = startedDate;
+    }
+
+    public Instant getHeartbeatDate() {
+        return heartbeatDate;
+    }
+
+    public void setHeartbeatDate(Instant heartbeatDate) {
+        this.heartbeatDate = heartbeatDate;
+    }
+
+    public Instant getFinishedDate() {
+        return finishedDate;
+    }
+
+    public void setFinishedDate(Instant finishedDate) {
+        this.finishedDate = finishedDate;
+    }
+
+    public Long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(Long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public Long getDocumentsIndexed() {
+        return documentsIndexed;
+    }
+
+    public void setDocumentsIndexed(Long documentsIndexed) {
+        this.documentsIndexed = documentsIndexed;
+    }
+
+    public Long getDocumentsFailed() {
+        return documentsFailed;
+    }
+
+    public void setDocumentsFailed(Long documentsFailed) {
+        this.documentsFailed = documentsFailed;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchReindexJob)) {
+            return false;
+        }
+        return id != null && id.equals(((SearchReindexJob) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchReindexJob{" +
+            "id=" + id +
+            ", entityType='" + entityType + '\'' +
+            ", alias='" + alias + '\'' +
+            ", indexName='" + indexName + '\'' +
+            ", state='" + state + '\'' +
+            ", startedDate=" + startedDate +
+            ", heartbeatDate=" + heartbeatDate +
+            ", finishedDate=" + finishedDate +
+            ", rowsRead=" + rowsRead +
+            ", documentsIndexed=" + documentsIndexed +
+            ", documentsFailed=" + documentsFailed +
+            ", message='" + message + '\'' +
+            '}';
+    }
+}
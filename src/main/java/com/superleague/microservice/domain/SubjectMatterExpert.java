@@ -19,7 +19,15 @@ public class SubjectMatterExpert implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "subjectMatterExpertIdGenerator")
+    @TableGenerator(
+        name = "subjectMatterExpertIdGenerator",
+        table = "jhi_id_sequence",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "subject_matter_expert",
+        allocationSize = 50
+    )
     private Long id;
 
     @NotNull
@@ -0,0 +1,8 @@
+package com.superleague.microservice.domain.enumeration;
+
+/**
+ * The ReindexState enumeration.
+ */
+public enum ReindexState {
+    RUNNING, COMPLETED, FAILED
+}
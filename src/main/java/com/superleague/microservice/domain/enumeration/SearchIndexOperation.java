@@ -0,0 +1,8 @@
+package com.superleague.microservice.domain.enumeration;
+
+/**
+ * The SearchIndexOperation enumeration.
+ */
+public enum SearchIndexOperation {
+    INDEX, DELETE
+}
@@ -0,0 +1,147 @@
+package com.superleague.microservice.repository;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository managing the monthly partitions of the {@code jhi_persistent_audit_event} table.
+ * <p>
+ * The table is only partitioned on MySQL, when the {@code audit-partitioning} Liquibase context has been applied. On
+ * any other database, or without that context, {@link #isPartitioned()} is {@code false} and the audit events are only
+ * purged with bulk deletes.
+ */
+@Repository
+public class AuditEventPartitionRepository {
+    static final String TABLE_NAME = "jhi_persistent_audit_event";
+
+    static final String DATA_TABLE_NAME = "jhi_persistent_audit_evt_data";
+
+    /**
+     * Name of the partition holding the rows above the last monthly partition.
+     */
+    public static final String FUTURE_PARTITION = "p_future";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean partitioned;
+
+    public AuditEventPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return {@code true} if the audit events are partitioned by date.
+     */
+    public boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            String databaseProductName = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+            );
+            result =
+                ("MySQL".equalsIgnoreCase(databaseProductName) || "MariaDB".equalsIgnoreCase(databaseProductName)) &&
+                !findPartitions().isEmpty();
+            partitioned = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the partitions of the audit events, ordered by upper bound.
+     */
+    public List<AuditEventPartition> findPartitions() {
+        return jdbcTemplate.query(
+            "select partition_name, partition_description from information_schema.partitions " +
+            "where table_schema = database() and table_name = ? and partition_name is not null " +
+            "order by partition_ordinal_position",
+            (rs, rowNum) -> {
+                String description = rs.getString("partition_description");
+                Instant upperBound = "MAXVALUE".equalsIgnoreCase(description) ? null : Instant.ofEpochSecond(Long.parseLong(description));
+                return new AuditEventPartition(rs.getString("partition_name"), upperBound);
+            },
+            TABLE_NAME
+        );
+    }
+
+    /**
+     * Split the future partition, to add partitions below it.
+     * <p>
+     * All the partitions are added by a single reorganization, as each one copies the rows of the future partition.
+     *
+     * @param partitions the new partitions, ordered by upper bound.
+     */
+    public void addPartitions(List<AuditEventPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder("alter table ")
+            .append(TABLE_NAME)
+            .append(" reorganize partition ")
+            .append(FUTURE_PARTITION)
+            .append(" into (");
+        for (AuditEventPartition partition : partitions) {
+            sql
+                .append("partition ")
+                .append(partition.getName())
+                .append(" values less than (")
+                .append(partition.getUpperBound().getEpochSecond())
+                .append("), ");
+        }
+        sql.append("partition ").append(FUTURE_PARTITION).append(" values less than maxvalue)");
+        jdbcTemplate.execute(sql.toString());
+    }
+
+    /**
+     * Drop a partition, along with its events. Their data rows are left to {@link #deleteOrphanData(int)}.
+     *
+     * @param name the name of the partition.
+     */
+    public void dropPartition(String name) {
+        jdbcTemplate.execute("alter table " + TABLE_NAME + " drop partition " + name);
+    }
+
+    /**
+     * Delete a chunk of the data rows whose event has been dropped.
+     * <p>
+     * Only the rows below the smallest remaining event id are deleted: they are orphans for sure, and are found with
+     * the primary key. Orphans above it are deleted by a later run, once the partitions holding smaller ids are gone.
+     *
+     * @param limit the maximum number of rows to delete.
+     * @return the number of deleted rows.
+     */
+    public int deleteOrphanData(int limit) {
+        return jdbcTemplate.update(
+            "delete from " + DATA_TABLE_NAME + " where event_id < " +
+            "(select coalesce(min(event_id), " + Long.MAX_VALUE + ") from " + TABLE_NAME + ") limit ?",
+            limit
+        );
+    }
+
+    /**
+     * A partition of the audit events.
+     */
+    public static class AuditEventPartition {
+        private final String name;
+
+        private final Instant upperBound;
+
+        public AuditEventPartition(String name, Instant upperBound) {
+            this.name = name;
+            this.upperBound = upperBound;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the exclusive upper bound of the event dates of the partition, {@code null} for the future partition.
+         */
+        public Instant getUpperBound() {
+            return upperBound;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.superleague.microservice.repository;
 
 import com.superleague.microservice.config.Constants;
+import com.superleague.microservice.config.audit.AsyncAuditEventWriter;
 import com.superleague.microservice.config.audit.AuditEventConverter;
 import com.superleague.microservice.domain.PersistentAuditEvent;
 import java.time.Instant;
@@ -10,11 +11,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * An implementation of Spring Boot's {@link AuditEventRepository}.
+ * <p>
+ * Events are written asynchronously by the {@link AsyncAuditEventWriter}, so they may only be found shortly after
+ * being added.
  */
 @Repository
 public class CustomAuditEventRepository implements AuditEventRepository {
@@ -29,14 +31,18 @@ public class CustomAuditEventRepository implements AuditEventRepository {
 
     private final AuditEventConverter auditEventConverter;
 
+    private final AsyncAuditEventWriter asyncAuditEventWriter;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     public CustomAuditEventRepository(
         PersistenceAuditEventRepository persistenceAuditEventRepository,
-        AuditEventConverter auditEventConverter
+        AuditEventConverter auditEventConverter,
+        AsyncAuditEventWriter asyncAuditEventWriter
     ) {
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
         this.auditEventConverter = auditEventConverter;
+        this.asyncAuditEventWriter = asyncAuditEventWriter;
     }
 
     @Override
@@ -50,7 +56,6 @@ public class CustomAuditEventRepository implements AuditEventRepository {
     }
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void add(AuditEvent event) {
         if (!AUTHORIZATION_FAILURE.equals(event.getType()) && !Constants.ANONYMOUS_USER.equals(event.getPrincipal())) {
             PersistentAuditEvent persistentAuditEvent = new PersistentAuditEvent();
@@ -59,14 +64,14 @@ public class CustomAuditEventRepository implements AuditEventRepository {
             persistentAuditEvent.setAuditEventDate(event.getTimestamp());
             Map<String, String> eventData = auditEventConverter.convertDataToStrings(event.getData());
             persistentAuditEvent.setData(truncate(eventData));
-            persistenceAuditEventRepository.save(persistentAuditEvent);
+            asyncAuditEventWriter.write(persistentAuditEvent);
         }
     }
 
     /**
      * Truncate event data that might exceed column length.
      */
-    private Map<String, String> truncate(Map<String, String> data) {
+    Map<String, String> truncate(Map<String, String> data) {
         Map<String, String> results = new HashMap<>();
 
         if (data != null) {
@@ -2,6 +2,11 @@ package com.superleague.microservice.repository;
 
 import com.superleague.microservice.domain.Learning;
 
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -11,4 +16,9 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface LearningRepository extends JpaRepository<Learning, Long> {
+
+    Slice<Learning> findByIdGreaterThan(Long id, Pageable pageable);
+
+    @QueryHints({ @QueryHint(name = "org.hibernate.fetchSize", value = "500"), @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    Stream<Learning> streamAllBy();
 }
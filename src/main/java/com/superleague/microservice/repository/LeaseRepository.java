@@ -0,0 +1,36 @@
+package com.superleague.microservice.repository;
+
+import com.superleague.microservice.domain.Lease;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link Lease} entity.
+ */
+@Repository
+public interface LeaseRepository extends JpaRepository<Lease, String> {
+    /**
+     * Take or renew a lease, unless another owner holds it.
+     *
+     * @param name the name of the lease.
+     * @param owner the owner taking the lease.
+     * @param lockedUntil the end of the lease.
+     * @param now the current time.
+     * @return {@code 1} if the lease was taken or renewed, {@code 0} if another owner holds it.
+     */
+    @Modifying
+    @Query(
+        "update Lease lease set lease.owner = :owner, lease.lockedUntil = :lockedUntil" +
+        " where lease.name = :name and (lease.owner = :owner or lease.lockedUntil is null or lease.lockedUntil < :now)"
+    )
+    int acquire(
+        @Param("name") String name,
+        @Param("owner") String owner,
+        @Param("lockedUntil") Instant lockedUntil,
+        @Param("now") Instant now
+    );
+}
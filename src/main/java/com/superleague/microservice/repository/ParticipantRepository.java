@@ -1,7 +1,16 @@
 package com.superleague.microservice.repository;
 
 import com.superleague.microservice.domain.Participant;
+import com.superleague.microservice.service.dto.ParticipantSummaryDTO;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -11,4 +20,35 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface ParticipantRepository extends JpaRepository<Participant, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = { "sprint", "sprint.course", "learning" })
+    Page<Participant> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = { "sprint", "sprint.course", "learning" })
+    List<Participant> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = { "sprint", "sprint.course", "learning" })
+    Optional<Participant> findById(Long id);
+
+    @EntityGraph(attributePaths = { "sprint", "sprint.course", "learning" })
+    Slice<Participant> findByIdGreaterThan(Long id, Pageable pageable);
+
+    @Query(
+        value = "select new com.superleague.microservice.service.dto.ParticipantSummaryDTO(" +
+            "participant.id, participant.empId, participant.name, participant.email, " +
+            "batch.id, batch.batchName, course.id, course.courseName, learning.id, learning.status) " +
+            "from Participant participant " +
+            "left join participant.sprint batch " +
+            "left join batch.course course " +
+            "left join participant.learning learning",
+        countQuery = "select count(participant) from Participant participant"
+    )
+    Page<ParticipantSummaryDTO> findAllSummaries(Pageable pageable);
+
+    @EntityGraph(attributePaths = { "sprint", "sprint.course", "learning" })
+    @QueryHints({ @QueryHint(name = "org.hibernate.fetchSize", value = "500"), @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    Stream<Participant> streamAllBy();
 }
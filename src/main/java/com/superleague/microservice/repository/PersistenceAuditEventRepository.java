@@ -2,10 +2,14 @@ package com.superleague.microservice.repository;
 
 import com.superleague.microservice.domain.PersistentAuditEvent;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Spring Data JPA repository for the {@link PersistentAuditEvent} entity.
@@ -17,5 +21,14 @@ public interface PersistenceAuditEventRepository extends JpaRepository<Persisten
 
     Page<PersistentAuditEvent> findAllByAuditEventDateBetween(Instant fromDate, Instant toDate, Pageable pageable);
 
-    List<PersistentAuditEvent> findByAuditEventDateBefore(Instant before);
+    @Query("select event.id from PersistentAuditEvent event where event.auditEventDate < :before order by event.id")
+    List<Long> findIdsByAuditEventDateBefore(@Param("before") Instant before, Pageable pageable);
+
+    @Modifying
+    @Query(value = "delete from jhi_persistent_audit_evt_data where event_id in (:ids)", nativeQuery = true)
+    int deleteDataByEventIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from PersistentAuditEvent event where event.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
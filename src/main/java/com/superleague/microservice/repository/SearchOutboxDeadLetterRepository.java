@@ -0,0 +1,11 @@
+package com.superleague.microservice.repository;
+
+import com.superleague.microservice.domain.SearchOutboxDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link SearchOutboxDeadLetter} entity.
+ */
+@Repository
+public interface SearchOutboxDeadLetterRepository extends JpaRepository<SearchOutboxDeadLetter, Long> {}
@@ -0,0 +1,27 @@
+package com.superleague.microservice.repository;
+
+import com.superleague.microservice.domain.SearchOutboxEvent;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link SearchOutboxEvent} entity.
+ */
+@Repository
+public interface SearchOutboxEventRepository extends JpaRepository<SearchOutboxEvent, Long> {
+    List<SearchOutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+
+    @Modifying
+    @Query("delete from SearchOutboxEvent event where event.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update SearchOutboxEvent event set event.attempts = event.attempts + 1 where event.id in :ids")
+    int incrementAttemptsByIdIn(@Param("ids") Collection<Long> ids);
+}
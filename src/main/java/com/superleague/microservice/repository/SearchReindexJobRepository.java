@@ -0,0 +1,23 @@
+package com.superleague.microservice.repository;
+
+import com.superleague.microservice.domain.SearchReindexJob;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link SearchReindexJob} entity.
+ */
+@Repository
+public interface SearchReindexJobRepository extends JpaRepository<SearchReindexJob, Long> {
+    Optional<SearchReindexJob> findOneByRunningType(String runningType);
+
+    @Query(
+        "select job from SearchReindexJob job" +
+        " where job.id in (select max(last.id) from SearchReindexJob last group by last.entityType)" +
+        " order by job.entityType"
+    )
+    List<SearchReindexJob> findLastOfEachEntityType();
+}
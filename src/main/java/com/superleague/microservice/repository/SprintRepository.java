@@ -2,6 +2,12 @@ package com.superleague.microservice.repository;
 
 import com.superleague.microservice.domain.Sprint;
 
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -11,4 +17,15 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface SprintRepository extends JpaRepository<Sprint, Long> {
+
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    Page<Sprint> findAll(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    Slice<Sprint> findByIdGreaterThan(Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = { "batch", "batch.course" })
+    @QueryHints({ @QueryHint(name = "org.hibernate.fetchSize", value = "500"), @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    Stream<Sprint> streamAllBy();
 }
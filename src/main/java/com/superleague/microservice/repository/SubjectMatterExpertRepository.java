@@ -1,7 +1,16 @@
 package com.superleague.microservice.repository;
 
 import com.superleague.microservice.domain.SubjectMatterExpert;
+import com.superleague.microservice.service.dto.SubjectMatterExpertSummaryDTO;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -11,4 +20,35 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface SubjectMatterExpertRepository extends JpaRepository<SubjectMatterExpert, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = { "sprint", "sprint.batch", "sprint.batch.course" })
+    Page<SubjectMatterExpert> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = { "sprint", "sprint.batch", "sprint.batch.course" })
+    List<SubjectMatterExpert> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = { "sprint", "sprint.batch", "sprint.batch.course" })
+    Optional<SubjectMatterExpert> findById(Long id);
+
+    @EntityGraph(attributePaths = { "sprint", "sprint.batch", "sprint.batch.course" })
+    Slice<SubjectMatterExpert> findByIdGreaterThan(Long id, Pageable pageable);
+
+    @Query(
+        value = "select new com.superleague.microservice.service.dto.SubjectMatterExpertSummaryDTO(" +
+            "subjectMatterExpert.id, subjectMatterExpert.empId, subjectMatterExpert.name, subjectMatterExpert.email, " +
+            "subjectMatterExpert.contactNumber, sprint.id, sprint.sprintNo, batch.id, batch.batchName, course.id, course.courseName) " +
+            "from SubjectMatterExpert subjectMatterExpert " +
+            "left join subjectMatterExpert.sprint sprint " +
+            "left join sprint.batch batch " +
+            "left join batch.course course",
+        countQuery = "select count(subjectMatterExpert) from SubjectMatterExpert subjectMatterExpert"
+    )
+    Page<SubjectMatterExpertSummaryDTO> findAllSummaries(Pageable pageable);
+
+    @EntityGraph(attributePaths = { "sprint", "sprint.batch", "sprint.batch.course" })
+    @QueryHints({ @QueryHint(name = "org.hibernate.fetchSize", value = "500"), @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    Stream<SubjectMatterExpert> streamAllBy();
 }
@@ -1,5 +1,6 @@
 package com.superleague.microservice.security.oauth2;
 
+import com.superleague.microservice.config.ApplicationProperties;
 import com.superleague.microservice.security.oauth2.OAuthIdpTokenResponseDTO;
 import java.net.URI;
 import java.time.Duration;
@@ -7,11 +8,24 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
@@ -32,15 +46,62 @@ import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * Provides the {@code Authorization} header relayed by the Feign clients, refreshing the access token of the user when
+ * it is about to expire.
+ * <p>
+ * Only one refresh runs at a time for a given user and client registration: concurrent calls wait for its result
+ * rather than each calling the identity provider. Tokens with less than {@code application.token-refresh.proactive-ratio}
+ * of their lifetime left, within {@code application.token-refresh.proactive-window} of their expiry, are refreshed in
+ * the background, so that calls rarely have to wait for a refresh. The token endpoint is called through a single pool
+ * of connections.
+ */
 @Component
-public class AuthorizationHeaderUtil {
+public class AuthorizationHeaderUtil implements DisposableBean {
+    private static final Duration EXPIRY_SKEW = Duration.ofMinutes(1L);
+
     private final OAuth2AuthorizedClientService clientService;
     private final RestTemplateBuilder restTemplateBuilder;
+    private final ApplicationProperties.TokenRefresh properties;
+    private final Executor taskExecutor;
+    private final CloseableHttpClient httpClient;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+    private final Map<String, RestTemplate> restTemplates = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<OAuth2AccessToken>> refreshes = new ConcurrentHashMap<>();
     private final Logger log = LoggerFactory.getLogger(AuthorizationHeaderUtil.class);
 
-    public AuthorizationHeaderUtil(OAuth2AuthorizedClientService clientService, RestTemplateBuilder restTemplateBuilder) {
+    public AuthorizationHeaderUtil(
+        OAuth2AuthorizedClientService clientService,
+        RestTemplateBuilder restTemplateBuilder,
+        ApplicationProperties applicationProperties,
+        @Qualifier("taskExecutor") Executor taskExecutor
+    ) {
         this.clientService = clientService;
         this.restTemplateBuilder = restTemplateBuilder;
+        this.properties = applicationProperties.getTokenRefresh();
+        this.taskExecutor = taskExecutor;
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnections());
+        RequestConfig requestConfig = RequestConfig
+            .custom()
+            .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+            .setConnectionRequestTimeout((int) properties.getConnectTimeout().toMillis())
+            .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+            .build();
+        this.httpClient =
+            HttpClients
+                .custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(30, TimeUnit.SECONDS)
+                .build();
+        this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        httpClient.close();
     }
 
     public Optional<String> getAuthorizationHeader() {
@@ -61,11 +122,14 @@ public class AuthorizationHeaderUtil {
                 String accessTokenValue = accessToken.getTokenValue();
                 if (isExpired(accessToken)) {
                     log.info("AccessToken expired, refreshing automatically");
-                    accessTokenValue = refreshToken(client, oauthToken);
-                    if (null == accessTokenValue) {
+                    OAuth2AccessToken refreshedToken = refreshToken(client, oauthToken);
+                    if (null == refreshedToken) {
                         SecurityContextHolder.getContext().setAuthentication(null);
                         throw new OAuth2AuthorizationException(new OAuth2Error("access_denied", "The token is expired", null));
                     }
+                    accessTokenValue = refreshedToken.getTokenValue();
+                } else if (isExpiringSoon(accessToken)) {
+                    refreshTokenInBackground(client, oauthToken);
                 }
                 String authorizationHeaderValue = String.format("%s %s", tokenType, accessTokenValue);
                 return Optional.of(authorizationHeaderValue);
@@ -79,7 +143,83 @@ public class AuthorizationHeaderUtil {
         return Optional.empty();
     }
 
-    private String refreshToken(OAuth2AuthorizedClient client, OAuth2AuthenticationToken oauthToken) {
+    /**
+     * Refresh the access token of a client, or wait for the refresh already running for the same user.
+     *
+     * @return the new access token, or {@code null} if the identity provider did not return one.
+     */
+    OAuth2AccessToken refreshToken(OAuth2AuthorizedClient client, OAuth2AuthenticationToken oauthToken) {
+        String key = client.getClientRegistration().getRegistrationId() + ':' + client.getPrincipalName();
+        CompletableFuture<OAuth2AccessToken> refresh = new CompletableFuture<>();
+        CompletableFuture<OAuth2AccessToken> runningRefresh = refreshes.putIfAbsent(key, refresh);
+        if (runningRefresh != null) {
+            log.debug("Waiting for the running refresh of the token of {}", client.getPrincipalName());
+            return await(runningRefresh);
+        }
+        try {
+            // A refresh may have completed since the client was loaded
+            OAuth2AuthorizedClient currentClient = clientService.loadAuthorizedClient(
+                client.getClientRegistration().getRegistrationId(),
+                client.getPrincipalName()
+            );
+            OAuth2AccessToken accessToken;
+            if (currentClient != null && isRefreshed(client, currentClient)) {
+                accessToken = currentClient.getAccessToken();
+            } else {
+                accessToken = doRefreshToken(currentClient != null ? currentClient : client, oauthToken);
+            }
+            refresh.complete(accessToken);
+            return accessToken;
+        } catch (RuntimeException e) {
+            refresh.completeExceptionally(e);
+            throw e;
+        } finally {
+            refreshes.remove(key, refresh);
+        }
+    }
+
+    private void refreshTokenInBackground(OAuth2AuthorizedClient client, OAuth2AuthenticationToken oauthToken) {
+        String key = client.getClientRegistration().getRegistrationId() + ':' + client.getPrincipalName();
+        if (refreshes.containsKey(key)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(
+                () -> {
+                    try {
+                        refreshToken(client, oauthToken);
+                    } catch (RuntimeException e) {
+                        log.warn("Unable to refresh the token of {} ahead of its expiry: {}", client.getPrincipalName(), e.getMessage());
+                    }
+                }
+            );
+        } catch (RejectedExecutionException e) {
+            // The token is refreshed when it expires instead
+            log.debug("Background token refresh rejected: {}", e.getMessage());
+        }
+    }
+
+    private OAuth2AccessToken await(CompletableFuture<OAuth2AccessToken> refresh) {
+        try {
+            return refresh.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isRefreshed(OAuth2AuthorizedClient client, OAuth2AuthorizedClient currentClient) {
+        OAuth2AccessToken currentToken = currentClient.getAccessToken();
+        return (
+            currentToken != null &&
+            !currentToken.getTokenValue().equals(client.getAccessToken().getTokenValue()) &&
+            !isExpired(currentToken)
+        );
+    }
+
+    private OAuth2AccessToken doRefreshToken(OAuth2AuthorizedClient client, OAuth2AuthenticationToken oauthToken) {
         OAuth2AccessTokenResponse atr = refreshTokenClient(client);
         if (atr == null || atr.getAccessToken() == null) {
             log.info("Failed to refresh token for user");
@@ -95,10 +235,10 @@ public class AuthorizationHeaderUtil {
         );
 
         clientService.saveAuthorizedClient(updatedClient, oauthToken);
-        return atr.getAccessToken().getTokenValue();
+        return atr.getAccessToken();
     }
 
-    private OAuth2AccessTokenResponse refreshTokenClient(OAuth2AuthorizedClient currentClient) {
+    OAuth2AccessTokenResponse refreshTokenClient(OAuth2AuthorizedClient currentClient) {
         MultiValueMap<String, String> formParameters = new LinkedMultiValueMap<>();
         formParameters.add(OAuth2ParameterNames.GRANT_TYPE, AuthorizationGrantType.REFRESH_TOKEN.getValue());
         formParameters.add(OAuth2ParameterNames.REFRESH_TOKEN, currentClient.getRefreshToken().getTokenValue());
@@ -108,9 +248,10 @@ public class AuthorizationHeaderUtil {
             .contentType(MediaType.APPLICATION_FORM_URLENCODED)
             .body(formParameters);
         try {
-            RestTemplate r = restTemplate(
-                currentClient.getClientRegistration().getClientId(),
-                currentClient.getClientRegistration().getClientSecret()
+            RestTemplate r = restTemplates.computeIfAbsent(
+                currentClient.getClientRegistration().getRegistrationId(),
+                registrationId ->
+                    restTemplate(currentClient.getClientRegistration().getClientId(), currentClient.getClientRegistration().getClientSecret())
             );
             ResponseEntity<OAuthIdpTokenResponseDTO> responseEntity = r.exchange(requestEntity, OAuthIdpTokenResponseDTO.class);
             return toOAuth2AccessTokenResponse(responseEntity.getBody());
@@ -141,12 +282,34 @@ public class AuthorizationHeaderUtil {
             .additionalMessageConverters(new FormHttpMessageConverter(), new OAuth2AccessTokenResponseHttpMessageConverter())
             .errorHandler(new OAuth2ErrorResponseErrorHandler())
             .basicAuthentication(clientId, clientSecret)
+            .requestFactory(() -> requestFactory)
             .build();
     }
 
     private boolean isExpired(OAuth2AccessToken accessToken) {
         Instant now = Instant.now();
         Instant expiresAt = accessToken.getExpiresAt();
-        return now.isAfter(expiresAt.minus(Duration.ofMinutes(1L)));
+        return now.isAfter(expiresAt.minus(EXPIRY_SKEW));
+    }
+
+    private boolean isExpiringSoon(OAuth2AccessToken accessToken) {
+        Instant issuedAt = accessToken.getIssuedAt();
+        Instant expiresAt = accessToken.getExpiresAt();
+        if (issuedAt == null) {
+            // Without its lifetime, the token is only refreshed when it expires
+            return false;
+        }
+        // The window is a share of the lifetime, so that short-lived tokens are not refreshed on every call
+        Duration lifetime = Duration.between(issuedAt, expiresAt);
+        Duration window = Duration.ofMillis((long) (lifetime.toMillis() * properties.getProactiveRatio()));
+        if (window.compareTo(properties.getProactiveWindow()) > 0) {
+            window = properties.getProactiveWindow();
+        }
+        Instant refreshFrom = expiresAt.minus(EXPIRY_SKEW).minus(window);
+        if (!refreshFrom.isAfter(issuedAt)) {
+            // The window is longer than the lifetime of the token
+            return false;
+        }
+        return Instant.now().isAfter(refreshFrom);
     }
 }
@@ -0,0 +1,153 @@
+package com.superleague.microservice.security.oauth2;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.security.SecurityUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * {@link JwtDecoder} keeping the tokens it validated, so that the following requests bearing the same token skip the
+ * signature verification and claim validation.
+ * <p>
+ * Tokens are keyed by their SHA-256 digest, never by their value, and each is kept until its {@code exp} claim, or
+ * for the time to live of {@code application.cache.jwt} if that comes first. Tokens without an expiry, and tokens the
+ * delegate rejects, are not kept. The authorities of each token are extracted once, when it is validated, and handed
+ * to the {@link JwtGrantedAuthorityConverter}.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+    static final String CACHE_NAME = "jwtTokens";
+
+    private final JwtDecoder delegate;
+
+    private final ApplicationProperties.JwtCache properties;
+
+    private final Cache<String, Jwt> cache;
+
+    /**
+     * The authorities of the cached tokens, by {@link Jwt} instance so that they are found without hashing the token
+     * again, and dropped along with the token.
+     */
+    private final Cache<Jwt, List<GrantedAuthority>> authorities = Caffeine.newBuilder().weakKeys().build();
+
+    private final Timer successTimer;
+
+    private final Timer failureTimer;
+
+    public CachingJwtDecoder(JwtDecoder delegate, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = applicationProperties.getCache().getJwt();
+        this.cache =
+            Caffeine
+                .newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new TokenExpiry(properties.getTimeToLive()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.successTimer =
+            Timer
+                .builder("security.jwt.verification")
+                .description("Time spent verifying the signature and claims of bearer tokens")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.failureTimer =
+            Timer
+                .builder("security.jwt.verification")
+                .description("Time spent verifying the signature and claims of bearer tokens")
+                .tag("result", "failure")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (!properties.isEnabled()) {
+            return verify(token);
+        }
+        String key = digest(token);
+        Jwt jwt = cache.getIfPresent(key);
+        if (jwt == null || !jwt.getTokenValue().equals(token)) {
+            jwt = verify(token);
+            if (jwt.getExpiresAt() != null) {
+                cache.put(key, jwt);
+            }
+        }
+        return jwt;
+    }
+
+    /**
+     * Get the authorities of a token decoded by this decoder.
+     *
+     * @param jwt the decoded token.
+     * @return the authorities extracted when the token was validated, or empty if it was decoded by another decoder.
+     */
+    public Optional<List<GrantedAuthority>> getAuthorities(Jwt jwt) {
+        return Optional.ofNullable(authorities.getIfPresent(jwt));
+    }
+
+    private Jwt verify(String token) {
+        long start = System.nanoTime();
+        Jwt jwt;
+        try {
+            jwt = delegate.decode(token);
+        } catch (JwtException e) {
+            failureTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            throw e;
+        }
+        successTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        authorities.put(jwt, SecurityUtils.extractAuthorityFromClaims(jwt.getClaims()));
+        return jwt;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Expires each token at its {@code exp} claim, or after the time to live if that comes first.
+     */
+    private static class TokenExpiry implements Expiry<String, Jwt> {
+        private final long timeToLiveNanos;
+
+        TokenExpiry(Duration timeToLive) {
+            this.timeToLiveNanos = timeToLive.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Jwt value, long currentTime) {
+            Instant expiresAt = value.getExpiresAt();
+            long untilExpiry = expiresAt == null ? 0 : Duration.between(Instant.now(), expiresAt).toNanos();
+            return Math.max(0, Math.min(timeToLiveNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
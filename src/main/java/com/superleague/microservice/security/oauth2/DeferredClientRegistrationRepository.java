@@ -0,0 +1,41 @@
+package com.superleague.microservice.security.oauth2;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientProperties;
+import org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientPropertiesRegistrationAdapter;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * {@link ClientRegistrationRepository} reading the client registrations of {@code spring.security.oauth2.client} on
+ * first use, so that the OIDC discovery of their issuers does not hold up the startup.
+ * <p>
+ * Registrations which fail to be read, typically because an issuer is unreachable, are read again on the next use.
+ */
+public class DeferredClientRegistrationRepository implements ClientRegistrationRepository, Iterable<ClientRegistration> {
+    private final Supplier<InMemoryClientRegistrationRepository> delegate;
+
+    public DeferredClientRegistrationRepository(OAuth2ClientProperties properties) {
+        this.delegate =
+            SingletonSupplier.of(
+                () ->
+                    new InMemoryClientRegistrationRepository(
+                        new ArrayList<>(OAuth2ClientPropertiesRegistrationAdapter.getClientRegistrations(properties).values())
+                    )
+            );
+    }
+
+    @Override
+    public ClientRegistration findByRegistrationId(String registrationId) {
+        return delegate.get().findByRegistrationId(registrationId);
+    }
+
+    @Override
+    public Iterator<ClientRegistration> iterator() {
+        return delegate.get().iterator();
+    }
+}
@@ -0,0 +1,37 @@
+package com.superleague.microservice.security.oauth2;
+
+import java.util.function.Supplier;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * {@link JwtDecoder} creating its delegate on the first token to decode, so that the OIDC discovery of the issuer does
+ * not hold up the startup.
+ * <p>
+ * A delegate which fails to be created, typically because the issuer is unreachable, rejects the token at hand and is
+ * created again for the next one.
+ */
+public class DeferredJwtDecoder implements JwtDecoder {
+    private final Supplier<JwtDecoder> delegate;
+
+    public DeferredJwtDecoder(Supplier<JwtDecoder> delegate) {
+        this.delegate = SingletonSupplier.of(delegate);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return delegate().decode(token);
+    }
+
+    private JwtDecoder delegate() {
+        try {
+            return delegate.get();
+        } catch (JwtException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new JwtException("Could not discover the configuration of the issuer: " + e.getMessage(), e);
+        }
+    }
+}
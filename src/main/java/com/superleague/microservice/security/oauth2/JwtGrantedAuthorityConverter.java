@@ -2,6 +2,8 @@ package com.superleague.microservice.security.oauth2;
 
 import com.superleague.microservice.security.SecurityUtils;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -9,13 +11,28 @@ import org.springframework.stereotype.Component;
 
 @Component
 public class JwtGrantedAuthorityConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+    private final CachingJwtDecoder cachingJwtDecoder;
 
     public JwtGrantedAuthorityConverter() {
         // Bean extracting authority.
+        this(null);
+    }
+
+    /**
+     * @param cachingJwtDecoder the decoder of the tokens, whose authorities are already extracted, or {@code null}.
+     */
+    public JwtGrantedAuthorityConverter(CachingJwtDecoder cachingJwtDecoder) {
+        this.cachingJwtDecoder = cachingJwtDecoder;
     }
 
     @Override
     public Collection<GrantedAuthority> convert(Jwt jwt) {
+        if (cachingJwtDecoder != null) {
+            Optional<List<GrantedAuthority>> authorities = cachingJwtDecoder.getAuthorities(jwt);
+            if (authorities.isPresent()) {
+                return authorities.get();
+            }
+        }
         return SecurityUtils.extractAuthorityFromClaims(jwt.getClaims());
     }
 }
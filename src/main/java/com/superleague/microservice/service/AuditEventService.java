@@ -1,19 +1,38 @@
 package com.superleague.microservice.service;
 
+import com.superleague.microservice.config.ApplicationProperties;
 import com.superleague.microservice.config.audit.AuditEventConverter;
+import com.superleague.microservice.repository.AuditEventPartitionRepository;
+import com.superleague.microservice.repository.AuditEventPartitionRepository.AuditEventPartition;
+import com.superleague.microservice.repository.LeaseRepository;
 import com.superleague.microservice.repository.PersistenceAuditEventRepository;
+import com.superleague.microservice.service.dto.AuditPurgeReportDTO;
 import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service for managing audit events.
@@ -23,22 +42,56 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @Transactional
 public class AuditEventService {
+    /**
+     * Number of monthly partitions kept ready after the current month, when the audit events are partitioned.
+     */
+    private static final int PARTITION_MONTHS_AHEAD = 2;
+
+    static final String LEASE_NAME = "audit-purge";
+
+    private static final DateTimeFormatter PARTITION_NAME_FORMATTER = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
     private final Logger log = LoggerFactory.getLogger(AuditEventService.class);
 
     private final JHipsterProperties jHipsterProperties;
 
     private final PersistenceAuditEventRepository persistenceAuditEventRepository;
 
+    private final AuditEventPartitionRepository auditEventPartitionRepository;
+
     private final AuditEventConverter auditEventConverter;
 
+    private final LeaseRepository leaseRepository;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ApplicationProperties.Audit.Purge purgeProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter purgedCounter;
+
+    private final Timer purgeTimer;
+
     public AuditEventService(
         PersistenceAuditEventRepository persistenceAuditEventRepository,
+        AuditEventPartitionRepository auditEventPartitionRepository,
         AuditEventConverter auditEventConverter,
-        JHipsterProperties jhipsterProperties
+        LeaseRepository leaseRepository,
+        JHipsterProperties jhipsterProperties,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
     ) {
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.auditEventPartitionRepository = auditEventPartitionRepository;
         this.auditEventConverter = auditEventConverter;
+        this.leaseRepository = leaseRepository;
         this.jHipsterProperties = jhipsterProperties;
+        this.purgeProperties = applicationProperties.getAudit().getPurge();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.purgedCounter = meterRegistry.counter("audit.events.purged");
+        this.purgeTimer = meterRegistry.timer("audit.events.purge");
     }
 
     /**
@@ -47,15 +100,148 @@ public class AuditEventService {
      * This is scheduled to get fired at 12:00 (am).
      */
     @Scheduled(cron = "0 0 12 * * ?")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void removeOldAuditEvents() {
-        persistenceAuditEventRepository
-            .findByAuditEventDateBefore(Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS))
-            .forEach(
-                auditEvent -> {
-                    log.debug("Deleting audit data {}", auditEvent);
-                    persistenceAuditEventRepository.delete(auditEvent);
+        purgeAuditEventsBefore(Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS));
+    }
+
+    /**
+     * Delete the audit events older than a date, along with their data.
+     * <p>
+     * Events are deleted with bulk statements, {@code application.audit.purge.chunk-size} events at a time, each chunk
+     * in its own transaction so that locks are held briefly, with a pause between chunks to leave the database to the
+     * requests. Nothing is loaded in the persistence context but the ids of the chunk.
+     * <p>
+     * When the events are partitioned by month on MySQL, the partitions past the date are dropped first, so that only
+     * the events of the month straddling the date are left to delete, and the partitions of the coming months are
+     * added.
+     * <p>
+     * The purge is scheduled on every instance, but only the one taking the {@code audit-purge}
+     * {@link com.superleague.microservice.domain.Lease} runs it: the others skip it rather than contend for the same
+     * rows and partitions.
+     *
+     * @param before the date before which events are deleted.
+     * @return the report of the purge.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuditPurgeReportDTO purgeAuditEventsBefore(Instant before) {
+        AuditPurgeReportDTO report = new AuditPurgeReportDTO();
+        report.setBefore(before);
+        if (!acquireLease()) {
+            log.info("Audit events are being purged by another instance, skipping");
+            report.setSkipped(true);
+            return report;
+        }
+        long start = System.nanoTime();
+        if (auditEventPartitionRepository.isPartitioned()) {
+            maintainPartitions(before, report);
+        }
+        // Ids are listed from the start each time, as the previous chunk is gone
+        Pageable chunk = PageRequest.of(0, purgeProperties.getChunkSize());
+        while (true) {
+            int[] deleted = transactionTemplate.execute(
+                status -> {
+                    List<Long> ids = persistenceAuditEventRepository.findIdsByAuditEventDateBefore(before, chunk);
+                    if (ids.isEmpty()) {
+                        return new int[] { 0, 0 };
+                    }
+                    // The data rows reference the events, they go first
+                    int dataRows = persistenceAuditEventRepository.deleteDataByEventIdIn(ids);
+                    return new int[] { persistenceAuditEventRepository.deleteByIdIn(ids), dataRows };
                 }
             );
+            if (deleted[0] == 0) {
+                break;
+            }
+            report.setEventsDeleted(report.getEventsDeleted() + deleted[0]);
+            report.setDataRowsDeleted(report.getDataRowsDeleted() + deleted[1]);
+            report.setChunks(report.getChunks() + 1);
+            purgedCounter.increment(deleted[0]);
+            log.debug("Deleted a chunk of {} audit events", deleted[0]);
+            if (deleted[0] < purgeProperties.getChunkSize() || !pause()) {
+                break;
+            }
+            if (!acquireLease()) {
+                log.warn("Lost the audit event purge lease, the remaining events are left for the next run");
+                break;
+            }
+        }
+        long duration = System.nanoTime() - start;
+        purgeTimer.record(duration, TimeUnit.NANOSECONDS);
+        report.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(duration));
+        log.info(
+            "Deleted {} audit events and {} data rows older than {} in {} chunks, {} partitions and {} ms",
+            report.getEventsDeleted(),
+            report.getDataRowsDeleted(),
+            before,
+            report.getChunks(),
+            report.getPartitionsDropped(),
+            report.getDurationMillis()
+        );
+        return report;
+    }
+
+    /**
+     * Take or renew the lease before each chunk, so that it never expires while the purge runs.
+     */
+    private boolean acquireLease() {
+        Instant now = Instant.now();
+        Integer acquired = transactionTemplate.execute(
+            status -> leaseRepository.acquire(LEASE_NAME, instanceId, now.plus(purgeProperties.getLeaseDuration()), now)
+        );
+        return acquired != null && acquired > 0;
+    }
+
+    private void maintainPartitions(Instant before, AuditPurgeReportDTO report) {
+        YearMonth nextMonth = null;
+        for (AuditEventPartition partition : auditEventPartitionRepository.findPartitions()) {
+            if (partition.getUpperBound() == null) {
+                continue;
+            }
+            if (!partition.getUpperBound().isAfter(before)) {
+                auditEventPartitionRepository.dropPartition(partition.getName());
+                report.setPartitionsDropped(report.getPartitionsDropped() + 1);
+                log.debug("Dropped audit event partition {}", partition.getName());
+            }
+            // Upper bounds are the first day of the month following the partition
+            nextMonth = YearMonth.from(partition.getUpperBound().atOffset(ZoneOffset.UTC));
+        }
+        // The future partition may hold many months when the purge did not run for a while, or when the table was
+        // partitioned long after the initial bound: the months past the date are not split out, their events are
+        // purged with bulk deletes from the first new partition.
+        YearMonth lastMonth = YearMonth.now(ZoneOffset.UTC).plusMonths(PARTITION_MONTHS_AHEAD);
+        YearMonth beforeMonth = YearMonth.from(before.atOffset(ZoneOffset.UTC));
+        YearMonth month = nextMonth == null || nextMonth.isBefore(beforeMonth) ? beforeMonth : nextMonth;
+        List<AuditEventPartition> partitions = new ArrayList<>();
+        while (!month.isAfter(lastMonth)) {
+            Instant upperBound = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            partitions.add(new AuditEventPartition(month.format(PARTITION_NAME_FORMATTER), upperBound));
+            month = month.plusMonths(1);
+        }
+        if (!partitions.isEmpty()) {
+            auditEventPartitionRepository.addPartitions(partitions);
+            log.debug("Added {} audit event partitions, up to {}", partitions.size(), lastMonth);
+        }
+        // The data rows of the dropped events are not partitioned, they are deleted like events
+        int deleted;
+        do {
+            deleted = auditEventPartitionRepository.deleteOrphanData(purgeProperties.getChunkSize());
+            report.setDataRowsDeleted(report.getDataRowsDeleted() + deleted);
+        } while (deleted == purgeProperties.getChunkSize() && pause());
+    }
+
+    private boolean pause() {
+        if (purgeProperties.getPause().isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(purgeProperties.getPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            log.warn("Audit event purge interrupted, the remaining events are left for the next run");
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,249 @@
+package com.superleague.microservice.service;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.service.dto.BulkItemResultDTO;
+import com.superleague.microservice.service.dto.BulkItemResultDTO.Status;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for creating, updating and deleting many entities of the same type at once.
+ * <p>
+ * Items are validated one by one, then written in chunks of {@code application.bulk.chunk-size}: each chunk is its
+ * own transaction, flushed as JDBC batches and cleared from the persistence context before the next one. Indexing is
+ * scheduled through the {@link SearchOutboxService} in the same transaction, so a chunk ends up in a single
+ * Elasticsearch {@code _bulk} request. A chunk failing to commit only fails its own items.
+ */
+@Service
+public class BulkEntityService {
+    private final Logger log = LoggerFactory.getLogger(BulkEntityService.class);
+
+    private final EntityManager entityManager;
+
+    private final SearchOutboxService searchOutboxService;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Bulk properties;
+
+    public BulkEntityService(
+        EntityManager entityManager,
+        SearchOutboxService searchOutboxService,
+        Validator validator,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.entityManager = entityManager;
+        this.searchOutboxService = searchOutboxService;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getBulk();
+    }
+
+    /**
+     * @return the number of items written in a single transaction.
+     */
+    public int getChunkSize() {
+        return Math.max(1, properties.getChunkSize());
+    }
+
+    /**
+     * @return the maximum number of items accepted in a single bulk request.
+     */
+    public int getMaxItems() {
+        return properties.getMaxItems();
+    }
+
+    /**
+     * Create new entities.
+     *
+     * @param entityClass the class of the entities.
+     * @param entities the entities to create, without an id.
+     * @param idGetter the accessor of the entity id.
+     * @param <T> the type of the entities.
+     * @return the outcome of each item, in the order of the request.
+     */
+    public <T> List<BulkItemResultDTO> createAll(Class<T> entityClass, List<T> entities, Function<T, Long> idGetter) {
+        log.debug("Request to create {} {}", entities.size(), entityClass.getSimpleName());
+        BulkItemResultDTO[] results = new BulkItemResultDTO[entities.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i++) {
+            T entity = entities.get(i);
+            if (idGetter.apply(entity) != null) {
+                results[i] = BulkItemResultDTO.error(i, idGetter.apply(entity), Status.INVALID, "error.idexists");
+            } else if (!validate(i, entity, results)) {
+                accepted.add(i);
+            }
+        }
+        writeInChunks(
+            accepted,
+            results,
+            chunk -> {
+                chunk.forEach(i -> entityManager.persist(entities.get(i)));
+                entityManager.flush();
+                return chunk
+                    .stream()
+                    .map(
+                        i -> {
+                            Long id = idGetter.apply(entities.get(i));
+                            searchOutboxService.scheduleIndex(entityClass, id);
+                            return BulkItemResultDTO.success(i, id, Status.CREATED);
+                        }
+                    )
+                    .collect(Collectors.toList());
+            }
+        );
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Update existing entities.
+     *
+     * @param entityClass the class of the entities.
+     * @param entities the entities to update, with their id.
+     * @param idGetter the accessor of the entity id.
+     * @param <T> the type of the entities.
+     * @return the outcome of each item, in the order of the request.
+     */
+    public <T> List<BulkItemResultDTO> updateAll(Class<T> entityClass, List<T> entities, Function<T, Long> idGetter) {
+        log.debug("Request to update {} {}", entities.size(), entityClass.getSimpleName());
+        BulkItemResultDTO[] results = new BulkItemResultDTO[entities.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i++) {
+            T entity = entities.get(i);
+            if (idGetter.apply(entity) == null) {
+                results[i] = BulkItemResultDTO.error(i, null, Status.INVALID, "error.idnull");
+            } else if (!validate(i, entity, results)) {
+                accepted.add(i);
+            }
+        }
+        writeInChunks(
+            accepted,
+            results,
+            chunk -> {
+                Set<Long> existingIds = findExistingIds(entityClass, chunk.stream().map(i -> idGetter.apply(entities.get(i))).collect(Collectors.toList()));
+                List<BulkItemResultDTO> chunkResults = new ArrayList<>(chunk.size());
+                for (Integer i : chunk) {
+                    Long id = idGetter.apply(entities.get(i));
+                    if (existingIds.contains(id)) {
+                        entityManager.merge(entities.get(i));
+                        searchOutboxService.scheduleIndex(entityClass, id);
+                        chunkResults.add(BulkItemResultDTO.success(i, id, Status.UPDATED));
+                    } else {
+                        chunkResults.add(BulkItemResultDTO.error(i, id, Status.NOT_FOUND, "error.notfound"));
+                    }
+                }
+                return chunkResults;
+            }
+        );
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Delete entities.
+     *
+     * @param entityClass the class of the entities.
+     * @param ids the ids of the entities to delete.
+     * @return the outcome of each item, in the order of the request.
+     */
+    public List<BulkItemResultDTO> deleteAll(Class<?> entityClass, List<Long> ids) {
+        log.debug("Request to delete {} {}", ids.size(), entityClass.getSimpleName());
+        BulkItemResultDTO[] results = new BulkItemResultDTO[ids.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                results[i] = BulkItemResultDTO.error(i, null, Status.INVALID, "error.idnull");
+            } else {
+                accepted.add(i);
+            }
+        }
+        writeInChunks(
+            accepted,
+            results,
+            chunk -> {
+                Set<Long> existingIds = findExistingIds(entityClass, chunk.stream().map(ids::get).collect(Collectors.toList()));
+                if (!existingIds.isEmpty()) {
+                    entityManager
+                        .createQuery("delete from " + entityClass.getSimpleName() + " e where e.id in :ids")
+                        .setParameter("ids", existingIds)
+                        .executeUpdate();
+                }
+                List<BulkItemResultDTO> chunkResults = new ArrayList<>(chunk.size());
+                Set<Long> deletedIds = new HashSet<>();
+                for (Integer i : chunk) {
+                    Long id = ids.get(i);
+                    if (!existingIds.contains(id)) {
+                        chunkResults.add(BulkItemResultDTO.error(i, id, Status.NOT_FOUND, "error.notfound"));
+                    } else {
+                        if (deletedIds.add(id)) {
+                            searchOutboxService.scheduleDelete(entityClass, id);
+                        }
+                        chunkResults.add(BulkItemResultDTO.success(i, id, Status.DELETED));
+                    }
+                }
+                return chunkResults;
+            }
+        );
+        return Arrays.asList(results);
+    }
+
+    /**
+     * @return {@code true} if the entity is invalid, in which case its result has been recorded.
+     */
+    private boolean validate(int index, Object entity, BulkItemResultDTO[] results) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(entity);
+        if (violations.isEmpty()) {
+            return false;
+        }
+        String message = violations
+            .stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+        results[index] = BulkItemResultDTO.error(index, null, Status.INVALID, message);
+        return true;
+    }
+
+    private Set<Long> findExistingIds(Class<?> entityClass, Collection<Long> ids) {
+        return new HashSet<>(
+            entityManager
+                .createQuery("select e.id from " + entityClass.getSimpleName() + " e where e.id in :ids", Long.class)
+                .setParameter("ids", ids)
+                .getResultList()
+        );
+    }
+
+    private void writeInChunks(List<Integer> indexes, BulkItemResultDTO[] results, Function<List<Integer>, List<BulkItemResultDTO>> writer) {
+        int chunkSize = getChunkSize();
+        for (int from = 0; from < indexes.size(); from += chunkSize) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + chunkSize, indexes.size()));
+            try {
+                List<BulkItemResultDTO> chunkResults = transactionTemplate.execute(
+                    status -> {
+                        List<BulkItemResultDTO> written = writer.apply(chunk);
+                        entityManager.flush();
+                        entityManager.clear();
+                        return written;
+                    }
+                );
+                chunkResults.forEach(result -> results[result.getIndex()] = result);
+            } catch (RuntimeException e) {
+                log.warn("Bulk chunk of {} items could not be committed: {}", chunk.size(), e.getMessage());
+                for (Integer i : chunk) {
+                    results[i] = BulkItemResultDTO.error(i, null, Status.FAILED, "error.bulk.chunkfailed");
+                }
+            }
+        }
+    }
+}
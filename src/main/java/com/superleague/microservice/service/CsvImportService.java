@@ -0,0 +1,327 @@
+package com.superleague.microservice.service;
+
+import com.superleague.microservice.domain.Batch;
+import com.superleague.microservice.domain.Course;
+import com.superleague.microservice.domain.Learning;
+import com.superleague.microservice.domain.Participant;
+import com.superleague.microservice.domain.enumeration.Status;
+import com.superleague.microservice.service.dto.BulkItemResultDTO;
+import com.superleague.microservice.service.dto.ImportReportDTO;
+import com.superleague.microservice.service.dto.ImportReportDTO.RejectedRow;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service importing entities from CSV files, in the format written by the {@link EntityExportService}.
+ * <p>
+ * The file is read as a stream and written through the {@link BulkEntityService} every
+ * {@code application.bulk.chunk-size} rows, so neither the file nor the entities are ever fully loaded in memory.
+ * Associations are given as {@code <association>_id} columns, checked against the ids of the referenced table,
+ * which are loaded once per import instead of once per row. The {@code id} column is ignored: new ids are always
+ * allocated.
+ */
+@Service
+public class CsvImportService {
+    /**
+     * Maximum number of rejected rows detailed in a report.
+     */
+    static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private static final char CSV_SEPARATOR = ';';
+
+    private static final String ID_COLUMN = "id";
+
+    private final Logger log = LoggerFactory.getLogger(CsvImportService.class);
+
+    private final EntityManager entityManager;
+
+    private final BulkEntityService bulkEntityService;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public CsvImportService(EntityManager entityManager, BulkEntityService bulkEntityService, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.bulkEntityService = bulkEntityService;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Import courses.
+     *
+     * @param inputStream the CSV file, with a {@code course_no;course_name;status} header.
+     * @return the report of the import.
+     * @throws IOException if the file could not be read.
+     * @throws InvalidCsvHeaderException if the header has an unknown column.
+     */
+    public ImportReportDTO importCourses(InputStream inputStream) throws IOException {
+        Map<String, ColumnParser<Course>> columns = new HashMap<>();
+        columns.put("course_no", (course, value) -> course.setCourseNo(value));
+        columns.put("course_name", (course, value) -> course.setCourseName(value));
+        columns.put("status", (course, value) -> course.setStatus(Status.valueOf(value)));
+        return importRows(Course.class, Course::new, Course::getId, columns, inputStream);
+    }
+
+    /**
+     * Import batches.
+     *
+     * @param inputStream the CSV file, with a
+     * {@code batch_no;batch_name;participant_count;start_date;end_date;status;course_id} header.
+     * @return the report of the import.
+     * @throws IOException if the file could not be read.
+     * @throws InvalidCsvHeaderException if the header has an unknown column.
+     */
+    public ImportReportDTO importBatches(InputStream inputStream) throws IOException {
+        Map<String, ColumnParser<Batch>> columns = new HashMap<>();
+        columns.put("batch_no", (batch, value) -> batch.setBatchNo(value));
+        columns.put("batch_name", (batch, value) -> batch.setBatchName(value));
+        columns.put("participant_count", (batch, value) -> batch.setParticipantCount(Integer.valueOf(value)));
+        columns.put("start_date", (batch, value) -> batch.setStartDate(LocalDate.parse(value)));
+        columns.put("end_date", (batch, value) -> batch.setEndDate(LocalDate.parse(value)));
+        columns.put("status", (batch, value) -> batch.setStatus(Status.valueOf(value)));
+        columns.put("course_id", reference(Course.class, Course::new, Course::setId, Batch::setCourse));
+        return importRows(Batch.class, Batch::new, Batch::getId, columns, inputStream);
+    }
+
+    /**
+     * Import participants.
+     *
+     * @param inputStream the CSV file, with a {@code emp_id;name;email;sprint_id;learning_id} header, where
+     * {@code sprint_id} is the id of a batch.
+     * @return the report of the import.
+     * @throws IOException if the file could not be read.
+     * @throws InvalidCsvHeaderException if the header has an unknown column.
+     */
+    public ImportReportDTO importParticipants(InputStream inputStream) throws IOException {
+        Map<String, ColumnParser<Participant>> columns = new HashMap<>();
+        columns.put("emp_id", (participant, value) -> participant.setEmpId(value));
+        columns.put("name", (participant, value) -> participant.setName(value));
+        columns.put("email", (participant, value) -> participant.setEmail(value));
+        columns.put("sprint_id", reference(Batch.class, Batch::new, Batch::setId, Participant::setSprint));
+        columns.put("learning_id", reference(Learning.class, Learning::new, Learning::setId, Participant::setLearning));
+        return importRows(Participant.class, Participant::new, Participant::getId, columns, inputStream);
+    }
+
+    private <T> ImportReportDTO importRows(
+        Class<T> entityClass,
+        Supplier<T> factory,
+        Function<T, Long> idGetter,
+        Map<String, ColumnParser<T>> parsers,
+        InputStream inputStream
+    ) throws IOException {
+        log.debug("Request to import {} from CSV", entityClass.getSimpleName());
+        long start = System.nanoTime();
+        ImportReportDTO report = new ImportReportDTO();
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+        List<String> header = reader.readRecord();
+        List<ColumnParser<T>> columns = getColumnParsers(header, parsers);
+        int chunkSize = bulkEntityService.getChunkSize();
+        List<T> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            report.setRowsRead(report.getRowsRead() + 1);
+            long line = reader.getRecordLine();
+            if (record.size() != columns.size()) {
+                reject(report, line, "Expected " + columns.size() + " columns but found " + record.size());
+                continue;
+            }
+            T entity = factory.get();
+            String error = null;
+            for (int i = 0; i < columns.size() && error == null; i++) {
+                if (!record.get(i).isEmpty()) {
+                    try {
+                        columns.get(i).parse(entity, record.get(i));
+                    } catch (RuntimeException e) {
+                        error = header.get(i) + ": " + e.getMessage();
+                    }
+                }
+            }
+            if (error != null) {
+                reject(report, line, error);
+                continue;
+            }
+            chunk.add(entity);
+            chunkLines.add(line);
+            if (chunk.size() == chunkSize) {
+                writeChunk(entityClass, idGetter, chunk, chunkLines, report);
+            }
+        }
+        writeChunk(entityClass, idGetter, chunk, chunkLines, report);
+        report.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+        report.setRowsPerSecond(report.getDurationMillis() == 0 ? report.getRowsImported() : report.getRowsImported() * 1000.0 / report.getDurationMillis());
+        log.info(
+            "Imported {} {} out of {} rows in {} ms ({} rows/s), {} rejected",
+            report.getRowsImported(),
+            entityClass.getSimpleName(),
+            report.getRowsRead(),
+            report.getDurationMillis(),
+            Math.round(report.getRowsPerSecond()),
+            report.getRowsRejected()
+        );
+        return report;
+    }
+
+    private <T> List<ColumnParser<T>> getColumnParsers(List<String> header, Map<String, ColumnParser<T>> parsers) {
+        if (header == null) {
+            throw new InvalidCsvHeaderException("The CSV file is empty");
+        }
+        List<ColumnParser<T>> columns = new ArrayList<>(header.size());
+        for (String name : header) {
+            if (ID_COLUMN.equals(name)) {
+                columns.add((entity, value) -> {});
+            } else if (parsers.containsKey(name)) {
+                columns.add(parsers.get(name));
+            } else {
+                throw new InvalidCsvHeaderException("Unknown column: " + name);
+            }
+        }
+        return columns;
+    }
+
+    private <T> void writeChunk(Class<T> entityClass, Function<T, Long> idGetter, List<T> chunk, List<Long> chunkLines, ImportReportDTO report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        for (BulkItemResultDTO result : bulkEntityService.createAll(entityClass, chunk, idGetter)) {
+            if (result.getStatus() == BulkItemResultDTO.Status.CREATED) {
+                report.setRowsImported(report.getRowsImported() + 1);
+            } else {
+                reject(report, chunkLines.get(result.getIndex()), result.getMessage());
+            }
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private void reject(ImportReportDTO report, long line, String message) {
+        report.setRowsRejected(report.getRowsRejected() + 1);
+        if (report.getRejectedRows().size() < MAX_REPORTED_REJECTIONS) {
+            report.getRejectedRows().add(new RejectedRow(line, message));
+        }
+    }
+
+    /**
+     * Parse a {@code <association>_id} column, the ids of the referenced table being loaded on first use.
+     * <p>
+     * The association is set to a new instance only holding the id, which is all Hibernate needs to write the foreign
+     * key, so that the referenced rows are never loaded.
+     */
+    private <T, R> ColumnParser<T> reference(Class<R> referencedClass, Supplier<R> factory, BiConsumer<R, Long> idSetter, BiConsumer<T, R> setter) {
+        AtomicReference<Set<Long>> existingIds = new AtomicReference<>();
+        return (entity, value) -> {
+            if (existingIds.get() == null) {
+                existingIds.set(loadIds(referencedClass));
+            }
+            Long id = Long.valueOf(value);
+            if (!existingIds.get().contains(id)) {
+                throw new IllegalArgumentException(referencedClass.getSimpleName() + " " + id + " does not exist");
+            }
+            R reference = factory.get();
+            idSetter.accept(reference, id);
+            setter.accept(entity, reference);
+        };
+    }
+
+    private Set<Long> loadIds(Class<?> entityClass) {
+        return readOnlyTransactionTemplate.execute(
+            status ->
+                new HashSet<>(
+                    entityManager.createQuery("select e.id from " + entityClass.getSimpleName() + " e", Long.class).getResultList()
+                )
+        );
+    }
+
+    @FunctionalInterface
+    private interface ColumnParser<T> {
+        void parse(T entity, String value);
+    }
+
+    /**
+     * Reader of semicolon separated records, where values may be quoted to hold separators, quotes or line breaks.
+     */
+    static class CsvReader {
+        private final Reader reader;
+
+        private long line = 1;
+
+        private long recordLine;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * @return the values of the next non blank record, or {@code null} at the end of the file.
+         * @throws IOException if the file could not be read.
+         */
+        List<String> readRecord() throws IOException {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            recordLine = line;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            value.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        value.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == CSV_SEPARATOR) {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    if (values.isEmpty() && value.length() == 0) {
+                        recordLine = line;
+                        continue;
+                    }
+                    values.add(value.toString());
+                    return values;
+                } else if (c != '\r') {
+                    value.append((char) c);
+                }
+            }
+            if (values.isEmpty() && value.length() == 0) {
+                return null;
+            }
+            values.add(value.toString());
+            return values;
+        }
+
+        /**
+         * @return the line number at which the last record read starts.
+         */
+        long getRecordLine() {
+            return recordLine;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.superleague.microservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service writing entities to an output stream as they are read from the database.
+ * <p>
+ * Rows are taken from a JPA {@link Stream} backed by a database cursor, and the persistence context is cleared every
+ * {@link #CLEAR_INTERVAL} rows, so the memory used does not depend on the size of the table.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class EntityExportService {
+    /**
+     * Number of rows written between two clears of the persistence context, matching the fetch size of the export
+     * queries.
+     */
+    static final int CLEAR_INTERVAL = 500;
+
+    private static final char CSV_SEPARATOR = ';';
+
+    private final Logger log = LoggerFactory.getLogger(EntityExportService.class);
+
+    private final EntityManager entityManager;
+
+    /**
+     * Writes one document per line: the generator separates the root values with its root value separator, which
+     * must be the line feed rather than the default space.
+     */
+    private final ObjectWriter jsonWriter;
+
+    private final Map<Class<?>, List<CsvColumn>> csvColumns = new ConcurrentHashMap<>();
+
+    public EntityExportService(EntityManager entityManager, ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).withRootValueSeparator("\n");
+    }
+
+    /**
+     * Supported export formats.
+     */
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        ExportFormat(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * @param extension the file extension of the format, e.g. {@code csv}.
+         * @return the format, if it is supported.
+         */
+        public static Optional<ExportFormat> fromExtension(String extension) {
+            return Arrays.stream(values()).filter(format -> format.getExtension().equalsIgnoreCase(extension)).findFirst();
+        }
+    }
+
+    /**
+     * Write all the rows of a stream, one per line.
+     * <p>
+     * CSV files are semicolon separated, like the Liquibase fake data: they start with a header of the column names,
+     * and associations are written as the id of the associated entity, in a {@code <association>_id} column.
+     *
+     * @param entityClass the class of the entities.
+     * @param rows the rows to write, read in the current transaction.
+     * @param format the format of the export.
+     * @param outputStream the stream to write to, which is not closed.
+     * @param <T> the type of the entities.
+     * @return the number of rows written.
+     * @throws IOException if the output stream could not be written.
+     */
+    public <T> long export(Class<T> entityClass, Stream<T> rows, ExportFormat format, OutputStream outputStream) throws IOException {
+        log.debug("Request to export {} as {}", entityClass.getSimpleName(), format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        JsonGenerator generator = jsonWriter.getFactory().createGenerator(writer).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        List<CsvColumn> columns = format == ExportFormat.CSV ? getCsvColumns(entityClass) : Collections.emptyList();
+        if (format == ExportFormat.CSV) {
+            writer.write(columns.stream().map(column -> column.header).collect(Collectors.joining(String.valueOf(CSV_SEPARATOR))));
+            writer.write('\n');
+        }
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            if (format == ExportFormat.CSV) {
+                writeCsvRow(writer, columns, row);
+            } else {
+                jsonWriter.writeValue(generator, row);
+            }
+            if (++count % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+        generator.flush();
+        if (format == ExportFormat.NDJSON && count > 0) {
+            // Terminate the last line too
+            writer.write('\n');
+        }
+        writer.flush();
+        log.debug("Exported {} {} as {}", count, entityClass.getSimpleName(), format);
+        return count;
+    }
+
+    private void writeCsvRow(Writer writer, List<CsvColumn> columns, Object row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(CSV_SEPARATOR);
+            }
+            Object value = columns.get(i).extractor.apply(row);
+            if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(CSV_SEPARATOR) < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private List<CsvColumn> getCsvColumns(Class<?> entityClass) {
+        return csvColumns.computeIfAbsent(entityClass, this::createCsvColumns);
+    }
+
+    private List<CsvColumn> createCsvColumns(Class<?> entityClass) {
+        EntityType<?> entityType = entityManager.getMetamodel().entity(entityClass);
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<CsvColumn> columns = new ArrayList<>();
+        // Declaration order, as the metamodel does not keep it
+        for (Field field : entityClass.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            Attribute<?, ?> attribute = entityType
+                .getSingularAttributes()
+                .stream()
+                .filter(singularAttribute -> singularAttribute.getName().equals(field.getName()))
+                .findFirst()
+                .orElse(null);
+            if (attribute == null) {
+                continue;
+            }
+            field.setAccessible(true);
+            String header = toSnakeCase(field.getName());
+            if (attribute.isAssociation()) {
+                columns.add(
+                    new CsvColumn(
+                        header + "_id",
+                        row -> {
+                            Object associated = readField(field, row);
+                            return associated == null ? null : persistenceUnitUtil.getIdentifier(associated);
+                        }
+                    )
+                );
+            } else {
+                columns.add(new CsvColumn(header, row -> readField(field, row)));
+            }
+        }
+        return columns;
+    }
+
+    private static Object readField(Field field, Object row) {
+        try {
+            return field.get(row);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not read " + field, e);
+        }
+    }
+
+    private static String toSnakeCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+
+    private static class CsvColumn {
+        private final String header;
+
+        private final Function<Object, Object> extractor;
+
+        CsvColumn(String header, Function<Object, Object> extractor) {
+            this.header = header;
+            this.extractor = extractor;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.superleague.microservice.service;
+
+/**
+ * Thrown when the header of an imported CSV file is missing or has an unknown column.
+ */
+public class InvalidCsvHeaderException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCsvHeaderException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.superleague.microservice.service;
+
+/**
+ * Thrown when the parameters of a search cannot be run, e.g. an unknown field or a page beyond the result window.
+ */
+public class InvalidSearchQueryException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String errorKey;
+
+    public InvalidSearchQueryException(String message, String errorKey) {
+        super(message);
+        this.errorKey = errorKey;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+}
@@ -0,0 +1,44 @@
+package com.superleague.microservice.service;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service allocating the external versions of the Elasticsearch documents.
+ * <p>
+ * A version is taken, in its own transaction, before reading the entities it is used for: a document written with a
+ * higher version was read later, so Elasticsearch can reject the writes of older reads, and the deletes leave a
+ * versioned tombstone which a late write of the deleted entity cannot overwrite.
+ */
+@Service
+public class SearchDocumentVersionService {
+    private static final String SEQUENCE_NAME = "search_document_version";
+
+    private final EntityManager entityManager;
+
+    public SearchDocumentVersionService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @return a version higher than all the versions returned before, by any instance.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long nextVersion() {
+        Query increment = entityManager
+            .createNativeQuery("update jhi_id_sequence set next_val = next_val + 1 where sequence_name = :sequenceName")
+            .setParameter("sequenceName", SEQUENCE_NAME);
+        // Only jhi_id_sequence is written to: do not invalidate the whole second-level cache
+        increment.unwrap(NativeQuery.class).addSynchronizedQuerySpace("jhi_id_sequence");
+        increment.executeUpdate();
+        Number version = (Number) entityManager
+            .createNativeQuery("select next_val from jhi_id_sequence where sequence_name = :sequenceName")
+            .setParameter("sequenceName", SEQUENCE_NAME)
+            .getSingleResult();
+        return version.longValue();
+    }
+}
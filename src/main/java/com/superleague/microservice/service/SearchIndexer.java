@@ -0,0 +1,450 @@
+package com.superleague.microservice.service;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.domain.SearchOutboxDeadLetter;
+import com.superleague.microservice.domain.SearchOutboxEvent;
+import com.superleague.microservice.domain.enumeration.SearchIndexOperation;
+import com.superleague.microservice.repository.LeaseRepository;
+import com.superleague.microservice.repository.SearchOutboxDeadLetterRepository;
+import com.superleague.microservice.repository.SearchOutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.searchbox.action.BulkableAction;
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Bulk;
+import io.searchbox.core.BulkResult;
+import io.searchbox.core.Delete;
+import io.searchbox.core.Index;
+import io.searchbox.params.Parameters;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Background indexer draining the {@link SearchOutboxEvent} table into Elasticsearch.
+ * <p>
+ * Each poll reads the oldest events, keeps only the last operation per entity, and sends the whole batch as a single
+ * {@code _bulk} request, or two while an index is rebuilt. The searched indices are refreshed before the request
+ * returns, so that the {@link SearchResultCache} entries it invalidates are not filled again with the previous hits.
+ * Events are only deleted once Elasticsearch has acknowledged the request, so a failed poll is simply replayed by the
+ * next one. The events of the documents Elasticsearch rejects are kept and retried by the next polls, then moved to
+ * the {@link SearchOutboxDeadLetter} table after {@code max-attempts} rejections, along with the events of unknown
+ * types.
+ * <p>
+ * Documents are written with the external versions of the {@link SearchDocumentVersionService}, taken before the
+ * entities are read, so that a late write never overwrites a more recent one, such as a write of the reindex.
+ * <p>
+ * Only the instance holding the {@code search-indexer} {@link com.superleague.microservice.domain.Lease} drains the
+ * outbox, so that the instances neither send the same batches nor reorder the changes to a document.
+ */
+@Service
+public class SearchIndexer {
+    static final String LEASE_NAME = "search-indexer";
+
+    private static final int VERSION_CONFLICT = 409;
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+
+    private final SearchOutboxEventRepository searchOutboxEventRepository;
+
+    private final SearchOutboxDeadLetterRepository searchOutboxDeadLetterRepository;
+
+    private final LeaseRepository leaseRepository;
+
+    private final EntityManager entityManager;
+
+    private final JestClient jestClient;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final EntityMapper entityMapper;
+
+    private final SearchReindexService searchReindexService;
+
+    private final SearchDocumentVersionService searchDocumentVersionService;
+
+    private final SearchResultCache searchResultCache;
+
+    private final ApplicationProperties.SearchIndexer properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Identifies this instance as the owner of the lease.
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final AtomicLong oldestPendingEvent = new AtomicLong();
+
+    private final Counter indexedCounter;
+
+    private final Counter deletedCounter;
+
+    private final Counter coalescedCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter deadLetterCounter;
+
+    private final Timer bulkTimer;
+
+    public SearchIndexer(
+        SearchOutboxEventRepository searchOutboxEventRepository,
+        SearchOutboxDeadLetterRepository searchOutboxDeadLetterRepository,
+        LeaseRepository leaseRepository,
+        EntityManager entityManager,
+        JestClient jestClient,
+        ElasticsearchOperations elasticsearchOperations,
+        EntityMapper entityMapper,
+        SearchReindexService searchReindexService,
+        SearchDocumentVersionService searchDocumentVersionService,
+        SearchResultCache searchResultCache,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.searchOutboxEventRepository = searchOutboxEventRepository;
+        this.searchOutboxDeadLetterRepository = searchOutboxDeadLetterRepository;
+        this.leaseRepository = leaseRepository;
+        this.entityManager = entityManager;
+        this.jestClient = jestClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.entityMapper = entityMapper;
+        this.searchReindexService = searchReindexService;
+        this.searchDocumentVersionService = searchDocumentVersionService;
+        this.searchResultCache = searchResultCache;
+        this.properties = applicationProperties.getSearchIndexer();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.indexedCounter = meterRegistry.counter("search.indexer.operations", "operation", "index");
+        this.deletedCounter = meterRegistry.counter("search.indexer.operations", "operation", "delete");
+        this.coalescedCounter = meterRegistry.counter("search.indexer.coalesced");
+        this.failedCounter = meterRegistry.counter("search.indexer.failures");
+        this.deadLetterCounter = meterRegistry.counter("search.indexer.dead.letters");
+        this.bulkTimer = meterRegistry.timer("search.indexer.bulk");
+        Gauge
+            .builder("search.indexer.lag", this, SearchIndexer::getLagSeconds)
+            .description("Age of the oldest event waiting to be indexed")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Drain the outbox, one batch after the other, until it is empty or Elasticsearch fails.
+     */
+    @Scheduled(fixedDelayString = "${application.search-indexer.poll-interval:1000}")
+    public void drainOutbox() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int drained;
+        do {
+            if (!acquireLease()) {
+                oldestPendingEvent.set(0);
+                return;
+            }
+            drained = drainBatch();
+        } while (drained >= properties.getBatchSize());
+    }
+
+    /**
+     * @return the age, in seconds, of the oldest event read by the last poll, or {@code 0} if the outbox was empty.
+     */
+    public double getLagSeconds() {
+        long oldest = oldestPendingEvent.get();
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    /**
+     * Take or renew the lease before each batch, so that it never expires while a batch is sent.
+     */
+    private boolean acquireLease() {
+        Instant now = Instant.now();
+        Integer acquired = transactionTemplate.execute(
+            status -> leaseRepository.acquire(LEASE_NAME, instanceId, now.plus(properties.getLeaseDuration()), now)
+        );
+        return acquired != null && acquired > 0;
+    }
+
+    /**
+     * @return the number of events drained, or {@code 0} if some are left to retry on the next poll.
+     */
+    private int drainBatch() {
+        // Taken before reading, so that the documents read later get a higher version
+        long version = searchDocumentVersionService.nextVersion();
+        PendingBatch batch = transactionTemplate.execute(status -> readBatch(version));
+        if (batch == null || batch.events.isEmpty()) {
+            oldestPendingEvent.set(0);
+            return 0;
+        }
+        oldestPendingEvent.set(batch.events.get(0).getCreatedDate().toEpochMilli());
+        if (!bulk(batch)) {
+            // Keep the events, they will be replayed by the next poll
+            return 0;
+        }
+        batch.entityClasses.forEach(searchResultCache::invalidate);
+        transactionTemplate.execute(
+            status -> {
+                complete(batch);
+                return null;
+            }
+        );
+        oldestPendingEvent.set(0);
+        return batch.errors.isEmpty() ? batch.events.size() : 0;
+    }
+
+    private PendingBatch readBatch(long version) {
+        List<SearchOutboxEvent> events = searchOutboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, properties.getBatchSize()));
+        PendingBatch batch = new PendingBatch(events, version);
+        if (events.isEmpty()) {
+            return batch;
+        }
+
+        // Only the last operation on a given entity matters
+        Map<String, Map<Long, SearchIndexOperation>> operationsByType = new LinkedHashMap<>();
+        for (SearchOutboxEvent event : events) {
+            operationsByType.computeIfAbsent(event.getEntityType(), type -> new LinkedHashMap<>()).put(event.getEntityId(), event.getOperation());
+        }
+        int coalesced = events.size() - operationsByType.values().stream().mapToInt(Map::size).sum();
+        coalescedCounter.increment(coalesced);
+
+        operationsByType.forEach(
+            (type, operations) -> {
+                Class<?> entityClass = searchReindexService.getIndexedTypes().get(type);
+                if (entityClass == null) {
+                    log.warn("Setting aside {} outbox events for unknown indexed type {}", operations.size(), type);
+                    operations.keySet().forEach(id -> batch.deadLetters.put(entityKey(type, id), "Unknown indexed type " + type));
+                    return;
+                }
+                addBulkActions(batch, entityClass, operations);
+                batch.entityClasses.add(entityClass);
+            }
+        );
+        return batch;
+    }
+
+    private void addBulkActions(PendingBatch batch, Class<?> entityClass, Map<Long, SearchIndexOperation> operations) {
+        List<Long> idsToIndex = operations
+            .entrySet()
+            .stream()
+            .filter(operation -> operation.getValue() == SearchIndexOperation.INDEX)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+        Map<Long, Object> entities = new HashMap<>();
+        if (!idsToIndex.isEmpty()) {
+            entityManager
+                .createQuery("select e from " + entityClass.getSimpleName() + " e where e.id in :ids", entityClass)
+                .setParameter("ids", idsToIndex)
+                .getResultList()
+                .forEach(entity -> entities.put(getId(entity), entity));
+        }
+        Map<String, BulkActions> indices = new LinkedHashMap<>();
+        indices.put(elasticsearchOperations.getPersistentEntityFor(entityClass).getIndexName(), batch.liveActions);
+        // The index being rebuilt must not miss the changes made while it is filled: a reindex started after this
+        // read reads the entities again
+        searchReindexService.getIndexInProgress(entityClass).ifPresent(indexName -> indices.put(indexName, batch.rebuildActions));
+        operations.forEach(
+            (id, operation) -> {
+                String key = entityKey(entityClass.getSimpleName(), id);
+                Object entity = entities.get(id);
+                indices.forEach(
+                    (indexName, actions) -> {
+                        // An entity deleted since it was scheduled for indexing must be removed from the index too
+                        if (entity == null) {
+                            actions.add(key, deleteAction(entityClass, id, indexName, batch.version));
+                            return;
+                        }
+                        try {
+                            actions.add(key, indexAction(entity, indexName, batch.version));
+                        } catch (IllegalStateException e) {
+                            batch.errors.put(key, e.getMessage());
+                        }
+                    }
+                );
+            }
+        );
+    }
+
+    /**
+     * Send the actions of a batch. The writes to the live indices wait for their refresh, so that the searches run
+     * once the result cache is invalidated see them. The index being rebuilt is not refreshed until it is complete:
+     * waiting for its refresh would block the batch.
+     */
+    private boolean bulk(PendingBatch batch) {
+        return bulk(batch, batch.liveActions, true) && bulk(batch, batch.rebuildActions, false);
+    }
+
+    private boolean bulk(PendingBatch batch, BulkActions bulkActions, boolean waitForRefresh) {
+        List<BulkableAction<?>> actions = bulkActions.actions;
+        if (actions.isEmpty()) {
+            return true;
+        }
+        Bulk.Builder builder = new Bulk.Builder().addAction(actions);
+        if (waitForRefresh) {
+            builder.setParameter(Parameters.REFRESH, "wait_for");
+        }
+        Bulk bulk = builder.build();
+        try {
+            BulkResult result = bulkTimer.recordCallable(() -> jestClient.execute(bulk));
+            if (!result.isSucceeded() && result.getItems().isEmpty()) {
+                log.warn("Elasticsearch bulk request failed, will retry: {}", result.getErrorMessage());
+                failedCounter.increment(actions.size());
+                return false;
+            }
+            // The items of the response are in the order of the actions
+            List<BulkResult.BulkResultItem> items = result.getItems();
+            int failed = 0;
+            for (int i = 0; i < items.size(); i++) {
+                BulkResult.BulkResultItem item = items.get(i);
+                // A conflict means that the document has a more recent version already
+                if (item.error != null && item.status != VERSION_CONFLICT) {
+                    log.warn("Could not {} {} {} in Elasticsearch: {}", item.operation, item.type, item.id, item.error);
+                    batch.errors.put(bulkActions.keys.get(i), item.error);
+                    failed++;
+                }
+            }
+            failedCounter.increment(failed);
+            long deletes = actions.stream().filter(Delete.class::isInstance).count();
+            deletedCounter.increment(deletes);
+            indexedCounter.increment(actions.size() - deletes);
+            return true;
+        } catch (Exception e) {
+            log.warn("Elasticsearch bulk request failed, will retry: {}", e.getMessage());
+            failedCounter.increment(actions.size());
+            return false;
+        }
+    }
+
+    /**
+     * Delete the events sent, keep those of the rejected documents for the next polls, and set aside those which
+     * cannot be indexed.
+     */
+    private void complete(PendingBatch batch) {
+        List<Long> sent = new ArrayList<>();
+        List<Long> retried = new ArrayList<>();
+        List<SearchOutboxDeadLetter> deadLetters = new ArrayList<>();
+        for (SearchOutboxEvent event : batch.events) {
+            String key = entityKey(event.getEntityType(), event.getEntityId());
+            String error = batch.errors.get(key);
+            if (batch.deadLetters.containsKey(key)) {
+                deadLetters.add(new SearchOutboxDeadLetter(event, batch.deadLetters.get(key)));
+            } else if (error == null) {
+                sent.add(event.getId());
+            } else if (event.getAttempts() + 1 >= properties.getMaxAttempts()) {
+                event.setAttempts(event.getAttempts() + 1);
+                deadLetters.add(new SearchOutboxDeadLetter(event, error));
+            } else {
+                retried.add(event.getId());
+            }
+        }
+        if (!deadLetters.isEmpty()) {
+            log.error("Moving {} outbox events to the dead letters", deadLetters.size());
+            searchOutboxDeadLetterRepository.saveAll(deadLetters);
+            sent.addAll(deadLetters.stream().map(SearchOutboxDeadLetter::getId).collect(Collectors.toList()));
+            deadLetterCounter.increment(deadLetters.size());
+        }
+        if (!sent.isEmpty()) {
+            searchOutboxEventRepository.deleteByIdIn(sent);
+        }
+        if (!retried.isEmpty()) {
+            searchOutboxEventRepository.incrementAttemptsByIdIn(retried);
+        }
+    }
+
+    private Index indexAction(Object entity, String indexName, long version) {
+        ElasticsearchPersistentEntity<?> persistentEntity = elasticsearchOperations.getPersistentEntityFor(entity.getClass());
+        try {
+            return new Index.Builder(entityMapper.mapToString(entity))
+                .index(indexName)
+                .type(persistentEntity.getIndexType())
+                .id(String.valueOf(getId(entity)))
+                .setParameter(Parameters.VERSION, version)
+                .setParameter(Parameters.VERSION_TYPE, "external")
+                .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize " + entity, e);
+        }
+    }
+
+    private Delete deleteAction(Class<?> entityClass, Long id, String indexName, long version) {
+        ElasticsearchPersistentEntity<?> persistentEntity = elasticsearchOperations.getPersistentEntityFor(entityClass);
+        return new Delete.Builder(String.valueOf(id))
+            .index(indexName)
+            .type(persistentEntity.getIndexType())
+            .setParameter(Parameters.VERSION, version)
+            .setParameter(Parameters.VERSION_TYPE, "external")
+            .build();
+    }
+
+    private Long getId(Object entity) {
+        return (Long) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+    }
+
+    private static String entityKey(String entityType, Long id) {
+        return entityType + "#" + id;
+    }
+
+    private static class PendingBatch {
+        private final List<SearchOutboxEvent> events;
+
+        /**
+         * The external version of the documents written.
+         */
+        private final long version;
+
+        /**
+         * The actions on the indices searched.
+         */
+        private final BulkActions liveActions = new BulkActions();
+
+        /**
+         * The actions on the indices being rebuilt by the {@link SearchReindexService}.
+         */
+        private final BulkActions rebuildActions = new BulkActions();
+
+        private final Set<Class<?>> entityClasses = new HashSet<>();
+
+        /**
+         * The entities whose document was rejected, with the error, to retry.
+         */
+        private final Map<String, String> errors = new HashMap<>();
+
+        /**
+         * The entities which cannot be indexed, with the reason.
+         */
+        private final Map<String, String> deadLetters = new HashMap<>();
+
+        PendingBatch(List<SearchOutboxEvent> events, long version) {
+            this.events = events;
+            this.version = version;
+        }
+    }
+
+    private static class BulkActions {
+        private final List<BulkableAction<?>> actions = new ArrayList<>();
+
+        /**
+         * The entity of each action, as {@code type#id}.
+         */
+        private final List<String> keys = new ArrayList<>();
+
+        void add(String key, BulkableAction<?> action) {
+            actions.add(action);
+            keys.add(key);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.superleague.microservice.service;
+
+import com.superleague.microservice.domain.SearchOutboxEvent;
+import com.superleague.microservice.domain.enumeration.SearchIndexOperation;
+import com.superleague.microservice.repository.SearchOutboxEventRepository;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service recording the Elasticsearch changes to replay, in the transaction of the entity change itself.
+ * <p>
+ * Nothing is sent to Elasticsearch here: the {@link SearchIndexer} drains the outbox in the background, so the index
+ * only ever sees committed data and the write path only touches the database.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class SearchOutboxService {
+    private final Logger log = LoggerFactory.getLogger(SearchOutboxService.class);
+
+    private final SearchOutboxEventRepository searchOutboxEventRepository;
+
+    public SearchOutboxService(SearchOutboxEventRepository searchOutboxEventRepository) {
+        this.searchOutboxEventRepository = searchOutboxEventRepository;
+    }
+
+    /**
+     * Schedule the (re-)indexing of an entity.
+     *
+     * @param entityType the class of the entity.
+     * @param id the id of the entity.
+     */
+    public void scheduleIndex(Class<?> entityType, Long id) {
+        schedule(entityType, id, SearchIndexOperation.INDEX);
+    }
+
+    /**
+     * Schedule the removal of an entity from the index.
+     *
+     * @param entityType the class of the entity.
+     * @param id the id of the entity.
+     */
+    public void scheduleDelete(Class<?> entityType, Long id) {
+        schedule(entityType, id, SearchIndexOperation.DELETE);
+    }
+
+    private void schedule(Class<?> entityType, Long id, SearchIndexOperation operation) {
+        log.debug("Scheduling {} of {} {} in Elasticsearch", operation, entityType.getSimpleName(), id);
+        SearchOutboxEvent event = new SearchOutboxEvent();
+        event.setEntityType(entityType.getSimpleName());
+        event.setEntityId(id);
+        event.setOperation(operation);
+        event.setCreatedDate(Instant.now());
+        searchOutboxEventRepository.save(event);
+    }
+}
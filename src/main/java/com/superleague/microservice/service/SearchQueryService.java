@@ -0,0 +1,264 @@
+package com.superleague.microservice.service;
+
+import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.service.dto.SearchAfterPageDTO;
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Search;
+import io.searchbox.core.SearchResult;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.Temporal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service building the Elasticsearch queries of the {@code /_search} endpoints.
+ * <p>
+ * Hits are always read one page at a time: {@code ?page=} pages are limited to the first
+ * {@code application.search.max-result-window} hits, as Elasticsearch has to collect every hit before the requested
+ * page on each shard. Deeper pages are read with an opaque {@code search_after} cursor, which only collects one page
+ * whatever its depth. Both can be restricted to some fields of the documents, to only fetch part of their
+ * {@code _source}.
+ * <p>
+ * The indices have no explicit mapping: string and enum fields are sorted on the {@code <field>.keyword} sub-field
+ * that the Elasticsearch dynamic mapping adds to them.
+ */
+@Service
+public class SearchQueryService {
+    private static final String ID_FIELD = "id";
+
+    private static final String SCORE_FIELD = "_score";
+
+    private final Logger log = LoggerFactory.getLogger(SearchQueryService.class);
+
+    private final JestClient jestClient;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final EntityMapper entityMapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.Search properties;
+
+    private final SearchResultCache searchResultCache;
+
+    private final Map<Class<?>, Map<String, Field>> searchableFields = new ConcurrentHashMap<>();
+
+    public SearchQueryService(
+        JestClient jestClient,
+        ElasticsearchOperations elasticsearchOperations,
+        EntityMapper entityMapper,
+        ObjectMapper objectMapper,
+        SearchResultCache searchResultCache,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jestClient = jestClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.entityMapper = entityMapper;
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getSearch();
+        this.searchResultCache = searchResultCache;
+    }
+
+    /**
+     * Search for one page of hits with the search repository of the entity, going through the
+     * {@link SearchResultCache}.
+     *
+     * @param entityClass the class of the searched entity.
+     * @param searchRepository the search repository of the entity.
+     * @param query the query string.
+     * @param pageable the requested page, whose size is capped to {@code application.search.max-page-size}.
+     * @param fields the fields of the documents to fetch, all of them if {@code null} or empty.
+     * @param <T> the type of the entity.
+     * @return the page of hits.
+     * @throws InvalidSearchQueryException if the page is beyond the result window, or a field is unknown.
+     */
+    public <T> Page<T> search(Class<T> entityClass, ElasticsearchRepository<T, ?> searchRepository, String query, Pageable pageable, List<String> fields) {
+        SearchQuery searchQuery = buildPageQuery(entityClass, query, pageable, fields);
+        List<Object> parameters = Arrays.asList(searchQuery.getPageable(), pageable.getSort().toString(), normalizeFields(fields));
+        return searchResultCache.get(entityClass, query, parameters, () -> searchRepository.search(searchQuery));
+    }
+
+    /**
+     * Build the query of one page of hits, to run with the search repository of the entity.
+     *
+     * @param entityClass the class of the searched entity.
+     * @param query the query string.
+     * @param pageable the requested page, whose size is capped to {@code application.search.max-page-size}.
+     * @param fields the fields of the documents to fetch, all of them if {@code null} or empty.
+     * @return the search query.
+     * @throws InvalidSearchQueryException if the page is beyond the result window, or a field is unknown.
+     */
+    public SearchQuery buildPageQuery(Class<?> entityClass, String query, Pageable pageable, List<String> fields) {
+        int size = Math.max(1, Math.min(pageable.getPageSize(), properties.getMaxPageSize()));
+        if ((long) pageable.getPageNumber() * size + size > properties.getMaxResultWindow()) {
+            throw new InvalidSearchQueryException(
+                "Pages are limited to the first " + properties.getMaxResultWindow() + " hits, use the after cursor to read further",
+                "searchwindowtoolarge"
+            );
+        }
+        NativeSearchQueryBuilder searchQuery = new NativeSearchQueryBuilder()
+            .withQuery(queryStringQuery(query))
+            .withPageable(PageRequest.of(pageable.getPageNumber(), size));
+        toSortBuilders(entityClass, pageable.getSort()).forEach(searchQuery::withSort);
+        if (fields != null && !fields.isEmpty()) {
+            searchQuery.withSourceFilter(new FetchSourceFilter(toIncludes(entityClass, fields), null));
+        }
+        return searchQuery.build();
+    }
+
+    /**
+     * Read the page of hits following a cursor, going through the {@link SearchResultCache}.
+     * <p>
+     * Hits are sorted by the given sort, by score if there is none, then by id so that the cursor designates a single
+     * hit.
+     *
+     * @param entityClass the class of the searched entity.
+     * @param query the query string.
+     * @param cursor the cursor returned with the previous page, empty to read the first page.
+     * @param size the size of the page, capped to {@code application.search.max-page-size}.
+     * @param sort the sort of the hits, which must not change from one page to the other.
+     * @param fields the fields of the documents to fetch, all of them if {@code null} or empty.
+     * @param <T> the type of the entity.
+     * @return the page of hits.
+     * @throws InvalidSearchQueryException if the cursor is invalid, or a field is unknown.
+     */
+    public <T> SearchAfterPageDTO<T> searchAfter(Class<T> entityClass, String query, String cursor, int size, Sort sort, List<String> fields) {
+        List<Object> parameters = Arrays.asList(cursor, size, sort.toString(), normalizeFields(fields));
+        return searchResultCache.get(entityClass, query, parameters, () -> doSearchAfter(entityClass, query, cursor, size, sort, fields));
+    }
+
+    private <T> SearchAfterPageDTO<T> doSearchAfter(Class<T> entityClass, String query, String cursor, int size, Sort sort, List<String> fields) {
+        int boundedSize = Math.max(1, Math.min(size, properties.getMaxPageSize()));
+        SearchSourceBuilder source = new SearchSourceBuilder().query(queryStringQuery(query)).size(boundedSize);
+        List<SortBuilder<?>> sortBuilders = toSortBuilders(entityClass, sort);
+        if (sortBuilders.isEmpty()) {
+            sortBuilders.add(SortBuilders.scoreSort());
+        }
+        sortBuilders.add(SortBuilders.fieldSort(ID_FIELD).order(SortOrder.ASC));
+        sortBuilders.forEach(source::sort);
+        if (!cursor.isEmpty()) {
+            source.searchAfter(decodeCursor(cursor));
+        }
+        if (fields != null && !fields.isEmpty()) {
+            source.fetchSource(toIncludes(entityClass, fields), null);
+        }
+        ElasticsearchPersistentEntity<?> persistentEntity = elasticsearchOperations.getPersistentEntityFor(entityClass);
+        Search search = new Search.Builder(source.toString())
+            .addIndex(persistentEntity.getIndexName())
+            .addType(persistentEntity.getIndexType())
+            .build();
+        try {
+            SearchResult result = jestClient.execute(search);
+            if (!result.isSucceeded()) {
+                throw new IllegalStateException("Elasticsearch search failed: " + result.getErrorMessage());
+            }
+            JsonArray hits = result.getJsonObject().getAsJsonObject("hits").getAsJsonArray("hits");
+            List<T> content = new ArrayList<>(hits.size());
+            JsonElement lastSortValues = null;
+            for (JsonElement hit : hits) {
+                JsonObject hitObject = hit.getAsJsonObject();
+                content.add(entityMapper.mapToObject(hitObject.get("_source").toString(), entityClass));
+                lastSortValues = hitObject.get("sort");
+            }
+            String nextCursor = hits.size() == boundedSize && lastSortValues != null ? encodeCursor(lastSortValues) : null;
+            return new SearchAfterPageDTO<>(content, result.getTotal(), boundedSize, nextCursor);
+        } catch (IOException e) {
+            throw new IllegalStateException("Elasticsearch search failed", e);
+        }
+    }
+
+    private List<SortBuilder<?>> toSortBuilders(Class<?> entityClass, Sort sort) {
+        List<SortBuilder<?>> sortBuilders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            SortOrder sortOrder = order.isAscending() ? SortOrder.ASC : SortOrder.DESC;
+            if (SCORE_FIELD.equals(order.getProperty())) {
+                sortBuilders.add(SortBuilders.scoreSort().order(sortOrder));
+                continue;
+            }
+            Field field = getSearchableField(entityClass, order.getProperty());
+            Class<?> type = field.getType();
+            if (String.class.equals(type) || type.isEnum()) {
+                // Text is analyzed: sort on the keyword sub-field the default dynamic mapping adds to each string
+                // field, which must be kept by any explicit mapping. Until a document has the field, it is unmapped.
+                sortBuilders.add(SortBuilders.fieldSort(field.getName() + ".keyword").unmappedType("keyword").order(sortOrder));
+            } else if (Number.class.isAssignableFrom(type) || Temporal.class.isAssignableFrom(type) || Boolean.class.equals(type)) {
+                sortBuilders.add(SortBuilders.fieldSort(field.getName()).order(sortOrder));
+            } else {
+                throw new InvalidSearchQueryException("Search hits cannot be sorted by " + field.getName(), "searchsortinvalid");
+            }
+        }
+        return sortBuilders;
+    }
+
+    private String[] toIncludes(Class<?> entityClass, List<String> fields) {
+        Set<String> includes = new LinkedHashSet<>();
+        includes.add(ID_FIELD);
+        for (String field : fields) {
+            includes.add(getSearchableField(entityClass, field).getName());
+        }
+        return includes.toArray(new String[0]);
+    }
+
+    private Field getSearchableField(Class<?> entityClass, String name) {
+        Field field = searchableFields.computeIfAbsent(entityClass, SearchQueryService::findSearchableFields).get(name);
+        if (field == null) {
+            throw new InvalidSearchQueryException("Unknown field: " + name, "searchfieldinvalid");
+        }
+        return field;
+    }
+
+    private static Map<String, Field> findSearchableFields(Class<?> entityClass) {
+        Map<String, Field> fields = new HashMap<>();
+        for (Field field : entityClass.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !Collection.class.isAssignableFrom(field.getType())) {
+                fields.put(field.getName(), field);
+            }
+        }
+        return fields;
+    }
+
+    private static Set<String> normalizeFields(List<String> fields) {
+        return fields == null ? Collections.emptySet() : new TreeSet<>(fields);
+    }
+
+    private String encodeCursor(JsonElement sortValues) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sortValues.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object[] decodeCursor(String cursor) {
+        try {
+            return objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), Object[].class);
+        } catch (IllegalArgumentException | IOException e) {
+            log.debug("Invalid search cursor {}: {}", cursor, e.getMessage());
+            throw new InvalidSearchQueryException("Invalid cursor", "searchcursorinvalid");
+        }
+    }
+}
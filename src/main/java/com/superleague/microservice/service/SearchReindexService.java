@@ -0,0 +1,517 @@
+package com.superleague.microservice.service;
+
+import com.google.gson.JsonObject;
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.domain.SearchReindexJob;
+import com.superleague.microservice.domain.enumeration.ReindexState;
+import com.superleague.microservice.repository.SearchReindexJobRepository;
+import com.superleague.microservice.service.dto.ReindexStatusDTO;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.core.Bulk;
+import io.searchbox.core.BulkResult;
+import io.searchbox.core.Index;
+import io.searchbox.indices.CreateIndex;
+import io.searchbox.indices.DeleteIndex;
+import io.searchbox.indices.IndicesExists;
+import io.searchbox.indices.Refresh;
+import io.searchbox.indices.aliases.AddAliasMapping;
+import io.searchbox.indices.aliases.AliasMapping;
+import io.searchbox.indices.aliases.GetAliases;
+import io.searchbox.indices.aliases.ModifyAliases;
+import io.searchbox.indices.aliases.RemoveAliasMapping;
+import io.searchbox.indices.mapping.PutMapping;
+import io.searchbox.indices.settings.UpdateSettings;
+import io.searchbox.params.Parameters;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.TypedQuery;
+import javax.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Mapping;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Service rebuilding the Elasticsearch index of an entity without interrupting searches.
+ * <p>
+ * The index name of each {@link Document} is used as an alias: a reindex creates a new versioned index, fills it from
+ * the database, then atomically moves the alias to it and deletes the previous index. Rows are read in keyset pages
+ * and written by {@code application.search-reindex.workers} parallel {@code _bulk} requests.
+ * <p>
+ * Each reindex is a {@link SearchReindexJob} row, so that the {@link SearchIndexer} of every instance writes the
+ * changes to the new index too while it is filled. The reindex and the indexer write the documents with the external
+ * versions of the {@link SearchDocumentVersionService}: a document read before a more recent write or delete of the
+ * indexer is rejected by Elasticsearch, which keeps the tombstones of the deletes for
+ * {@code application.search-reindex.gc-deletes}.
+ * <p>
+ * The first reindex of an entity replaces the concrete index which has the name of the alias, in the same
+ * {@code _aliases} request which creates the alias.
+ */
+@Service
+public class SearchReindexService {
+    private static final int VERSION_CONFLICT = 409;
+
+    /**
+     * The default of {@code index.gc_deletes}, restored once the index is filled.
+     */
+    private static final String DEFAULT_GC_DELETES = "60s";
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexService.class);
+
+    private final EntityManager entityManager;
+
+    private final JestClient jestClient;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final EntityMapper entityMapper;
+
+    private final ApplicationProperties.SearchReindex properties;
+
+    private final SearchResultCache searchResultCache;
+
+    private final SearchReindexJobRepository searchReindexJobRepository;
+
+    private final SearchDocumentVersionService searchDocumentVersionService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ExecutorService jobExecutor = Executors.newCachedThreadPool(new CustomizableThreadFactory("search-reindex-"));
+
+    private volatile Map<String, Class<?>> indexedTypes;
+
+    public SearchReindexService(
+        EntityManager entityManager,
+        JestClient jestClient,
+        ElasticsearchOperations elasticsearchOperations,
+        EntityMapper entityMapper,
+        SearchResultCache searchResultCache,
+        SearchReindexJobRepository searchReindexJobRepository,
+        SearchDocumentVersionService searchDocumentVersionService,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.entityManager = entityManager;
+        this.jestClient = jestClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.entityMapper = entityMapper;
+        this.searchResultCache = searchResultCache;
+        this.searchReindexJobRepository = searchReindexJobRepository;
+        this.searchDocumentVersionService = searchDocumentVersionService;
+        this.properties = applicationProperties.getSearchReindex();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * @return the indexed entities, by simple class name.
+     */
+    public Map<String, Class<?>> getIndexedTypes() {
+        if (indexedTypes == null) {
+            indexedTypes =
+                entityManager
+                    .getMetamodel()
+                    .getEntities()
+                    .stream()
+                    .<Class<?>>map(EntityType::getJavaType)
+                    .filter(javaType -> javaType.isAnnotationPresent(Document.class))
+                    .collect(Collectors.toMap(Class::getSimpleName, javaType -> javaType));
+        }
+        return indexedTypes;
+    }
+
+    /**
+     * Must be called after reading the entities to write, in the same transaction: a reindex started later reads
+     * them again.
+     *
+     * @param entityClass the class of the entity.
+     * @return the index being filled by a running reindex of the entity, which must receive every change too.
+     */
+    public Optional<String> getIndexInProgress(Class<?> entityClass) {
+        return searchReindexJobRepository.findOneByRunningType(entityClass.getSimpleName()).map(SearchReindexJob::getIndexName);
+    }
+
+    /**
+     * Start to reindex an entity in the background.
+     *
+     * @param entityClass the class of the entity, which must be indexed.
+     * @return the status of the new reindex, or empty if a reindex of the entity is already running.
+     */
+    public Optional<ReindexStatusDTO> start(Class<?> entityClass) {
+        String type = entityClass.getSimpleName();
+        failAbandonedJob(type);
+        if (getIndexInProgress(entityClass).isPresent()) {
+            return Optional.empty();
+        }
+        String alias = getPersistentEntity(entityClass).getIndexName();
+        ReindexJob job = new ReindexJob(entityClass, alias, alias + "_" + System.currentTimeMillis());
+        // The index must exist before the indexers see the job and write to it
+        try {
+            createIndex(job);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create the " + job.index + " index", e);
+        }
+        SearchReindexJob jobEntity = new SearchReindexJob();
+        jobEntity.setEntityType(type);
+        jobEntity.setAlias(alias);
+        jobEntity.setIndexName(job.index);
+        jobEntity.setState(ReindexState.RUNNING);
+        jobEntity.setRunningType(type);
+        jobEntity.setStartedDate(job.startedDate);
+        jobEntity.setHeartbeatDate(job.startedDate);
+        try {
+            job.id = transactionTemplate.execute(status -> searchReindexJobRepository.saveAndFlush(jobEntity).getId());
+        } catch (DataIntegrityViolationException e) {
+            // Another instance started to reindex the entity at the same time
+            deleteIndexQuietly(job.index);
+            return Optional.empty();
+        }
+        log.info("Starting to reindex {} into {}", type, job.index);
+        jobExecutor.execute(() -> run(job));
+        return Optional.of(toStatus(jobEntity));
+    }
+
+    /**
+     * @return the status of the last reindex of each entity, started by any instance.
+     */
+    public List<ReindexStatusDTO> getStatuses() {
+        return readOnlyTransactionTemplate.execute(
+            status -> searchReindexJobRepository.findLastOfEachEntityType().stream().map(this::toStatus).collect(Collectors.toList())
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * Fail the running reindex of an entity if the instance running it stopped, so that a new one can start.
+     */
+    private void failAbandonedJob(String type) {
+        Instant abandonedBefore = Instant.now().minus(properties.getAbandonedAfter());
+        Optional<String> abandonedIndex = transactionTemplate.execute(
+            status ->
+                searchReindexJobRepository
+                    .findOneByRunningType(type)
+                    .filter(jobEntity -> jobEntity.getHeartbeatDate().isBefore(abandonedBefore))
+                    .map(
+                        jobEntity -> {
+                            log.warn("Failing the reindex of {} into {}, abandoned since {}", type, jobEntity.getIndexName(), jobEntity.getHeartbeatDate());
+                            finish(jobEntity, ReindexState.FAILED, "Abandoned");
+                            return jobEntity.getIndexName();
+                        }
+                    )
+        );
+        abandonedIndex.ifPresent(this::deleteIndexQuietly);
+    }
+
+    private void run(ReindexJob job) {
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(
+            properties.getWorkers(),
+            properties.getWorkers(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getWorkers()),
+            new CustomizableThreadFactory("search-reindex-" + job.alias + "-"),
+            // Reading pages faster than they can be written only fills the memory
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            Object after = null;
+            List<Index> page;
+            do {
+                Object cursor = after;
+                // Taken before reading, so that the indexer can overwrite the documents it reads later
+                long version = searchDocumentVersionService.nextVersion();
+                page = readOnlyTransactionTemplate.execute(status -> readPage(job, cursor, version));
+                for (Future<?> write : writes) {
+                    if (write.isDone()) {
+                        // Fail fast instead of reading the whole table
+                        write.get();
+                    }
+                }
+                if (!page.isEmpty()) {
+                    after = job.lastId;
+                    List<Index> actions = page;
+                    writes.add(workers.submit(() -> write(job, actions)));
+                }
+                heartbeat(job);
+            } while (page.size() == properties.getPageSize());
+            for (Future<?> write : writes) {
+                write.get();
+            }
+            finishIndex(job);
+            swapAlias(job);
+            searchResultCache.invalidate(job.entityClass);
+            updateJob(job, jobEntity -> finish(jobEntity, ReindexState.COMPLETED, null));
+            log.info(
+                "Reindexed {} {} into {} in {} ms",
+                job.documentsIndexed.get(),
+                job.type,
+                job.index,
+                Instant.now().toEpochMilli() - job.startedDate.toEpochMilli()
+            );
+        } catch (Exception e) {
+            log.error("Could not reindex {} into {}", job.type, job.index, e);
+            try {
+                updateJob(job, jobEntity -> finish(jobEntity, ReindexState.FAILED, e.getMessage()));
+            } finally {
+                deleteIndexQuietly(job.index);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Publish the progress of a reindex, and stop it if another instance failed it in the meantime.
+     */
+    private void heartbeat(ReindexJob job) {
+        updateJob(
+            job,
+            jobEntity -> {
+                if (jobEntity.getState() != ReindexState.RUNNING) {
+                    throw new IllegalStateException("The reindex was failed by another instance: " + jobEntity.getMessage());
+                }
+                jobEntity.setHeartbeatDate(Instant.now());
+            }
+        );
+    }
+
+    private void updateJob(ReindexJob job, Consumer<SearchReindexJob> update) {
+        transactionTemplate.execute(
+            status -> {
+                SearchReindexJob jobEntity = searchReindexJobRepository.findById(job.id).orElseThrow(IllegalStateException::new);
+                jobEntity.setRowsRead(job.rowsRead.get());
+                jobEntity.setDocumentsIndexed(job.documentsIndexed.get());
+                jobEntity.setDocumentsFailed(job.documentsFailed.get());
+                update.accept(jobEntity);
+                return null;
+            }
+        );
+    }
+
+    private void finish(SearchReindexJob jobEntity, ReindexState state, String message) {
+        jobEntity.setState(state);
+        jobEntity.setRunningType(null);
+        jobEntity.setFinishedDate(Instant.now());
+        jobEntity.setMessage(message != null && message.length() > 1000 ? message.substring(0, 1000) : message);
+    }
+
+    private void createIndex(ReindexJob job) throws IOException {
+        Map<String, Object> settings = new HashMap<>();
+        // Refreshes are useless until the index is searched
+        settings.put("refresh_interval", "-1");
+        // Keep the tombstones of the deletes until the documents read before them are written
+        settings.put("gc_deletes", properties.getGcDeletes().toMillis() + "ms");
+        execute(new CreateIndex.Builder(job.index).settings(Collections.singletonMap("index", settings)).build());
+        Mapping mapping = job.entityClass.getAnnotation(Mapping.class);
+        if (mapping != null && !mapping.mappingPath().isEmpty()) {
+            String source = StreamUtils.copyToString(new ClassPathResource(mapping.mappingPath()).getInputStream(), StandardCharsets.UTF_8);
+            execute(new PutMapping.Builder(job.index, job.indexType, source).build());
+        }
+    }
+
+    private List<Index> readPage(ReindexJob job, Object after, long version) {
+        TypedQuery<?> query = entityManager.createQuery(
+            "select e from " + job.type + " e" + (after == null ? "" : " where e.id > :after") + " order by e.id",
+            job.entityClass
+        );
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        List<?> entities = query.setMaxResults(properties.getPageSize()).getResultList();
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<Index> actions = new ArrayList<>(entities.size());
+        for (Object entity : entities) {
+            Object id = persistenceUnitUtil.getIdentifier(entity);
+            try {
+                actions.add(
+                    new Index.Builder(entityMapper.mapToString(entity))
+                        .index(job.index)
+                        .type(job.indexType)
+                        .id(String.valueOf(id))
+                        .setParameter(Parameters.VERSION, version)
+                        .setParameter(Parameters.VERSION_TYPE, "external")
+                        .build()
+                );
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not serialize " + entity, e);
+            }
+            job.lastId = id;
+        }
+        job.rowsRead.addAndGet(entities.size());
+        entityManager.clear();
+        return actions;
+    }
+
+    private void write(ReindexJob job, List<Index> actions) {
+        BulkResult result;
+        try {
+            result = jestClient.execute(new Bulk.Builder().addAction(actions).build());
+        } catch (IOException e) {
+            throw new IllegalStateException("Elasticsearch bulk request failed", e);
+        }
+        if (!result.isSucceeded() && result.getItems().isEmpty()) {
+            throw new IllegalStateException("Elasticsearch bulk request failed: " + result.getErrorMessage());
+        }
+        long failed = 0;
+        for (BulkResult.BulkResultItem item : result.getFailedItems()) {
+            // Written or deleted by the indexer after this page was read
+            if (item.status != VERSION_CONFLICT) {
+                log.warn("Could not reindex {} {}: {}", item.type, item.id, item.error);
+                failed++;
+            }
+        }
+        job.documentsFailed.addAndGet(failed);
+        job.documentsIndexed.addAndGet(actions.size() - result.getFailedItems().size());
+    }
+
+    private void finishIndex(ReindexJob job) throws IOException {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("refresh_interval", "1s");
+        settings.put("gc_deletes", DEFAULT_GC_DELETES);
+        execute(new UpdateSettings.Builder(Collections.singletonMap("index", settings)).addIndex(job.index).build());
+        execute(new Refresh.Builder().addIndex(job.index).build());
+    }
+
+    private void swapAlias(ReindexJob job) throws IOException {
+        Set<String> previousIndices = new HashSet<>();
+        if (jestClient.execute(new IndicesExists.Builder(job.alias).build()).isSucceeded()) {
+            JsonObject aliases = execute(new GetAliases.Builder().addIndex(job.alias).build()).getJsonObject();
+            previousIndices.addAll(aliases.keySet());
+        }
+        ModifyAliases.Builder modifyAliases = new ModifyAliases.Builder(new AddAliasMapping.Builder(job.index, job.alias).build());
+        if (previousIndices.remove(job.alias)) {
+            // Deleted in the same request, so that the name always refers to an index the indexer can write to
+            log.info("Replacing the {} index by an alias", job.alias);
+            modifyAliases.addAlias(new RemoveIndexMapping(job.alias));
+        }
+        for (String previousIndex : previousIndices) {
+            modifyAliases.addAlias(new RemoveAliasMapping.Builder(previousIndex, job.alias).build());
+        }
+        execute(modifyAliases.build());
+        previousIndices.forEach(this::deleteIndexQuietly);
+    }
+
+    private void deleteIndexQuietly(String index) {
+        try {
+            jestClient.execute(new DeleteIndex.Builder(index).build());
+        } catch (IOException e) {
+            log.warn("Could not delete the {} index: {}", index, e.getMessage());
+        }
+    }
+
+    private <T extends JestResult> T execute(Action<T> action) throws IOException {
+        T result = jestClient.execute(action);
+        if (!result.isSucceeded()) {
+            throw new IllegalStateException(action.getRestMethodName() + " " + action.getURI() + " failed: " + result.getErrorMessage());
+        }
+        return result;
+    }
+
+    private ElasticsearchPersistentEntity<?> getPersistentEntity(Class<?> entityClass) {
+        return elasticsearchOperations.getPersistentEntityFor(entityClass);
+    }
+
+    private ReindexStatusDTO toStatus(SearchReindexJob jobEntity) {
+        ReindexStatusDTO status = new ReindexStatusDTO();
+        status.setType(jobEntity.getEntityType());
+        status.setAlias(jobEntity.getAlias());
+        status.setIndex(jobEntity.getIndexName());
+        status.setState(jobEntity.getState());
+        status.setStartedDate(jobEntity.getStartedDate());
+        status.setFinishedDate(jobEntity.getFinishedDate());
+        status.setRowsRead(jobEntity.getRowsRead());
+        status.setDocumentsIndexed(jobEntity.getDocumentsIndexed());
+        status.setDocumentsFailed(jobEntity.getDocumentsFailed());
+        Instant end = jobEntity.getFinishedDate() == null ? jobEntity.getHeartbeatDate() : jobEntity.getFinishedDate();
+        long elapsedMillis = end.toEpochMilli() - jobEntity.getStartedDate().toEpochMilli();
+        status.setDocumentsPerSecond(elapsedMillis == 0 ? 0 : jobEntity.getDocumentsIndexed() * 1000.0 / elapsedMillis);
+        status.setMessage(jobEntity.getMessage());
+        return status;
+    }
+
+    /**
+     * The {@code remove_index} action of the {@code _aliases} API, which Jest does not provide.
+     */
+    private static class RemoveIndexMapping extends AliasMapping {
+        private final String index;
+
+        RemoveIndexMapping(String index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getType() {
+            return "remove_index";
+        }
+
+        @Override
+        public List<Map<String, Object>> getData() {
+            Map<String, Object> action = Collections.singletonMap(getType(), Collections.singletonMap("index", index));
+            return Collections.singletonList(action);
+        }
+    }
+
+    /**
+     * The progress of a reindex run by this instance, published to its {@link SearchReindexJob} after each page.
+     */
+    private class ReindexJob {
+        private final Class<?> entityClass;
+
+        private final String type;
+
+        private final String alias;
+
+        private final String indexType;
+
+        private final String index;
+
+        private final Instant startedDate = Instant.now();
+
+        private final AtomicLong rowsRead = new AtomicLong();
+
+        private final AtomicLong documentsIndexed = new AtomicLong();
+
+        private final AtomicLong documentsFailed = new AtomicLong();
+
+        private volatile Long id;
+
+        private volatile Object lastId;
+
+        ReindexJob(Class<?> entityClass, String alias, String index) {
+            this.entityClass = entityClass;
+            this.type = entityClass.getSimpleName();
+            this.alias = alias;
+            this.indexType = getPersistentEntity(entityClass).getIndexType();
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.superleague.microservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.superleague.microservice.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-process cache of search results.
+ * <p>
+ * Entries are keyed by entity type, normalized query string and paging parameters, along with the index generation of
+ * the entity type. Every write to an index moves its generation forward, so the entries read before it can no longer
+ * be hit, and are left to expire. Writes indexed by other instances are not seen: the time to live of
+ * {@code application.cache.search} bounds how long a stale result may be served.
+ */
+@Service
+public class SearchResultCache {
+    static final String CACHE_NAME = "searchResults";
+
+    private final ApplicationProperties.SearchCache properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<List<Object>, Object> cache;
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final Map<String, TypeMetrics> metrics = new ConcurrentHashMap<>();
+
+    public SearchResultCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getCache().getSearch();
+        this.meterRegistry = meterRegistry;
+        this.cache =
+            Caffeine
+                .newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive().toNanos(), TimeUnit.NANOSECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Get the result of a search, running it on a miss.
+     *
+     * @param entityClass the class of the searched entity.
+     * @param query the query string.
+     * @param parameters the other parameters changing the result, e.g. the page.
+     * @param search the search to run on a miss.
+     * @param <T> the type of the result.
+     * @return the result of the search.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Class<?> entityClass, String query, List<?> parameters, Supplier<T> search) {
+        if (!properties.isEnabled()) {
+            return search.get();
+        }
+        String type = entityClass.getSimpleName();
+        TypeMetrics typeMetrics = metrics.computeIfAbsent(type, TypeMetrics::new);
+        List<Object> key = Arrays.asList(type, getGeneration(entityClass), normalize(query), parameters);
+        boolean[] missed = new boolean[1];
+        Object result = cache.get(
+            key,
+            k -> {
+                missed[0] = true;
+                return typeMetrics.searchTimer.record(search);
+            }
+        );
+        if (missed[0]) {
+            typeMetrics.missCounter.increment();
+        } else {
+            typeMetrics.hitCounter.increment();
+            // A hit saves the time a search of this type usually takes
+            typeMetrics.savedCounter.increment(typeMetrics.searchTimer.mean(TimeUnit.SECONDS));
+        }
+        return (T) result;
+    }
+
+    /**
+     * @param entityClass the class of the entity.
+     * @return the current index generation of the entity.
+     */
+    public long getGeneration(Class<?> entityClass) {
+        return generations.computeIfAbsent(entityClass.getSimpleName(), type -> new AtomicLong()).get();
+    }
+
+    /**
+     * Move the index generation of an entity forward, after its index has been written to.
+     *
+     * @param entityClass the class of the entity.
+     */
+    public void invalidate(Class<?> entityClass) {
+        generations.computeIfAbsent(entityClass.getSimpleName(), type -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Normalize a query string, so that queries only differing by their spacing share the same entry.
+     * <p>
+     * The case is kept, as query string operators are case sensitive.
+     *
+     * @param query the query string.
+     * @return the normalized query string.
+     */
+    static String normalize(String query) {
+        return query == null ? "" : query.trim().replaceAll("\\s+", " ");
+    }
+
+    private class TypeMetrics {
+        private final Counter hitCounter;
+
+        private final Counter missCounter;
+
+        private final Counter savedCounter;
+
+        private final Timer searchTimer;
+
+        TypeMetrics(String type) {
+            this.hitCounter = meterRegistry.counter("search.cache.requests", "type", type, "result", "hit");
+            this.missCounter = meterRegistry.counter("search.cache.requests", "type", type, "result", "miss");
+            this.savedCounter =
+                Counter
+                    .builder("search.cache.saved")
+                    .description("Estimated Elasticsearch time saved by cache hits")
+                    .baseUnit("seconds")
+                    .tag("type", type)
+                    .register(meterRegistry);
+            this.searchTimer = meterRegistry.timer("search.cache.search", "type", type);
+        }
+    }
+}
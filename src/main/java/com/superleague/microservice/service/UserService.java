@@ -1,5 +1,8 @@
 package com.superleague.microservice.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.superleague.microservice.config.ApplicationProperties;
 import com.superleague.microservice.config.Constants;
 import com.superleague.microservice.domain.Authority;
 import com.superleague.microservice.domain.User;
@@ -8,8 +11,13 @@ import com.superleague.microservice.repository.UserRepository;
 import com.superleague.microservice.repository.search.UserSearchRepository;
 import com.superleague.microservice.security.SecurityUtils;
 import com.superleague.microservice.service.dto.UserDTO;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +30,8 @@ import org.springframework.security.oauth2.client.authentication.OAuth2Authentic
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Service class for managing users.
@@ -39,16 +49,40 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final SearchResultCache searchResultCache;
+
+    /**
+     * Fingerprint of the claims each user was last synchronized with, by login.
+     */
+    private final Cache<String, String> syncFingerprints;
+
+    /**
+     * Names of the authorities known to be in the database, loaded on the first synchronization.
+     */
+    private final Set<String> knownAuthorities = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean knownAuthoritiesLoaded;
+
     public UserService(
         UserRepository userRepository,
         UserSearchRepository userSearchRepository,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        SearchResultCache searchResultCache,
+        ApplicationProperties applicationProperties
     ) {
         this.userRepository = userRepository;
         this.userSearchRepository = userSearchRepository;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.searchResultCache = searchResultCache;
+        ApplicationProperties.CacheSpec userSync = applicationProperties.getCache().getUserSync();
+        this.syncFingerprints =
+            Caffeine
+                .newBuilder()
+                .maximumSize(userSync.getMaximumSize())
+                .expireAfterWrite(userSync.getTimeToLive().toNanos(), TimeUnit.NANOSECONDS)
+                .build();
     }
 
     /**
@@ -74,6 +108,7 @@ public class UserService {
                     user.setLangKey(langKey);
                     user.setImageUrl(imageUrl);
                     userSearchRepository.save(user);
+                    searchResultCache.invalidate(User.class);
                     this.clearUserCaches(user);
                     log.debug("Changed Information for User: {}", user);
                 }
@@ -100,8 +135,14 @@ public class UserService {
     }
 
     private User syncUserWithIdP(Map<String, Object> details, User user) {
+        // skip users already synchronized with the same claims, to spare the database, index and cache writes
+        String fingerprint = getSyncFingerprint(user);
+        if (fingerprint.equals(syncFingerprints.getIfPresent(user.getLogin()))) {
+            log.trace("User '{}' is already synchronized", user.getLogin());
+            return user;
+        }
         // save authorities in to sync user roles/groups between IdP and JHipster's local database
-        Collection<String> dbAuthorities = getAuthorities();
+        Collection<String> dbAuthorities = getKnownAuthorities();
         Collection<String> userAuthorities = user.getAuthorities().stream().map(Authority::getName).collect(Collectors.toList());
         for (String authority : userAuthorities) {
             if (!dbAuthorities.contains(authority)) {
@@ -109,6 +150,7 @@ public class UserService {
                 Authority authorityToSave = new Authority();
                 authorityToSave.setName(authority);
                 authorityRepository.save(authorityToSave);
+                afterCommit(() -> knownAuthorities.add(authority));
             }
         }
         // save account in to sync users between IdP and JHipster's local database
@@ -132,9 +174,59 @@ public class UserService {
             userRepository.save(user);
             this.clearUserCaches(user);
         }
+        afterCommit(() -> syncFingerprints.put(user.getLogin(), fingerprint));
         return user;
     }
 
+    private Set<String> getKnownAuthorities() {
+        if (!knownAuthoritiesLoaded) {
+            knownAuthorities.addAll(getAuthorities());
+            knownAuthoritiesLoaded = true;
+        }
+        return knownAuthorities;
+    }
+
+    /**
+     * Run an action once the current transaction is committed, so that a rollback leaves nothing to forget.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        } else {
+            action.run();
+        }
+    }
+
+    private static String getSyncFingerprint(User user) {
+        String authorities = user.getAuthorities().stream().map(Authority::getName).sorted().collect(Collectors.joining(","));
+        String claims = String.join(
+            "\n",
+            user.getId(),
+            user.getLogin(),
+            user.getFirstName(),
+            user.getLastName(),
+            user.getEmail(),
+            user.getLangKey(),
+            user.getImageUrl(),
+            String.valueOf(user.getActivated()),
+            authorities
+        );
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(claims.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     /**
      * Returns the user from an OAuth 2.0 login or resource server with JWT.
      * Synchronizes the user in the local repository.
@@ -170,7 +262,7 @@ public class UserService {
         return new UserDTO(syncUserWithIdP(attributes, user));
     }
 
-    private static User getUser(Map<String, Object> details) {
+    static User getUser(Map<String, Object> details) {
         User user = new User();
         // handle resource server JWT, where sub claim is email and uid is ID
         if (details.get("uid") != null) {
@@ -221,6 +313,7 @@ public class UserService {
     }
 
     private void clearUserCaches(User user) {
+        syncFingerprints.invalidate(user.getLogin());
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
@@ -0,0 +1,94 @@
+package com.superleague.microservice.service.dto;
+
+import java.time.Instant;
+
+/**
+ * A DTO representing the outcome of a purge of the expired audit events.
+ */
+public class AuditPurgeReportDTO {
+    private Instant before;
+
+    private long eventsDeleted;
+
+    private long dataRowsDeleted;
+
+    private int chunks;
+
+    private int partitionsDropped;
+
+    private long durationMillis;
+
+    private boolean skipped;
+
+    public Instant getBefore() {
+        return before;
+    }
+
+    public void setBefore(Instant before) {
+        this.before = before;
+    }
+
+    public long getEventsDeleted() {
+        return eventsDeleted;
+    }
+
+    public void setEventsDeleted(long eventsDeleted) {
+        this.eventsDeleted = eventsDeleted;
+    }
+
+    public long getDataRowsDeleted() {
+        return dataRowsDeleted;
+    }
+
+    public void setDataRowsDeleted(long dataRowsDeleted) {
+        this.dataRowsDeleted = dataRowsDeleted;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+
+    public int getPartitionsDropped() {
+        return partitionsDropped;
+    }
+
+    public void setPartitionsDropped(int partitionsDropped) {
+        this.partitionsDropped = partitionsDropped;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @return {@code true} if another instance was purging the audit events, and nothing was done.
+     */
+    public boolean isSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(boolean skipped) {
+        this.skipped = skipped;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditPurgeReportDTO{" +
+            "before=" + before +
+            ", eventsDeleted=" + eventsDeleted +
+            ", dataRowsDeleted=" + dataRowsDeleted +
+            ", chunks=" + chunks +
+            ", partitionsDropped=" + partitionsDropped +
+            ", durationMillis=" + durationMillis +
+            ", skipped=" + skipped +
+            "}";
+    }
+}
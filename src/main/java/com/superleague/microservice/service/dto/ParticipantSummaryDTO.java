@@ -0,0 +1,153 @@
+package com.superleague.microservice.service.dto;
+
+import com.superleague.microservice.domain.enumeration.Status;
+
+/**
+ * A DTO representing a participant along with its batch, course and learning, read in a single query.
+ */
+public class ParticipantSummaryDTO {
+    private Long id;
+
+    private String empId;
+
+    private String name;
+
+    private String email;
+
+    private Long batchId;
+
+    private String batchName;
+
+    private Long courseId;
+
+    private String courseName;
+
+    private Long learningId;
+
+    private Status learningStatus;
+
+    public ParticipantSummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ParticipantSummaryDTO(
+        Long id,
+        String empId,
+        String name,
+        String email,
+        Long batchId,
+        String batchName,
+        Long courseId,
+        String courseName,
+        Long learningId,
+        Status learningStatus
+    ) {
+        this.id = id;
+        this.empId = empId;
+        this.name = name;
+        this.email = email;
+        this.batchId = batchId;
+        this.batchName = batchName;
+        this.courseId = courseId;
+        this.courseName = courseName;
+        this.learningId = learningId;
+        this.learningStatus = learningStatus;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEmpId() {
+        return empId;
+    }
+
+    public void setEmpId(String empId) {
+        this.empId = empId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Long getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(Long batchId) {
+        this.batchId = batchId;
+    }
+
+    public String getBatchName() {
+        return batchName;
+    }
+
+    public void setBatchName(String batchName) {
+        this.batchName = batchName;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public void setCourseName(String courseName) {
+        this.courseName = courseName;
+    }
+
+    public Long getLearningId() {
+        return learningId;
+    }
+
+    public void setLearningId(Long learningId) {
+        this.learningId = learningId;
+    }
+
+    public Status getLearningStatus() {
+        return learningStatus;
+    }
+
+    public void setLearningStatus(Status learningStatus) {
+        this.learningStatus = learningStatus;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ParticipantSummaryDTO{" +
+            "id=" + id +
+            ", empId='" + empId + "'" +
+            ", name='" + name + "'" +
+            ", email='" + email + "'" +
+            ", batchId=" + batchId +
+            ", batchName='" + batchName + "'" +
+            ", courseId=" + courseId +
+            ", courseName='" + courseName + "'" +
+            ", learningId=" + learningId +
+            ", learningStatus=" + learningStatus +
+            "}";
+    }
+}
@@ -0,0 +1,133 @@
+package com.superleague.microservice.service.dto;
+
+import com.superleague.microservice.domain.enumeration.ReindexState;
+import java.time.Instant;
+
+/**
+ * A DTO representing the progress of an Elasticsearch reindex.
+ */
+public class ReindexStatusDTO {
+
+    private String type;
+
+    private String alias;
+
+    private String index;
+
+    private ReindexState state;
+
+    private Instant startedDate;
+
+    private Instant finishedDate;
+
+    private long rowsRead;
+
+    private long documentsIndexed;
+
+    private long documentsFailed;
+
+    private double documentsPerSecond;
+
+    private String message;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public void setIndex(String index) {
+        this.index = index;
+    }
+
+    public ReindexState getState() {
+        return state;
+    }
+
+    public void setState(ReindexState state) {
+        this.state = state;
+    }
+
+    public Instant getStartedDate() {
+        return startedDate;
+    }
+
+    public void setStartedDate(Instant startedDate) {
+        this.startedDate = startedDate;
+    }
+
+    public Instant getFinishedDate() {
+        return finishedDate;
+    }
+
+    public void setFinishedDate(Instant finishedDate) {
+        this.finishedDate = finishedDate;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getDocumentsIndexed() {
+        return documentsIndexed;
+    }
+
+    public void setDocumentsIndexed(long documentsIndexed) {
+        this.documentsIndexed = documentsIndexed;
+    }
+
+    public long getDocumentsFailed() {
+        return documentsFailed;
+    }
+
+    public void setDocumentsFailed(long documentsFailed) {
+        this.documentsFailed = documentsFailed;
+    }
+
+    public double getDocumentsPerSecond() {
+        return documentsPerSecond;
+    }
+
+    public void setDocumentsPerSecond(double documentsPerSecond) {
+        this.documentsPerSecond = documentsPerSecond;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReindexStatusDTO{" +
+            "type='" + type + "'" +
+            ", index='" + index + "'" +
+            ", state=" + state +
+            ", rowsRead=" + rowsRead +
+            ", documentsIndexed=" + documentsIndexed +
+            ", documentsFailed=" + documentsFailed +
+            "}";
+    }
+}
@@ -0,0 +1,44 @@
+package com.superleague.microservice.service.dto;
+
+import java.util.List;
+
+/**
+ * A DTO representing a page of search hits read with a {@code search_after} cursor.
+ *
+ * @param <T> the type of the hits.
+ */
+public class SearchAfterPageDTO<T> {
+    private final List<T> content;
+
+    private final long totalHits;
+
+    private final int size;
+
+    private final String nextCursor;
+
+    public SearchAfterPageDTO(List<T> content, long totalHits, int size, String nextCursor) {
+        this.content = content;
+        this.totalHits = totalHits;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the cursor of the next page, or {@code null} if this page is the last one.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,164 @@
+package com.superleague.microservice.service.dto;
+
+/**
+ * A DTO representing a subject matter expert along with its sprint, batch and course, read in a single query.
+ */
+public class SubjectMatterExpertSummaryDTO {
+    private Long id;
+
+    private String empId;
+
+    private String name;
+
+    private String email;
+
+    private Integer contactNumber;
+
+    private Long sprintId;
+
+    private String sprintNo;
+
+    private Long batchId;
+
+    private String batchName;
+
+    private Long courseId;
+
+    private String courseName;
+
+    public SubjectMatterExpertSummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SubjectMatterExpertSummaryDTO(
+        Long id,
+        String empId,
+        String name,
+        String email,
+        Integer contactNumber,
+        Long sprintId,
+        String sprintNo,
+        Long batchId,
+        String batchName,
+        Long courseId,
+        String courseName
+    ) {
+        this.id = id;
+        this.empId = empId;
+        this.name = name;
+        this.email = email;
+        this.contactNumber = contactNumber;
+        this.sprintId = sprintId;
+        this.sprintNo = sprintNo;
+        this.batchId = batchId;
+        this.batchName = batchName;
+        this.courseId = courseId;
+        this.courseName = courseName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEmpId() {
+        return empId;
+    }
+
+    public void setEmpId(String empId) {
+        this.empId = empId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Integer getContactNumber() {
+        return contactNumber;
+    }
+
+    public void setContactNumber(Integer contactNumber) {
+        this.contactNumber = contactNumber;
+    }
+
+    public Long getSprintId() {
+        return sprintId;
+    }
+
+    public void setSprintId(Long sprintId) {
+        this.sprintId = sprintId;
+    }
+
+    public String getSprintNo() {
+        return sprintNo;
+    }
+
+    public void setSprintNo(String sprintNo) {
+        this.sprintNo = sprintNo;
+    }
+
+    public Long getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(Long batchId) {
+        this.batchId = batchId;
+    }
+
+    public String getBatchName() {
+        return batchName;
+    }
+
+    public void setBatchName(String batchName) {
+        this.batchName = batchName;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public void setCourseName(String courseName) {
+        this.courseName = courseName;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SubjectMatterExpertSummaryDTO{" +
+            "id=" + id +
+            ", empId='" + empId + "'" +
+            ", name='" + name + "'" +
+            ", email='" + email + "'" +
+            ", contactNumber=" + contactNumber +
+            ", sprintId=" + sprintId +
+            ", sprintNo='" + sprintNo + "'" +
+            ", batchId=" + batchId +
+            ", batchName='" + batchName + "'" +
+            ", courseId=" + courseId +
+            ", courseName='" + courseName + "'" +
+            "}";
+    }
+}
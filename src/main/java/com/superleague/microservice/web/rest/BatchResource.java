@@ -3,26 +3,43 @@ package com.superleague.microservice.web.rest;
 import com.superleague.microservice.domain.Batch;
 import com.superleague.microservice.repository.BatchRepository;
 import com.superleague.microservice.repository.search.BatchSearchRepository;
+import com.superleague.microservice.service.CsvImportService;
+import com.superleague.microservice.service.EntityExportService;
+import com.superleague.microservice.service.EntityExportService.ExportFormat;
+import com.superleague.microservice.service.InvalidCsvHeaderException;
+import com.superleague.microservice.service.SearchOutboxService;
+import com.superleague.microservice.service.SearchQueryService;
+import com.superleague.microservice.service.dto.ImportReportDTO;
+import com.superleague.microservice.service.dto.SearchAfterPageDTO;
 import com.superleague.microservice.web.rest.errors.BadRequestAlertException;
+import com.superleague.microservice.web.rest.util.KeysetPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
+import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
+import java.util.stream.Stream;
 
 /**
  * REST controller for managing {@link com.superleague.microservice.domain.Batch}.
@@ -43,9 +60,28 @@ public class BatchResource {
 
     private final BatchSearchRepository batchSearchRepository;
 
-    public BatchResource(BatchRepository batchRepository, BatchSearchRepository batchSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final EntityExportService entityExportService;
+
+    private final SearchQueryService searchQueryService;
+
+    private final CsvImportService csvImportService;
+
+    public BatchResource(
+        BatchRepository batchRepository,
+        BatchSearchRepository batchSearchRepository,
+        SearchOutboxService searchOutboxService,
+        EntityExportService entityExportService,
+        CsvImportService csvImportService,
+        SearchQueryService searchQueryService
+    ) {
         this.batchRepository = batchRepository;
         this.batchSearchRepository = batchSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.entityExportService = entityExportService;
+        this.csvImportService = csvImportService;
+        this.searchQueryService = searchQueryService;
     }
 
     /**
@@ -62,7 +98,7 @@ public class BatchResource {
             throw new BadRequestAlertException("A new batch cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Batch result = batchRepository.save(batch);
-        batchSearchRepository.save(result);
+        searchOutboxService.scheduleIndex(Batch.class, result.getId());
         return ResponseEntity.created(new URI("/api/batches/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
@@ -84,7 +120,7 @@ public class BatchResource {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
         Batch result = batchRepository.save(batch);
-        batchSearchRepository.save(result);
+        searchOutboxService.scheduleIndex(Batch.class, result.getId());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, batch.getId().toString()))
             .body(result);
@@ -93,14 +129,96 @@ public class BatchResource {
     /**
      * {@code GET  /batches} : get all the batches.
      *
+     * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of batches in body.
      */
     @GetMapping("/batches")
-    public List<Batch> getAllBatches() {
+    public ResponseEntity<List<Batch>> getAllBatches(Pageable pageable) {
+        log.debug("REST request to get a page of Batches");
+        Page<Batch> page = batchRepository.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /batches?after=:id&size=:size} : get the batches following the "id" one, ordered by id.
+     * <p>
+     * Keyset pagination does not degrade with the depth of the scroll, unlike the {@code page} parameter.
+     *
+     * @param after the id of the last batch already read, {@code 0} to start from the beginning.
+     * @param size the maximum number of batches to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of batches in body.
+     */
+    @GetMapping(value = "/batches", params = "after")
+    public ResponseEntity<List<Batch>> getAllBatchesAfter(
+        @RequestParam Long after,
+        @RequestParam(defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get a slice of Batches after id {}", after);
+        Slice<Batch> slice = batchRepository.findByIdGreaterThan(after, KeysetPaginationUtil.keysetPageable(size));
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, Batch::getId);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /batches?unpaged=true} : get all the batches, without any pagination.
+     * <p>
+     * This loads the whole table in memory: it is only kept for clients which explicitly ask for it.
+     * Along with {@code after}, the keyset pagination wins, so that the two mappings never both match.
+     *
+     * @return the list of batches.
+     */
+    @GetMapping(value = "/batches", params = { "unpaged=true", "!after" })
+    public List<Batch> getAllBatchesUnpaged() {
         log.debug("REST request to get all Batches");
         return batchRepository.findAll();
     }
 
+    /**
+     * {@code GET  /batches/_export?format=ndjson|csv} : export all the batches.
+     * <p>
+     * Rows are written to the response as they are read from the database, so that exporting a large table does not
+     * load it in memory.
+     *
+     * @param format the format of the export, {@code ndjson} (default) or {@code csv}.
+     * @param response the response to write the batches to.
+     * @throws IOException if the response could not be written.
+     */
+    @GetMapping("/batches/_export")
+    @Transactional(readOnly = true)
+    public void exportBatchs(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export Batchs as {}", format);
+        ExportFormat exportFormat = ExportFormat
+            .fromExtension(format)
+            .orElseThrow(() -> new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "exportformatinvalid"));
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"batches." + exportFormat.getExtension() + "\"");
+        try (Stream<Batch> batches = batchRepository.streamAllBy()) {
+            entityExportService.export(Batch.class, batches, exportFormat, response.getOutputStream());
+        }
+    }
+
+    /**
+     * {@code POST  /batches/_import} : import batches from a CSV file, in the format of the CSV export.
+     * <p>
+     * Rows are written in chunks as the file is read, and rows which cannot be imported are reported instead of
+     * failing the whole import.
+     *
+     * @param inputStream the CSV file.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the import, or with status {@code 400 (Bad Request)} if the CSV header is invalid.
+     * @throws IOException if the request body could not be read.
+     */
+    @PostMapping(value = "/batches/_import", consumes = "text/csv")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<ImportReportDTO> importBatches(InputStream inputStream) throws IOException {
+        log.debug("REST request to import Batches");
+        try {
+            return ResponseEntity.ok(csvImportService.importBatches(inputStream));
+        } catch (InvalidCsvHeaderException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importheaderinvalid");
+        }
+    }
+
     /**
      * {@code GET  /batches/:id} : get the "id" batch.
      *
@@ -124,7 +242,7 @@ public class BatchResource {
     public ResponseEntity<Void> deleteBatch(@PathVariable Long id) {
         log.debug("REST request to delete Batch : {}", id);
         batchRepository.deleteById(id);
-        batchSearchRepository.deleteById(id);
+        searchOutboxService.scheduleDelete(Batch.class, id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString())).build();
     }
 
@@ -133,13 +251,42 @@ public class BatchResource {
      * to the query.
      *
      * @param query the query of the batch search.
-     * @return the result of the search.
+     * @param fields the fields of the batch to return, all of them if not set.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of batches in body, or with status {@code 400 (Bad Request)} if the page is beyond the result window.
      */
     @GetMapping("/_search/batches")
-    public List<Batch> searchBatches(@RequestParam String query) {
-        log.debug("REST request to search Batches for query {}", query);
-        return StreamSupport
-            .stream(batchSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-        .collect(Collectors.toList());
+    public ResponseEntity<List<Batch>> searchBatches(@RequestParam String query, @RequestParam(required = false) List<String> fields, Pageable pageable) {
+        log.debug("REST request to search for a page of Batches for query {}", query);
+        Page<Batch> page = searchQueryService.search(Batch.class, batchSearchRepository, query, pageable, fields);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code SEARCH  /_search/batches?query=:query&after=:cursor} : search for the batches following the cursor.
+     * <p>
+     * Unlike the {@code page} parameter, the cursor can go beyond the result window: start with an empty cursor, then
+     * follow the {@code next} link.
+     *
+     * @param query the query of the batch search.
+     * @param after the cursor returned with the previous page, empty for the first page.
+     * @param size the maximum number of batches to return.
+     * @param fields the fields of the batch to return, all of them if not set.
+     * @param sort the sort of the hits, by score if not set.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of batches in body.
+     */
+    @GetMapping(value = "/_search/batches", params = "after")
+    public ResponseEntity<List<Batch>> searchBatchesAfter(
+        @RequestParam String query,
+        @RequestParam String after,
+        @RequestParam(defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size,
+        @RequestParam(required = false) List<String> fields,
+        Sort sort
+    ) {
+        log.debug("REST request to search for Batches for query {} after {}", query, after);
+        SearchAfterPageDTO<Batch> page = searchQueryService.searchAfter(Batch.class, query, after, size, sort, fields);
+        HttpHeaders headers = KeysetPaginationUtil.generateSearchAfterHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 }
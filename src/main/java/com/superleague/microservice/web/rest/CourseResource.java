@@ -3,26 +3,43 @@ package com.superleague.microservice.web.rest;
 import com.superleague.microservice.domain.Course;
 import com.superleague.microservice.repository.CourseRepository;
 import com.superleague.microservice.repository.search.CourseSearchRepository;
+import com.superleague.microservice.service.CsvImportService;
+import com.superleague.microservice.service.EntityExportService;
+import com.superleague.microservice.service.EntityExportService.ExportFormat;
+import com.superleague.microservice.service.InvalidCsvHeaderException;
+import com.superleague.microservice.service.SearchOutboxService;
+import com.superleague.microservice.service.SearchQueryService;
+import com.superleague.microservice.service.dto.ImportReportDTO;
+import com.superleague.microservice.service.dto.SearchAfterPageDTO;
 import com.superleague.microservice.web.rest.errors.BadRequestAlertException;
+import com.superleague.microservice.web.rest.util.KeysetPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
+import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
+import java.util.stream.Stream;
 
 /**
  * REST controller for managing {@link com.superleague.microservice.domain.Course}.
@@ -43,9 +60,28 @@ public class CourseResource {
 
     private final CourseSearchRepository courseSearchRepository;
 
-    public CourseResource(CourseRepository courseRepository, CourseSearchRepository courseSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final EntityExportService entityExportService;
+
+    private final SearchQueryService searchQueryService;
+
+    private final CsvImportService csvImportService;
+
+    public CourseResource(
+        CourseRepository courseRepository,
+        CourseSearchRepository courseSearchRepository,
+        SearchOutboxService searchOutboxService,
+        EntityExportService entityExportService,
+        CsvImportService csvImportService,
+        SearchQueryService searchQueryService
+    ) {
         this.courseRepository = courseRepository;
         this.courseSearchRepository = courseSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.entityExportService = entityExportService;
+        this.csvImportService = csvImportService;
+        this.searchQueryService = searchQueryService;
     }
 
     /**
@@ -62,7 +98,7 @@ public class CourseResource {
             throw new BadRequestAlertException("A new course cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Course result = courseRepository.save(course);
-        courseSearchRepository.save(result);
+        searchOutboxService.scheduleIndex(Course.class, result.getId());
         return ResponseEntity.created(new URI("/api/courses/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
@@ -84,7 +120,7 @@ public class CourseResource {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
         Course result = courseRepository.save(course);
-        courseSearchRepository.save(result);
+        searchOutboxService.scheduleIndex(Course.class, result.getId());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, course.getId().toString()))
             .body(result);
@@ -93,14 +129,96 @@ public class CourseResource {
     /**
      * {@code GET  /courses} : get all the courses.
      *
+     * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of courses in body.
      */
     @GetMapping("/courses")
-    public List<Course> getAllCourses() {
+    public ResponseEntity<List<Course>> getAllCourses(Pageable pageable) {
+        log.debug("REST request to get a page of Courses");
+        Page<Course> page = courseRepository.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /courses?after=:id&size=:size} : get the courses following the "id" one, ordered by id.
+     * <p>
+     * Keyset pagination does not degrade with the depth of the scroll, unlike the {@code page} parameter.
+     *
+     * @param after the id of the last course already read, {@code 0} to start from the beginning.
+     * @param size the maximum number of courses to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of courses in body.
+     */
+    @GetMapping(value = "/courses", params = "after")
+    public ResponseEntity<List<Course>> getAllCoursesAfter(
+        @RequestParam Long after,
+        @RequestParam(defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get a slice of Courses after id {}", after);
+        Slice<Course> slice = courseRepository.findByIdGreaterThan(after, KeysetPaginationUtil.keysetPageable(size));
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, Course::getId);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /courses?unpaged=true} : get all the courses, without any pagination.
+     * <p>
+     * This loads the whole table in memory: it is only kept for clients which explicitly ask for it.
+     * Along with {@code after}, the keyset pagination wins, so that the two mappings never both match.
+     *
+     * @return the list of courses.
+     */
+    @GetMapping(value = "/courses", params = { "unpaged=true", "!after" })
+    public List<Course> getAllCoursesUnpaged() {
         log.debug("REST request to get all Courses");
         return courseRepository.findAll();
     }
 
+    /**
+     * {@code GET  /courses/_export?format=ndjson|csv} : export all the courses.
+     * <p>
+     * Rows are written to the response as they are read from the database, so that exporting a large table does not
+     * load it in memory.
+     *
+     * @param format the format of the export, {@code ndjson} (default) or {@code csv}.
+     * @param response the response to write the courses to.
+     * @throws IOException if the response could not be written.
+     */
+    @GetMapping("/courses/_export")
+    @Transactional(readOnly = true)
+    public void exportCourses(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export Courses as {}", format);
+        ExportFormat exportFormat = ExportFormat
+            .fromExtension(format)
+            .orElseThrow(() -> new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "exportformatinvalid"));
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"courses." + exportFormat.getExtension() + "\"");
+        try (Stream<Course> courses = courseRepository.streamAllBy()) {
+            entityExportService.export(Course.class, courses, exportFormat, response.getOutputStream());
+        }
+    }
+
+    /**
+     * {@code POST  /courses/_import} : import courses from a CSV file, in the format of the CSV export.
+     * <p>
+     * Rows are written in chunks as the file is read, and rows which cannot be imported are reported instead of
+     * failing the whole import.
+     *
+     * @param inputStream the CSV file.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the import, or with status {@code 400 (Bad Request)} if the CSV header is invalid.
+     * @throws IOException if the request body could not be read.
+     */
+    @PostMapping(value = "/courses/_import", consumes = "text/csv")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<ImportReportDTO> importCourses(InputStream inputStream) throws IOException {
+        log.debug("REST request to import Courses");
+        try {
+            return ResponseEntity.ok(csvImportService.importCourses(inputStream));
+        } catch (InvalidCsvHeaderException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importheaderinvalid");
+        }
+    }
+
     /**
      * {@code GET  /courses/:id} : get the "id" course.
      *
@@ -124,7 +242,7 @@ public class CourseResource {
     public ResponseEntity<Void> deleteCourse(@PathVariable Long id) {
         log.debug("REST request to delete Course : {}", id);
         courseRepository.deleteById(id);
-        courseSearchRepository.deleteById(id);
+        searchOutboxService.scheduleDelete(Course.class, id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString())).build();
     }
 
@@ -133,13 +251,42 @@ public class CourseResource {
      * to the query.
      *
      * @param query the query of the course search.
-     * @return the result of the search.
+     * @param fields the fields of the course to return, all of them if not set.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of courses in body, or with status {@code 400 (Bad Request)} if the page is beyond the result window.
      */
     @GetMapping("/_search/courses")
-    public List<Course> searchCourses(@RequestParam String query) {
-        log.debug("REST request to search Courses for query {}", query);
-        return StreamSupport
-            .stream(courseSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-        .collect(Collectors.toList());
+    public ResponseEntity<List<Course>> searchCourses(@RequestParam String query, @RequestParam(required = false) List<String> fields, Pageable pageable) {
+        log.debug("REST request to search for a page of Courses for query {}", query);
+        Page<Course> page = searchQueryService.search(Course.class, courseSearchRepository, query, pageable, fields);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code SEARCH  /_search/courses?query=:query&after=:cursor} : search for the courses following the cursor.
+     * <p>
+     * Unlike the {@code page} parameter, the cursor can go beyond the result window: start with an empty cursor, then
+     * follow the {@code next} link.
+     *
+     * @param query the query of the course search.
+     * @param after the cursor returned with the previous page, empty for the first page.
+     * @param size the maximum number of courses to return.
+     * @param fields the fields of the course to return, all of them if not set.
+     * @param sort the sort of the hits, by score if not set.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of courses in body.
+     */
+    @GetMapping(value = "/_search/courses", params = "after")
+    public ResponseEntity<List<Course>> searchCoursesAfter(
+        @RequestParam String query,
+        @RequestParam String after,
+        @RequestParam(defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size,
+        @RequestParam(required = false) List<String> fields,
+        Sort sort
+    ) {
+        log.debug("REST request to search for Courses for query {} after {}", query, after);
+        SearchAfterPageDTO<Course> page = searchQueryService.searchAfter(Course.class, query, after, size, sort, fields);
+        HttpHeaders headers = KeysetPaginationUtil.generateSearchAfterHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 }
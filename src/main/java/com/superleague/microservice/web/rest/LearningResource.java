@@ -3,25 +3,35 @@ package com.superleague.microservice.web.rest;
 import com.superleague.microservice.domain.Learning;
 import com.superleague.microservice.repository.LearningRepository;
 import com.superleague.microservice.repository.search.LearningSearchRepository;
+import com.superleague.microservice.service.EntityExportService;
+import com.superleague.microservice.service.EntityExportService.ExportFormat;
+import com.superleague.microservice.service.SearchOutboxService;
+import com.superleague.microservice.service.SearchQueryService;
+import com.superleague.microservice.service.dto.SearchAfterPageDTO;
 import com.superleague.microservice.web.rest.errors.BadRequestAlertException;
+import com.superleague.microservice.web.rest.util.KeysetPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
+import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
+import java.util.stream.Stream;
 
 /**
  * REST controller for managing {@link com.superleague.microservice.domain.Learning}.
@@ -42,9 +52,24 @@ public class LearningResource {
 
     private final LearningSearchRepository learningSearchRepository;
 
-    public LearningResource(LearningRepository learningRepository, LearningSearchRepository learningSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final EntityExportService entityExportService;
+
+    private final SearchQueryService searchQueryService;
+
+    public LearningResource(
+        LearningRepository learningRepository,
+        LearningSearchRepository learningSearchRepository,
+        SearchOutboxService searchOutboxService,
+        EntityExportService entityExportService,
+        SearchQueryService searchQueryService
+    ) {
         this.learningRepository = learningRepository;
         this.learningSearchRepository = learningSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.entityExportService = entityExportService;
+        this.searchQueryService = searchQueryService;
     }
 
     /**
@@ -61,7 +86,7 @@ public class LearningResource {
             throw new BadRequestAlertException("A new learning cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Learning result = learningRepository.save(learning);
-        learningSearchRepository.save(result);
+        searchOutboxService.scheduleIndex(Learning.class, result.getId());
         return ResponseEntity.created(new URI("/api/learnings/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
@@ -83,7 +108,7 @@ public class LearningResource {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
         Learning result = learningRepository.save(learning);
-        learningSearchRepository.save(result);
+        searchOutboxService.scheduleIndex(Learning.class, result.getId());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, learning.getId().toString()))
             .body(result);
@@ -92,14 +117,75 @@ public class LearningResource {
     /**
      * {@code GET  /learnings} : get all the learnings.
      *
+     * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of learnings in body.
      */
     @GetMapping("/learnings")
-    public List<Learning> getAllLearnings() {
+    public ResponseEntity<List<Learning>> getAllLearnings(Pageable pageable) {
+        log.debug("REST request to get a page of Learnings");
+        Page<Learning> page = learningRepository.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /learnings?after=:id&size=:size} : get the learnings following the "id" one, ordered by id.
+     * <p>
+     * Keyset pagination does not degrade with the depth of the scroll, unlike the {@code page} parameter.
+     *
+     * @param after the id of the last learning already read, {@code 0} to start from the beginning.
+     * @param size the maximum number of learnings to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of learnings in body.
+     */
+    @GetMapping(value = "/learnings", params = "after")
+    public ResponseEntity<List<Learning>> getAllLearningsAfter(
+        @RequestParam Long after,
+        @RequestParam(defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get a slice of Learnings after id {}", after);
+        Slice<Learning> slice = learningRepository.findByIdGreaterThan(after, KeysetPaginationUtil.keysetPageable(size));
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, Learning::getId);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /learnings?unpaged=true} : get all the learnings, without any pagination.
+     * <p>
+     * This loads the whole table in memory: it is only kept for clients which explicitly ask for it.
+     * Along with {@code after}, the keyset pagination wins, so that the two mappings never both match.
+     *
+     * @return the list of learnings.
+     */
+    @GetMapping(value = "/learnings", params = { "unpaged=true", "!after" })
+    public List<Learning> getAllLearningsUnpaged() {
         log.debug("REST request to get all Learnings");
         return learningRepository.findAll();
     }
 
+    /**
+     * {@code GET  /learnings/_export?format=ndjson|csv} : export all the learnings.
+     * <p>
+     * Rows are written to the response as they are read from the database, so that exporting a large table does not
+     * load it in memory.
+     *
+     * @param format the format of the export, {@code ndjson} (default) or {@code csv}.
+     * @param response the response to write the learnings to.
+     * @throws IOException if the response could not be written.
+     */
+    @GetMapping("/learnings/_export")
+    @Transactional(readOnly = true)
+    public void exportLearnings(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export Learnings as {}", format);
+        ExportFormat exportFormat = ExportFormat
+            .fromExtension(format)
+            .orElseThrow(() -> new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "exportformatinvalid"));
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"learnings." + exportFormat.getExtension() + "\"");
+        try (Stream<Learning> learnings = learningRepository.streamAllBy()) {
+            entityExportService.export(Learning.class, learnings, exportFormat, response.getOutputStream());
+        }
+    }
+
     /**
      * {@code GET  /learnings/:id} : get the "id" learning.
      *
@@ -123,7 +209,7 @@ public class LearningResource {
     public ResponseEntity<Void> deleteLearning(@PathVariable Long id) {
         log.debug("REST request to delete Learning : {}", id);
         learningRepository.deleteById(id);
-        learningSearchRepository.deleteById(id);
+        searchOutboxService.scheduleDelete(Learning.class, id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString())).build();
     }
 
@@ -132,13 +218,42 @@ public class LearningResource {
      * to the query.
      *
      * @param query the query of the learning search.
-     * @return the result of the search.
+     * @param fields the fields of the learning to return, all of them if not set.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of learnings in body, or with status {@code 400 (Bad Request)} if the page is beyond the result window.
      */
     @GetMapping("/_search/learnings")
-    public List<Learning> searchLearnings(@RequestParam String query) {
-        log.debug("REST request to search Learnings for query {}", query);
-        return StreamSupport
-            .stream(learningSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-        .collect(Collectors.toList());
+    public ResponseEntity<List<Learning>> searchLearnings(@RequestParam String query, @RequestParam(required = false) List<String> fields, Pageable pageable) {
+        log.debug("REST request to search for a page of Learnings for query {}", query);
+        Page<Learning> page = searchQueryService.search(Learning.class, learningSearchRepository, query, pageable, fields);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code SEARCH  /_search/learnings?query=:query&after=:cursor} : search for the learnings following the cursor.
+     * <p>
+     * Unlike the {@code page} parameter, the cursor can go beyond the result window: start with an empty cursor, then
+     * follow the {@code next} link.
+     *
+     * @param query the query of the learning search.
+     * @param after the cursor returned with the previous page, empty for the first page.
+     * @param size the maximum number of learnings to return.
+     * @param fields the fields of the learning to return, all of them if not set.
+     * @param sort the sort of the hits, by score if not set.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of learnings in body.
+     */
+    @GetMapping(value = "/_search/learnings", params = "after")
+    public ResponseEntity<List<Learning>> searchLearningsAfter(
+        @RequestParam String query,
+        @RequestParam String after,
+        @RequestParam(defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size,
+        @RequestParam(required = false) List<String> fields,
+        Sort sort
+    ) {
+        log.debug("REST request to search for Learnings for query {} after {}", query, after);
+        SearchAfterPageDTO<Learning> page = searchQueryService.searchAfter(Learning.class, query, after, size, sort, fields);
+        HttpHeaders headers = KeysetPaginationUtil.generateSearchAfterHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 }
@@ -3,26 +3,46 @@ package com.superleague.microservice.web.rest;
 import com.superleague.microservice.domain.Participant;
 import com.superleague.microservice.repository.ParticipantRepository;
 import com.superleague.microservice.repository.search.ParticipantSearchRepository;
+import com.superleague.microservice.service.BulkEntityService;
+import com.superleague.microservice.service.CsvImportService;
+import com.superleague.microservice.service.EntityExportService;
+import com.superleague.microservice.service.EntityExportService.ExportFormat;
+import com.superleague.microservice.service.InvalidCsvHeaderException;
+import com.superleague.microservice.service.SearchOutboxService;
+import com.superleague.microservice.service.SearchQueryService;
+import com.superleague.microservice.service.dto.BulkItemResultDTO;
+import com.superleague.microservice.service.dto.ImportReportDTO;
+import com.superleague.microservice.service.dto.ParticipantSummaryDTO;
+import com.superleague.microservice.service.dto.SearchAfterPageDTO;
 import com.superleague.microservice.web.rest.errors.BadRequestAlertException;
+import com.superleague.microservice.web.rest.util.KeysetPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
+import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
+import java.util.stream.Stream;
 
 /**
  * REST controller for managing {@link com.superleague.microservice.domain.Participant}.
@@ -43,9 +63,32 @@ public class ParticipantResource {
 
     private final ParticipantSearchRepository participantSearchRepository;
 
-    public ParticipantResource(ParticipantRepository participantRepository, ParticipantSearchRepository participantSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final BulkEntityService bulkEntityService;
+
+    private final EntityExportService entityExportService;
+
+    private final SearchQueryService searchQueryService;
+
+    private final CsvImportService csvImportService;
+
+    public ParticipantResource(
+        ParticipantRepository participantRepository,
+        ParticipantSearchRepository participantSearchRepository,
+        SearchOutboxService searchOutboxService,
+        BulkEntityService bulkEntityService,
+        EntityExportService entityExportService,
+        CsvImportService csvImportService,
+        SearchQueryService searchQueryService
+    ) {
         this.participantRepository = participantRepository;
         this.participantSearchRepository = participantSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.bulkEntityService = bulkEntityService;
+        this.entityExportService = entityExportService;
+        this.csvImportService = csvImportService;
+        this.searchQueryService = searchQueryService;
     }
 
     /**
@@ -62,7 +105,7 @@ public class ParticipantResource {
             throw new BadRequestAlertException("A new participant cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Participant result = participantRepository.save(participant);
-        participantSearchRepository.save(result);
+        searchOutboxService.scheduleIndex(Participant.class, result.getId());
         return ResponseEntity.created(new URI("/api/participants/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
@@ -84,23 +127,152 @@ public class ParticipantResource {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
         Participant result = participantRepository.save(participant);
-        participantSearchRepository.save(result);
+        searchOutboxService.scheduleIndex(Participant.class, result.getId());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, participant.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /participants/_bulk} : Create many new participants at once.
+     * <p>
+     * Each item is validated on its own and reported in the response body, so that a single invalid item does not
+     * fail the whole request.
+     *
+     * @param participants the participants to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each item, or with status {@code 400 (Bad Request)} if there are too many items.
+     */
+    @PostMapping("/participants/_bulk")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<List<BulkItemResultDTO>> createParticipants(@RequestBody List<Participant> participants) {
+        log.debug("REST request to save {} Participants", participants.size());
+        checkBulkSize(participants);
+        return ResponseEntity.ok(bulkEntityService.createAll(Participant.class, participants, Participant::getId));
+    }
+
+    /**
+     * {@code PUT  /participants/_bulk} : Updates many existing participants at once.
+     *
+     * @param participants the participants to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each item, or with status {@code 400 (Bad Request)} if there are too many items.
+     */
+    @PutMapping("/participants/_bulk")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<List<BulkItemResultDTO>> updateParticipants(@RequestBody List<Participant> participants) {
+        log.debug("REST request to update {} Participants", participants.size());
+        checkBulkSize(participants);
+        return ResponseEntity.ok(bulkEntityService.updateAll(Participant.class, participants, Participant::getId));
+    }
+
     /**
      * {@code GET  /participants} : get all the participants.
      *
+     * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of participants in body.
      */
     @GetMapping("/participants")
-    public List<Participant> getAllParticipants() {
+    public ResponseEntity<List<Participant>> getAllParticipants(Pageable pageable) {
+        log.debug("REST request to get a page of Participants");
+        Page<Participant> page = participantRepository.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /participants/summaries} : get a page of participants along with the names of their related entities.
+     * <p>
+     * The whole page is read with a single query, unlike the entities whose associations would be loaded one by one.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of participant summaries in body.
+     */
+    @GetMapping("/participants/summaries")
+    public ResponseEntity<List<ParticipantSummaryDTO>> getAllParticipantSummaries(Pageable pageable) {
+        log.debug("REST request to get a page of Participant summaries");
+        Page<ParticipantSummaryDTO> page = participantRepository.findAllSummaries(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /participants?after=:id&size=:size} : get the participants following the "id" one, ordered by id.
+     * <p>
+     * Keyset pagination does not degrade with the depth of the scroll, unlike the {@code page} parameter.
+     *
+     * @param after the id of the last participant already read, {@code 0} to start from the beginning.
+     * @param size the maximum number of participants to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of participants in body.
+     */
+    @GetMapping(value = "/participants", params = "after")
+    public ResponseEntity<List<Participant>> getAllParticipantsAfter(
+        @RequestParam Long after,
+        @RequestParam(defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get a slice of Participants after id {}", after);
+        Slice<Participant> slice = participantRepository.findByIdGreaterThan(after, KeysetPaginationUtil.keysetPageable(size));
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, Participant::getId);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /participants?unpaged=true} : get all the participants, without any pagination.
+     * <p>
+     * This loads the whole table in memory: it is only kept for clients which explicitly ask for it.
+     * Along with {@code after}, the keyset pagination wins, so that the two mappings never both match.
+     *
+     * @return the list of participants.
+     */
+    @GetMapping(value = "/participants", params = { "unpaged=true", "!after" })
+    public List<Participant> getAllParticipantsUnpaged() {
         log.debug("REST request to get all Participants");
         return participantRepository.findAll();
     }
 
+    /**
+     * {@code GET  /participants/_export?format=ndjson|csv} : export all the participants.
+     * <p>
+     * Rows are written to the response as they are read from the database, so that exporting a large table does not
+     * load it in memory.
+     *
+     * @param format the format of the export, {@code ndjson} (default) or {@code csv}.
+     * @param response the response to write the participants to.
+     * @throws IOException if the response could not be written.
+     */
+    @GetMapping("/participants/_export")
+    @Transactional(readOnly = true)
+    public void exportParticipants(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export Participants as {}", format);
+        ExportFormat exportFormat = ExportFormat
+            .fromExtension(format)
+            .orElseThrow(() -> new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "exportformatinvalid"));
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"participants." + exportFormat.getExtension() + "\"");
+        try (Stream<Participant> participants = participantRepository.streamAllBy()) {
+            entityExportService.export(Participant.class, participants, exportFormat, response.getOutputStream());
+        }
+    }
+
+    /**
+     * {@code POST  /participants/_import} : import participants from a CSV file, in the format of the CSV export.
+     * <p>
+     * Rows are written in chunks as the file is read, and rows which cannot be imported are reported instead of
+     * failing the whole import.
+     *
+     * @param inputStream the CSV file.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the import, or with status {@code 400 (Bad Request)} if the CSV header is invalid.
+     * @throws IOException if the request body could not be read.
+     */
+    @PostMapping(value = "/participants/_import", consumes = "text/csv")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<ImportReportDTO> importParticipants(InputStream inputStream) throws IOException {
+        log.debug("REST request to import Participants");
+        try {
+            return ResponseEntity.ok(csvImportService.importParticipants(inputStream));
+        } catch (InvalidCsvHeaderException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importheaderinvalid");
+        }
+    }
+
     /**
      * {@code GET  /participants/:id} : get the "id" participant.
      *
@@ -124,22 +296,75 @@ public class ParticipantResource {
     public ResponseEntity<Void> deleteParticipant(@PathVariable Long id) {
         log.debug("REST request to delete Participant : {}", id);
         participantRepository.deleteById(id);
-        participantSearchRepository.deleteById(id);
+        searchOutboxService.scheduleDelete(Participant.class, id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString())).build();
     }
 
+    /**
+     * {@code DELETE  /participants/_bulk} : delete many participants at once.
+     *
+     * @param ids the ids of the participants to delete.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each item, or with status {@code 400 (Bad Request)} if there are too many items.
+     */
+    @DeleteMapping("/participants/_bulk")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<List<BulkItemResultDTO>> deleteParticipants(@RequestBody List<Long> ids) {
+        log.debug("REST request to delete {} Participants", ids.size());
+        checkBulkSize(ids);
+        return ResponseEntity.ok(bulkEntityService.deleteAll(Participant.class, ids));
+    }
+
     /**
      * {@code SEARCH  /_search/participants?query=:query} : search for the participant corresponding
      * to the query.
      *
      * @param query the query of the participant search.
-     * @return the result of the search.
+     * @param fields the fields of the participant to return, all of them if not set.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of participants in body, or with status {@code 400 (Bad Request)} if the page is beyond the result window.
      */
     @GetMapping("/_search/participants")
-    public List<Participant> searchParticipants(@RequestParam String query) {
-        log.debug("REST request to search Participants for query {}", query);
-        return StreamSupport
-            .stream(participantSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-        .collect(Collectors.toList());
+    public ResponseEntity<List<Participant>> searchParticipants(@RequestParam String query, @RequestParam(required = false) List<String> fields, Pageable pageable) {
+        log.debug("REST request to search for a page of Participants for query {}", query);
+        Page<Participant> page = searchQueryService.search(Participant.class, participantSearchRepository, query, pageable, fields);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code SEARCH  /_search/participants?query=:query&after=:cursor} : search for the participants following the cursor.
+     * <p>
+     * Unlike the {@code page} parameter, the cursor can go beyond the result window: start with an empty cursor, then
+     * follow the {@code next} link.
+     *
+     * @param query the query of the participant search.
+     * @param after the cursor returned with the previous page, empty for the first page.
+     * @param size the maximum number of participants to return.
+     * @param fields the fields of the participant to return, all of them if not set.
+     * @param sort the sort of the hits, by score if not set.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of participants in body.
+     */
+    @GetMapping(value = "/_search/participants", params = "after")
+    public ResponseEntity<List<Participant>> searchParticipantsAfter(
+        @RequestParam String query,
+        @RequestParam String after,
+        @RequestParam(defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size,
+        @RequestParam(required = false) List<String> fields,
+        Sort sort
+    ) {
+        log.debug("REST request to search for Participants for query {} after {}", query, after);
+        SearchAfterPageDTO<Participant> page = searchQueryService.searchAfter(Participant.class, query, after, size, sort, fields);
+        HttpHeaders headers = KeysetPaginationUtil.generateSearchAfterHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    private void checkBulkSize(List<?> items) {
+        if (items.size() > bulkEntityService.getMaxItems()) {
+            throw new BadRequestAlertException(
+                "A bulk request cannot hold more than " + bulkEntityService.getMaxItems() + " items",
+                ENTITY_NAME,
+                "bulktoolarge"
+            );
+        }
     }
 }
@@ -0,0 +1,62 @@
+package com.superleague.microservice.web.rest;
+
+import com.superleague.microservice.security.AuthoritiesConstants;
+import com.superleague.microservice.service.SearchReindexService;
+import com.superleague.microservice.service.dto.ReindexStatusDTO;
+import com.superleague.microservice.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for rebuilding the Elasticsearch indices.
+ */
+@RestController
+@RequestMapping("/api")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class SearchReindexResource {
+    private static final String ENTITY_NAME = "superleagueSearchReindex";
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexResource.class);
+
+    private final SearchReindexService searchReindexService;
+
+    public SearchReindexResource(SearchReindexService searchReindexService) {
+        this.searchReindexService = searchReindexService;
+    }
+
+    /**
+     * {@code POST  /_reindex/:type} : start to rebuild the index of the "type" entity, e.g. {@code Batch}.
+     *
+     * @param type the simple class name of the entity to reindex.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the status of the reindex, or with status {@code 400 (Bad Request)} if the entity is not indexed or is already being reindexed.
+     */
+    @PostMapping("/_reindex/{type}")
+    public ResponseEntity<ReindexStatusDTO> reindex(@PathVariable String type) {
+        log.debug("REST request to reindex {}", type);
+        Class<?> entityClass = searchReindexService.getIndexedTypes().get(type);
+        if (entityClass == null) {
+            throw new BadRequestAlertException("Unknown indexed type", ENTITY_NAME, "typeinvalid");
+        }
+        Optional<ReindexStatusDTO> status = searchReindexService.start(entityClass);
+        return status
+            .map(body -> ResponseEntity.status(HttpStatus.ACCEPTED).body(body))
+            .orElseThrow(() -> new BadRequestAlertException("A reindex is already running", ENTITY_NAME, "reindexrunning"));
+    }
+
+    /**
+     * {@code GET  /_reindex} : get the progress of the last reindex of each entity.
+     *
+     * @return the list of reindex statuses.
+     */
+    @GetMapping("/_reindex")
+    public List<ReindexStatusDTO> getReindexStatuses() {
+        log.debug("REST request to get the reindex statuses");
+        return searchReindexService.getStatuses();
+    }
+}
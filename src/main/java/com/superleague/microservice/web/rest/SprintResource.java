@@ -3,26 +3,38 @@ package com.superleague.microservice.web.rest;
 import com.superleague.microservice.domain.Sprint;
 import com.superleague.microservice.repository.SprintRepository;
 import com.superleague.microservice.repository.search.SprintSearchRepository;
+import com.superleague.microservice.service.EntityExportService;
+import com.superleague.microservice.service.EntityExportService.ExportFormat;
+import com.superleague.microservice.service.SearchOutboxService;
+import com.superleague.microservice.service.SearchQueryService;
+import com.superleague.microservice.service.dto.SearchAfterPageDTO;
 import com.superleague.microservice.web.rest.errors.BadRequestAlertException;
+import com.superleague.microservice.web.rest.util.KeysetPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
+import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
+import java.util.stream.Stream;
 
 /**
  * REST controller for managing {@link com.superleague.microservice.domain.Sprint}.
@@ -43,9 +55,24 @@ public class SprintResource {
 
     private final SprintSearchRepository sprintSearchRepository;
 
-    public SprintResource(SprintRepository sprintRepository, SprintSearchRepository sprintSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final EntityExportService entityExportService;
+
+    private final SearchQueryService searchQueryService;
+
+    public SprintResource(
+        SprintRepository sprintRepository,
+        SprintSearchRepository sprintSearchRepository,
+        SearchOutboxService searchOutboxService,
+        EntityExportService entityExportService,
+        SearchQueryService searchQueryService
+    ) {
         this.sprintRepository = sprintRepository;
         this.sprintSearchRepository = sprintSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.entityExportService = entityExportService;
+        this.searchQueryService = searchQueryService;
     }
 
     /**
@@ -62,7 +89,7 @@ public class SprintResource {
             throw new BadRequestAlertException("A new sprint cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Sprint result = sprintRepository.save(sprint);
-        sprintSearchRepository.save(result);
+        searchOutboxService.scheduleIndex(Sprint.class, result.getId());
         return ResponseEntity.created(new URI("/api/sprints/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
@@ -84,7 +111,7 @@ public class SprintResource {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
         Sprint result = sprintRepository.save(sprint);
-        sprintSearchRepository.save(result);
+        searchOutboxService.scheduleIndex(Sprint.class, result.getId());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, sprint.getId().toString()))
             .body(result);
@@ -93,14 +120,75 @@ public class SprintResource {
     /**
      * {@code GET  /sprints} : get all the sprints.
      *
+     * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sprints in body.
      */
     @GetMapping("/sprints")
-    public List<Sprint> getAllSprints() {
+    public ResponseEntity<List<Sprint>> getAllSprints(Pageable pageable) {
+        log.debug("REST request to get a page of Sprints");
+        Page<Sprint> page = sprintRepository.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /sprints?after=:id&size=:size} : get the sprints following the "id" one, ordered by id.
+     * <p>
+     * Keyset pagination does not degrade with the depth of the scroll, unlike the {@code page} parameter.
+     *
+     * @param after the id of the last sprint already read, {@code 0} to start from the beginning.
+     * @param size the maximum number of sprints to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sprints in body.
+     */
+    @GetMapping(value = "/sprints", params = "after")
+    public ResponseEntity<List<Sprint>> getAllSprintsAfter(
+        @RequestParam Long after,
+        @RequestParam(defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get a slice of Sprints after id {}", after);
+        Slice<Sprint> slice = sprintRepository.findByIdGreaterThan(after, KeysetPaginationUtil.keysetPageable(size));
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, Sprint::getId);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /sprints?unpaged=true} : get all the sprints, without any pagination.
+     * <p>
+     * This loads the whole table in memory: it is only kept for clients which explicitly ask for it.
+     * Along with {@code after}, the keyset pagination wins, so that the two mappings never both match.
+     *
+     * @return the list of sprints.
+     */
+    @GetMapping(value = "/sprints", params = { "unpaged=true", "!after" })
+    public List<Sprint> getAllSprintsUnpaged() {
         log.debug("REST request to get all Sprints");
         return sprintRepository.findAll();
     }
 
+    /**
+     * {@code GET  /sprints/_export?format=ndjson|csv} : export all the sprints.
+     * <p>
+     * Rows are written to the response as they are read from the database, so that exporting a large table does not
+     * load it in memory.
+     *
+     * @param format the format of the export, {@code ndjson} (default) or {@code csv}.
+     * @param response the response to write the sprints to.
+     * @throws IOException if the response could not be written.
+     */
+    @GetMapping("/sprints/_export")
+    @Transactional(readOnly = true)
+    public void exportSprints(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export Sprints as {}", format);
+        ExportFormat exportFormat = ExportFormat
+            .fromExtension(format)
+            .orElseThrow(() -> new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "exportformatinvalid"));
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"sprints." + exportFormat.getExtension() + "\"");
+        try (Stream<Sprint> sprints = sprintRepository.streamAllBy()) {
+            entityExportService.export(Sprint.class, sprints, exportFormat, response.getOutputStream());
+        }
+    }
+
     /**
      * {@code GET  /sprints/:id} : get the "id" sprint.
      *
@@ -124,7 +212,7 @@ public class SprintResource {
     public ResponseEntity<Void> deleteSprint(@PathVariable Long id) {
         log.debug("REST request to delete Sprint : {}", id);
         sprintRepository.deleteById(id);
-        sprintSearchRepository.deleteById(id);
+        searchOutboxService.scheduleDelete(Sprint.class, id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString())).build();
     }
 
@@ -133,13 +221,42 @@ public class SprintResource {
      * to the query.
      *
      * @param query the query of the sprint search.
-     * @return the result of the search.
+     * @param fields the fields of the sprint to return, all of them if not set.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sprints in body, or with status {@code 400 (Bad Request)} if the page is beyond the result window.
      */
     @GetMapping("/_search/sprints")
-    public List<Sprint> searchSprints(@RequestParam String query) {
-        log.debug("REST request to search Sprints for query {}", query);
-        return StreamSupport
-            .stream(sprintSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-        .collect(Collectors.toList());
+    public ResponseEntity<List<Sprint>> searchSprints(@RequestParam String query, @RequestParam(required = false) List<String> fields, Pageable pageable) {
+        log.debug("REST request to search for a page of Sprints for query {}", query);
+        Page<Sprint> page = searchQueryService.search(Sprint.class, sprintSearchRepository, query, pageable, fields);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code SEARCH  /_search/sprints?query=:query&after=:cursor} : search for the sprints following the cursor.
+     * <p>
+     * Unlike the {@code page} parameter, the cursor can go beyond the result window: start with an empty cursor, then
+     * follow the {@code next} link.
+     *
+     * @param query the query of the sprint search.
+     * @param after the cursor returned with the previous page, empty for the first page.
+     * @param size the maximum number of sprints to return.
+     * @param fields the fields of the sprint to return, all of them if not set.
+     * @param sort the sort of the hits, by score if not set.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sprints in body.
+     */
+    @GetMapping(value = "/_search/sprints", params = "after")
+    public ResponseEntity<List<Sprint>> searchSprintsAfter(
+        @RequestParam String query,
+        @RequestParam String after,
+        @RequestParam(defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size,
+        @RequestParam(required = false) List<String> fields,
+        Sort sort
+    ) {
+        log.debug("REST request to search for Sprints for query {} after {}", query, after);
+        SearchAfterPageDTO<Sprint> page = searchQueryService.searchAfter(Sprint.class, query, after, size, sort, fields);
+        HttpHeaders headers = KeysetPaginationUtil.generateSearchAfterHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 }
@@ -3,26 +3,42 @@ package com.superleague.microservice.web.rest;
 import com.superleague.microservice.domain.SubjectMatterExpert;
 import com.superleague.microservice.repository.SubjectMatterExpertRepository;
 import com.superleague.microservice.repository.search.SubjectMatterExpertSearchRepository;
+import com.superleague.microservice.service.BulkEntityService;
+import com.superleague.microservice.service.EntityExportService;
+import com.superleague.microservice.service.EntityExportService.ExportFormat;
+import com.superleague.microservice.service.SearchOutboxService;
+import com.superleague.microservice.service.SearchQueryService;
+import com.superleague.microservice.service.dto.BulkItemResultDTO;
+import com.superleague.microservice.service.dto.SubjectMatterExpertSummaryDTO;
+import com.superleague.microservice.service.dto.SearchAfterPageDTO;
 import com.superleague.microservice.web.rest.errors.BadRequestAlertException;
+import com.superleague.microservice.web.rest.util.KeysetPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
+import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
+import java.util.stream.Stream;
 
 /**
  * REST controller for managing {@link com.superleague.microservice.domain.SubjectMatterExpert}.
@@ -43,9 +59,28 @@ public class SubjectMatterExpertResource {
 
     private final SubjectMatterExpertSearchRepository subjectMatterExpertSearchRepository;
 
-    public SubjectMatterExpertResource(SubjectMatterExpertRepository subjectMatterExpertRepository, SubjectMatterExpertSearchRepository subjectMatterExpertSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final BulkEntityService bulkEntityService;
+
+    private final EntityExportService entityExportService;
+
+    private final SearchQueryService searchQueryService;
+
+    public SubjectMatterExpertResource(
+        SubjectMatterExpertRepository subjectMatterExpertRepository,
+        SubjectMatterExpertSearchRepository subjectMatterExpertSearchRepository,
+        SearchOutboxService searchOutboxService,
+        BulkEntityService bulkEntityService,
+        EntityExportService entityExportService,
+        SearchQueryService searchQueryService
+    ) {
         this.subjectMatterExpertRepository = subjectMatterExpertRepository;
         this.subjectMatterExpertSearchRepository = subjectMatterExpertSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.bulkEntityService = bulkEntityService;
+        this.entityExportService = entityExportService;
+        this.searchQueryService = searchQueryService;
     }
 
     /**
@@ -62,7 +97,7 @@ public class SubjectMatterExpertResource {
             throw new BadRequestAlertException("A new subjectMatterExpert cannot already have an ID", ENTITY_NAME, "idexists");
         }
         SubjectMatterExpert result = subjectMatterExpertRepository.save(subjectMatterExpert);
-        subjectMatterExpertSearchRepository.save(result);
+        searchOutboxService.scheduleIndex(SubjectMatterExpert.class, result.getId());
         return ResponseEntity.created(new URI("/api/subject-matter-experts/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
@@ -84,23 +119,131 @@ public class SubjectMatterExpertResource {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
         SubjectMatterExpert result = subjectMatterExpertRepository.save(subjectMatterExpert);
-        subjectMatterExpertSearchRepository.save(result);
+        searchOutboxService.scheduleIndex(SubjectMatterExpert.class, result.getId());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, subjectMatterExpert.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /subject-matter-experts/_bulk} : Create many new subject matter experts at once.
+     * <p>
+     * Each item is validated on its own and reported in the response body, so that a single invalid item does not
+     * fail the whole request.
+     *
+     * @param subjectMatterExperts the subject matter experts to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each item, or with status {@code 400 (Bad Request)} if there are too many items.
+     */
+    @PostMapping("/subject-matter-experts/_bulk")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<List<BulkItemResultDTO>> createSubjectMatterExperts(@RequestBody List<SubjectMatterExpert> subjectMatterExperts) {
+        log.debug("REST request to save {} SubjectMatterExperts", subjectMatterExperts.size());
+        checkBulkSize(subjectMatterExperts);
+        return ResponseEntity.ok(bulkEntityService.createAll(SubjectMatterExpert.class, subjectMatterExperts, SubjectMatterExpert::getId));
+    }
+
+    /**
+     * {@code PUT  /subject-matter-experts/_bulk} : Updates many existing subject matter experts at once.
+     *
+     * @param subjectMatterExperts the subject matter experts to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each item, or with status {@code 400 (Bad Request)} if there are too many items.
+     */
+    @PutMapping("/subject-matter-experts/_bulk")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<List<BulkItemResultDTO>> updateSubjectMatterExperts(@RequestBody List<SubjectMatterExpert> subjectMatterExperts) {
+        log.debug("REST request to update {} SubjectMatterExperts", subjectMatterExperts.size());
+        checkBulkSize(subjectMatterExperts);
+        return ResponseEntity.ok(bulkEntityService.updateAll(SubjectMatterExpert.class, subjectMatterExperts, SubjectMatterExpert::getId));
+    }
+
     /**
      * {@code GET  /subject-matter-experts} : get all the subjectMatterExperts.
      *
+     * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of subjectMatterExperts in body.
      */
     @GetMapping("/subject-matter-experts")
-    public List<SubjectMatterExpert> getAllSubjectMatterExperts() {
+    public ResponseEntity<List<SubjectMatterExpert>> getAllSubjectMatterExperts(Pageable pageable) {
+        log.debug("REST request to get a page of SubjectMatterExperts");
+        Page<SubjectMatterExpert> page = subjectMatterExpertRepository.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /subject-matter-experts/summaries} : get a page of subjectMatterExperts along with the names of their related entities.
+     * <p>
+     * The whole page is read with a single query, unlike the entities whose associations would be loaded one by one.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of subjectMatterExpert summaries in body.
+     */
+    @GetMapping("/subject-matter-experts/summaries")
+    public ResponseEntity<List<SubjectMatterExpertSummaryDTO>> getAllSubjectMatterExpertSummaries(Pageable pageable) {
+        log.debug("REST request to get a page of SubjectMatterExpert summaries");
+        Page<SubjectMatterExpertSummaryDTO> page = subjectMatterExpertRepository.findAllSummaries(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /subject-matter-experts?after=:id&size=:size} : get the subjectMatterExperts following the "id" one, ordered by id.
+     * <p>
+     * Keyset pagination does not degrade with the depth of the scroll, unlike the {@code page} parameter.
+     *
+     * @param after the id of the last subjectMatterExpert already read, {@code 0} to start from the beginning.
+     * @param size the maximum number of subjectMatterExperts to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of subjectMatterExperts in body.
+     */
+    @GetMapping(value = "/subject-matter-experts", params = "after")
+    public ResponseEntity<List<SubjectMatterExpert>> getAllSubjectMatterExpertsAfter(
+        @RequestParam Long after,
+        @RequestParam(defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get a slice of SubjectMatterExperts after id {}", after);
+        Slice<SubjectMatterExpert> slice = subjectMatterExpertRepository.findByIdGreaterThan(after, KeysetPaginationUtil.keysetPageable(size));
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, SubjectMatterExpert::getId);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /subject-matter-experts?unpaged=true} : get all the subjectMatterExperts, without any pagination.
+     * <p>
+     * This loads the whole table in memory: it is only kept for clients which explicitly ask for it.
+     * Along with {@code after}, the keyset pagination wins, so that the two mappings never both match.
+     *
+     * @return the list of subjectMatterExperts.
+     */
+    @GetMapping(value = "/subject-matter-experts", params = { "unpaged=true", "!after" })
+    public List<SubjectMatterExpert> getAllSubjectMatterExpertsUnpaged() {
         log.debug("REST request to get all SubjectMatterExperts");
         return subjectMatterExpertRepository.findAll();
     }
 
+    /**
+     * {@code GET  /subject-matter-experts/_export?format=ndjson|csv} : export all the subjectMatterExperts.
+     * <p>
+     * Rows are written to the response as they are read from the database, so that exporting a large table does not
+     * load it in memory.
+     *
+     * @param format the format of the export, {@code ndjson} (default) or {@code csv}.
+     * @param response the response to write the subjectMatterExperts to.
+     * @throws IOException if the response could not be written.
+     */
+    @GetMapping("/subject-matter-experts/_export")
+    @Transactional(readOnly = true)
+    public void exportSubjectMatterExperts(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export SubjectMatterExperts as {}", format);
+        ExportFormat exportFormat = ExportFormat
+            .fromExtension(format)
+            .orElseThrow(() -> new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "exportformatinvalid"));
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"subject-matter-experts." + exportFormat.getExtension() + "\"");
+        try (Stream<SubjectMatterExpert> subjectMatterExperts = subjectMatterExpertRepository.streamAllBy()) {
+            entityExportService.export(SubjectMatterExpert.class, subjectMatterExperts, exportFormat, response.getOutputStream());
+        }
+    }
+
     /**
      * {@code GET  /subject-matter-experts/:id} : get the "id" subjectMatterExpert.
      *
@@ -124,22 +267,75 @@ public class SubjectMatterExpertResource {
     public ResponseEntity<Void> deleteSubjectMatterExpert(@PathVariable Long id) {
         log.debug("REST request to delete SubjectMatterExpert : {}", id);
         subjectMatterExpertRepository.deleteById(id);
-        subjectMatterExpertSearchRepository.deleteById(id);
+        searchOutboxService.scheduleDelete(SubjectMatterExpert.class, id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString())).build();
     }
 
+    /**
+     * {@code DELETE  /subject-matter-experts/_bulk} : delete many subject matter experts at once.
+     *
+     * @param ids the ids of the subject matter experts to delete.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each item, or with status {@code 400 (Bad Request)} if there are too many items.
+     */
+    @DeleteMapping("/subject-matter-experts/_bulk")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<List<BulkItemResultDTO>> deleteSubjectMatterExperts(@RequestBody List<Long> ids) {
+        log.debug("REST request to delete {} SubjectMatterExperts", ids.size());
+        checkBulkSize(ids);
+        return ResponseEntity.ok(bulkEntityService.deleteAll(SubjectMatterExpert.class, ids));
+    }
+
     /**
      * {@code SEARCH  /_search/subject-matter-experts?query=:query} : search for the subjectMatterExpert corresponding
      * to the query.
      *
      * @param query the query of the subjectMatterExpert search.
-     * @return the result of the search.
+     * @param fields the fields of the subjectMatterExpert to return, all of them if not set.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of subject-matter-experts in body, or with status {@code 400 (Bad Request)} if the page is beyond the result window.
      */
     @GetMapping("/_search/subject-matter-experts")
-    public List<SubjectMatterExpert> searchSubjectMatterExperts(@RequestParam String query) {
-        log.debug("REST request to search SubjectMatterExperts for query {}", query);
-        return StreamSupport
-            .stream(subjectMatterExpertSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-        .collect(Collectors.toList());
+    public ResponseEntity<List<SubjectMatterExpert>> searchSubjectMatterExperts(@RequestParam String query, @RequestParam(required = false) List<String> fields, Pageable pageable) {
+        log.debug("REST request to search for a page of SubjectMatterExperts for query {}", query);
+        Page<SubjectMatterExpert> page = searchQueryService.search(SubjectMatterExpert.class, subjectMatterExpertSearchRepository, query, pageable, fields);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code SEARCH  /_search/subject-matter-experts?query=:query&after=:cursor} : search for the subject-matter-experts following the cursor.
+     * <p>
+     * Unlike the {@code page} parameter, the cursor can go beyond the result window: start with an empty cursor, then
+     * follow the {@code next} link.
+     *
+     * @param query the query of the subjectMatterExpert search.
+     * @param after the cursor returned with the previous page, empty for the first page.
+     * @param size the maximum number of subject-matter-experts to return.
+     * @param fields the fields of the subjectMatterExpert to return, all of them if not set.
+     * @param sort the sort of the hits, by score if not set.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of subject-matter-experts in body.
+     */
+    @GetMapping(value = "/_search/subject-matter-experts", params = "after")
+    public ResponseEntity<List<SubjectMatterExpert>> searchSubjectMatterExpertsAfter(
+        @RequestParam String query,
+        @RequestParam String after,
+        @RequestParam(defaultValue = "" + KeysetPaginationUtil.DEFAULT_SIZE) int size,
+        @RequestParam(required = false) List<String> fields,
+        Sort sort
+    ) {
+        log.debug("REST request to search for SubjectMatterExperts for query {} after {}", query, after);
+        SearchAfterPageDTO<SubjectMatterExpert> page = searchQueryService.searchAfter(SubjectMatterExpert.class, query, after, size, sort, fields);
+        HttpHeaders headers = KeysetPaginationUtil.generateSearchAfterHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    private void checkBulkSize(List<?> items) {
+        if (items.size() > bulkEntityService.getMaxItems()) {
+            throw new BadRequestAlertException(
+                "A bulk request cannot hold more than " + bulkEntityService.getMaxItems() + " items",
+                ENTITY_NAME,
+                "bulktoolarge"
+            );
+        }
     }
 }
@@ -1,19 +1,16 @@
 package com.superleague.microservice.web.rest;
 
-import static org.elasticsearch.index.query.QueryBuilders.*;
-
 import com.superleague.microservice.config.Constants;
 import com.superleague.microservice.domain.User;
 import com.superleague.microservice.repository.search.UserSearchRepository;
 import com.superleague.microservice.security.AuthoritiesConstants;
+import com.superleague.microservice.service.SearchQueryService;
 import com.superleague.microservice.service.UserService;
 import com.superleague.microservice.service.dto.UserDTO;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -62,9 +59,12 @@ public class UserResource {
 
     private final UserSearchRepository userSearchRepository;
 
-    public UserResource(UserService userService, UserSearchRepository userSearchRepository) {
+    private final SearchQueryService searchQueryService;
+
+    public UserResource(UserService userService, UserSearchRepository userSearchRepository, SearchQueryService searchQueryService) {
         this.userService = userService;
         this.userSearchRepository = userSearchRepository;
+        this.searchQueryService = searchQueryService;
     }
 
     /**
@@ -106,10 +106,13 @@ public class UserResource {
      * {@code SEARCH /_search/users/:query} : search for the User corresponding to the query.
      *
      * @param query the query to search.
-     * @return the result of the search.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of users in body, or with status {@code 400 (Bad Request)} if the page is beyond the result window.
      */
     @GetMapping("/_search/users/{query}")
-    public List<User> search(@PathVariable String query) {
-        return StreamSupport.stream(userSearchRepository.search(queryStringQuery(query)).spliterator(), false).collect(Collectors.toList());
+    public ResponseEntity<List<User>> search(@PathVariable String query, Pageable pageable) {
+        Page<User> page = searchQueryService.search(User.class, userSearchRepository, query, pageable, null);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 }
@@ -1,5 +1,6 @@
 package com.superleague.microservice.web.rest.errors;
 
+import com.superleague.microservice.service.InvalidSearchQueryException;
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.web.util.HeaderUtil;
 import java.net.URI;
@@ -114,6 +115,17 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         );
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleInvalidSearchQueryException(InvalidSearchQueryException ex, NativeWebRequest request) {
+        Problem problem = Problem
+            .builder()
+            .withStatus(Status.BAD_REQUEST)
+            .withTitle(ex.getMessage())
+            .with(MESSAGE_KEY, "error." + ex.getErrorKey())
+            .build();
+        return create(ex, problem, request);
+    }
+
     @ExceptionHandler
     public ResponseEntity<Problem> handleConcurrencyFailure(ConcurrencyFailureException ex, NativeWebRequest request) {
         Problem problem = Problem.builder().withStatus(Status.CONFLICT).with(MESSAGE_KEY, ErrorConstants.ERR_CONCURRENCY_FAILURE).build();
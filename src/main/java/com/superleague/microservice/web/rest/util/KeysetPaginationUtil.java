@@ -0,0 +1,91 @@
+package com.superleague.microservice.web.rest.util;
+
+import com.superleague.microservice.service.dto.SearchAfterPageDTO;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (a.k.a. seek) pagination.
+ * <p>
+ * Instead of an {@code OFFSET}, the client sends the id of the last row it has seen ({@code ?after=<id>&size=<n>}),
+ * so that the database can start reading from the primary key index directly, whatever the depth of the scroll.
+ * The link to the next slice is sent in the
+ * <a href="https://tools.ietf.org/html/rfc5988">Link header</a>, like with {@link io.github.jhipster.web.util.PaginationUtil}.
+ */
+public final class KeysetPaginationUtil {
+    public static final int DEFAULT_SIZE = 20;
+
+    public static final int MAX_SIZE = 2000;
+
+    private static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
+    private static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Build the {@link Pageable} used to read one keyset slice, ordered by ascending id.
+     *
+     * @param size the requested slice size, capped to {@link #MAX_SIZE}.
+     * @return the {@link Pageable} to pass to the repository.
+     */
+    public static Pageable keysetPageable(int size) {
+        int boundedSize = Math.max(1, Math.min(size, MAX_SIZE));
+        return PageRequest.of(0, boundedSize, Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    /**
+     * Generate the pagination headers for a keyset slice.
+     *
+     * @param uriBuilder the current request URI.
+     * @param slice the slice returned by the repository.
+     * @param idExtractor the function returning the id of an element of the slice.
+     * @param <T> the type of the elements.
+     * @return the {@link HttpHeaders}, with a {@code next} link if there is more data to read.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice, Function<T, Long> idExtractor) {
+        HttpHeaders headers = new HttpHeaders();
+        List<T> content = slice.getContent();
+        if (slice.hasNext() && !content.isEmpty()) {
+            Long lastId = idExtractor.apply(content.get(content.size() - 1));
+            String next = uriBuilder
+                .replaceQueryParam("after", lastId)
+                .replaceQueryParam("size", slice.getSize())
+                .toUriString()
+                .replace(",", "%2C")
+                .replace(";", "%3B");
+            headers.add(HEADER_NEXT_CURSOR, lastId.toString());
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+
+    /**
+     * Generate the pagination headers for a page of search hits read with a {@code search_after} cursor.
+     *
+     * @param uriBuilder the current request URI.
+     * @param page the page of hits.
+     * @return the {@link HttpHeaders}, with the total number of hits, and a {@code next} link if there are more hits to read.
+     */
+    public static HttpHeaders generateSearchAfterHttpHeaders(UriComponentsBuilder uriBuilder, SearchAfterPageDTO<?> page) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HEADER_X_TOTAL_COUNT, Long.toString(page.getTotalHits()));
+        if (page.getNextCursor() != null) {
+            String next = uriBuilder
+                .replaceQueryParam("after", page.getNextCursor())
+                .replaceQueryParam("size", page.getSize())
+                .toUriString()
+                .replace(",", "%2C")
+                .replace(";", "%3B");
+            headers.add(HEADER_NEXT_CURSOR, page.getNextCursor());
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,93 @@
+package com.superleague.microservice.aop.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.domain.Course;
+import com.superleague.microservice.service.SearchResultCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * Unit tests for the {@link TimingAspect} class.
+ */
+public class TimingAspectTest {
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        applicationProperties = new ApplicationProperties();
+    }
+
+    @Test
+    public void testMethodsAreTimed() {
+        SearchResultCache searchResultCache = proxy();
+
+        searchResultCache.getGeneration(Course.class);
+        searchResultCache.getGeneration(Course.class);
+
+        Timer timer = meterRegistry
+            .get(TimingAspect.METRIC_NAME)
+            .tag("class", "SearchResultCache")
+            .tag("method", "getGeneration")
+            .tag("outcome", "success")
+            .timer();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFailuresAreTimedApart() {
+        SearchResultCache searchResultCache = proxy();
+
+        try {
+            searchResultCache.get(
+                Course.class,
+                "*",
+                Collections.emptyList(),
+                () -> {
+                    throw new IllegalStateException("search failed");
+                }
+            );
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertThat(meterRegistry.get(TimingAspect.METRIC_NAME).tag("method", "get").tag("outcome", "error").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void testExcludedMethodsAreNotTimed() {
+        applicationProperties.getTiming().getExcludes().add("**.SearchResultCache.getGeneration");
+        SearchResultCache searchResultCache = proxy();
+
+        searchResultCache.getGeneration(Course.class);
+
+        assertThat(meterRegistry.find(TimingAspect.METRIC_NAME).timers()).isEmpty();
+    }
+
+    @Test
+    public void testUnsampledCallsAreNotTimed() {
+        applicationProperties.getTiming().setSampleRate(0);
+        SearchResultCache searchResultCache = proxy();
+
+        searchResultCache.getGeneration(Course.class);
+
+        assertThat(meterRegistry.get(TimingAspect.METRIC_NAME).tag("method", "getGeneration").timer().count()).isZero();
+    }
+
+    private SearchResultCache proxy() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new SearchResultCache(applicationProperties, new SimpleMeterRegistry()));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new TimingAspect(meterRegistry, applicationProperties));
+        return proxyFactory.getProxy();
+    }
+}
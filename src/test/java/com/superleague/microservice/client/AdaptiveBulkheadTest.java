@@ -0,0 +1,82 @@
+package com.superleague.microservice.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link AdaptiveBulkhead} class.
+ */
+public class AdaptiveBulkheadTest {
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+
+    private static final long SLOW = Duration.ofSeconds(5).toNanos();
+
+    private ApplicationProperties.Bulkhead properties;
+
+    @BeforeEach
+    public void setup() {
+        properties = new ApplicationProperties.Bulkhead();
+        properties.setInitialLimit(4);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(6);
+        properties.setBackoffRatio(0.5);
+        properties.setLatencyThreshold(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void testCallsOverTheLimitAreRejected() {
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead(properties);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(bulkhead.tryAcquire()).isTrue();
+        }
+        assertThat(bulkhead.tryAcquire()).isFalse();
+
+        bulkhead.onComplete(FAST, false);
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(bulkhead.getInFlight()).isEqualTo(4);
+    }
+
+    @Test
+    public void testLimitGrowsWithBusyGoodCalls() {
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead(properties);
+
+        for (int i = 0; i < 10; i++) {
+            bulkhead.tryAcquire();
+            bulkhead.tryAcquire();
+            bulkhead.onComplete(FAST, false);
+            bulkhead.onComplete(FAST, false);
+        }
+
+        assertThat(bulkhead.getLimit()).isEqualTo(6);
+    }
+
+    @Test
+    public void testLimitDoesNotGrowWhenMostlyIdle() {
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead(properties);
+
+        for (int i = 0; i < 10; i++) {
+            bulkhead.tryAcquire();
+            bulkhead.onComplete(FAST, false);
+        }
+
+        assertThat(bulkhead.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void testLimitShrinksWithSlowOrFailedCalls() {
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead(properties);
+
+        bulkhead.tryAcquire();
+        bulkhead.onComplete(SLOW, false);
+        assertThat(bulkhead.getLimit()).isEqualTo(2);
+
+        bulkhead.tryAcquire();
+        bulkhead.onComplete(FAST, true);
+        assertThat(bulkhead.getLimit()).isEqualTo(2);
+    }
+}
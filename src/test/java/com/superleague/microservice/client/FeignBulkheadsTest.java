@@ -0,0 +1,175 @@
+package com.superleague.microservice.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link FeignBulkheads} class.
+ */
+public class FeignBulkheadsTest {
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private FeignBulkheads feignBulkheads;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Bulkhead slowService = new ApplicationProperties.Bulkhead();
+        slowService.setInitialLimit(1);
+        slowService.setMinLimit(1);
+        applicationProperties.getFeignClient().getBulkheads().getClients().put("slow-service", slowService);
+        feignBulkheads = new FeignBulkheads(applicationProperties, meterRegistry);
+    }
+
+    @Test
+    public void testCallsOverTheLimitOfTheirClientAreRejected() throws IOException {
+        Client next = (request, options) -> {
+            // A second call while the first one is in flight
+            assertThatThrownBy(() -> feignBulkheads.execute(request("slow-service"), options, (r, o) -> response(r, 200)))
+                .isInstanceOf(BulkheadFullException.class);
+            return response(request, 200);
+        };
+
+        assertThat(feignBulkheads.execute(request("slow-service"), new Request.Options(), next).status()).isEqualTo(200);
+
+        assertThat(meterRegistry.get("feign.client.bulkhead.rejected").tag("client", "slow-service").counter().count()).isEqualTo(1);
+        assertThat(feignBulkheads.getBulkhead("slow-service").getInFlight()).isZero();
+    }
+
+    @Test
+    public void testClientsHaveTheirOwnBulkheads() throws IOException {
+        feignBulkheads.execute(request("other-service"), new Request.Options(), (r, o) -> response(r, 200));
+
+        assertThat(feignBulkheads.getBulkhead("other-service").getLimit()).isEqualTo(20);
+        assertThat(meterRegistry.get("feign.client.bulkhead.limit").tag("client", "other-service").gauge().value()).isEqualTo(20);
+        assertThat(feignBulkheads.getBulkhead("slow-service")).isNull();
+    }
+
+    @Test
+    public void testOverloadedResponsesShrinkTheLimit() throws IOException {
+        feignBulkheads.execute(request("other-service"), new Request.Options(), (r, o) -> response(r, 503));
+
+        assertThat(feignBulkheads.getBulkhead("other-service").getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    public void testMarkerIsNeverSent() throws IOException {
+        feignBulkheads.execute(
+            request("other-service"),
+            new Request.Options(),
+            (r, o) -> {
+                assertThat(r.headers()).doesNotContainKey(FeignBulkheads.CLIENT_NAME_HEADER);
+                return response(r, 200);
+            }
+        );
+    }
+
+    @Test
+    public void testCoalescedCallsOnlyTakeThePermitOfTheRequestSent() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch requestSent = new CountDownLatch(1);
+        CountDownLatch releaseResponse = new CountDownLatch(1);
+        Client next = (request, options) -> {
+            calls.incrementAndGet();
+            requestSent.countDown();
+            try {
+                releaseResponse.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Response
+                .builder()
+                .status(200)
+                .request(request)
+                .headers(Collections.emptyMap())
+                .body("{\"login\":\"john\"}", StandardCharsets.UTF_8)
+                .build();
+        };
+        // In the order of the FeignConfiguration
+        RequestCoalescer requestCoalescer = new RequestCoalescer(applicationProperties, meterRegistry);
+        Client client = ClientFilter.chain(Arrays.asList(requestCoalescer, feignBulkheads), next);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Response> first = executor.submit(() -> client.execute(coalescedRequest("slow-service"), new Request.Options()));
+            assertThat(requestSent.await(5, TimeUnit.SECONDS)).isTrue();
+            // The limit of 1 is taken by the request in flight, which the second call waits for
+            Future<Response> second = executor.submit(() -> client.execute(coalescedRequest("slow-service"), new Request.Options()));
+            Thread.sleep(100);
+            releaseResponse.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+            assertThat(second.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+        } finally {
+            executor.shutdownNow();
+        }
+        int limit = feignBulkheads.getBulkhead("slow-service").getLimit();
+
+        // A cached response takes no permit and leaves the limit alone
+        assertThat(client.execute(coalescedRequest("slow-service"), new Request.Options()).status()).isEqualTo(200);
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(feignBulkheads.getBulkhead("slow-service").getLimit()).isEqualTo(limit);
+        assertThat(feignBulkheads.getBulkhead("slow-service").getInFlight()).isZero();
+        assertThat(meterRegistry.get("feign.client.bulkhead.rejected").tag("client", "slow-service").counter().count()).isZero();
+    }
+
+    @Test
+    public void testUnnamedRequestsAreLeftAlone() throws IOException {
+        Request request = Request.create(
+            Request.HttpMethod.GET,
+            "http://other-service/api/users",
+            Collections.emptyMap(),
+            null,
+            StandardCharsets.UTF_8,
+            null
+        );
+
+        feignBulkheads.execute(request, new Request.Options(), (r, o) -> response(r, 200));
+
+        assertThat(feignBulkheads.getBulkhead("other-service")).isNull();
+    }
+
+    private static Request request(String clientName) {
+        Map<String, Collection<String>> headers = new HashMap<>();
+        headers.put(FeignBulkheads.CLIENT_NAME_HEADER, Collections.singletonList(clientName));
+        return Request.create(Request.HttpMethod.GET, "http://" + clientName + "/api/users", headers, null, StandardCharsets.UTF_8, null);
+    }
+
+    private static Request coalescedRequest(String clientName) {
+        Map<String, Collection<String>> headers = new HashMap<>();
+        headers.put(FeignBulkheads.CLIENT_NAME_HEADER, Collections.singletonList(clientName));
+        headers.put(RequestCoalescer.MARKER_HEADER, Collections.singletonList(RequestCoalescer.DEFAULT_TTL));
+        headers.put("Authorization", Collections.singletonList("Bearer token"));
+        return Request.create(Request.HttpMethod.GET, "http://" + clientName + "/api/users/john", headers, null, StandardCharsets.UTF_8, null);
+    }
+
+    private static Response response(Request request, int status) {
+        return Response.builder().status(status).request(request).headers(Collections.emptyMap()).build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.superleague.microservice.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link FeignConnectionManager} class.
+ */
+public class FeignConnectionManagerTest {
+    private MeterRegistry meterRegistry;
+
+    private FeignConnectionManager connectionManager;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getFeignClient().setMaxConnectionsPerTarget(10);
+        applicationProperties.getFeignClient().getTargets().put("slow-service", 2);
+        applicationProperties.getFeignClient().getTargets().put("other-service:8443", 4);
+        applicationProperties.getFeignClient().setIdleTimeout(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        connectionManager = new FeignConnectionManager(applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        connectionManager.shutdown();
+    }
+
+    @Test
+    public void testTargetLimits() {
+        HttpRoute slowRoute = new HttpRoute(new HttpHost("slow-service", 8080));
+        HttpRoute otherRoute = new HttpRoute(new HttpHost("other-service", 8443));
+        HttpRoute defaultRoute = new HttpRoute(new HttpHost("default-service", 8080));
+
+        connectionManager.requestConnection(slowRoute, null).cancel();
+        connectionManager.requestConnection(otherRoute, null).cancel();
+        connectionManager.requestConnection(defaultRoute, null).cancel();
+
+        assertThat(connectionManager.getMaxPerRoute(slowRoute)).isEqualTo(2);
+        assertThat(connectionManager.getMaxPerRoute(otherRoute)).isEqualTo(4);
+        assertThat(connectionManager.getMaxPerRoute(defaultRoute)).isEqualTo(10);
+    }
+
+    @Test
+    public void testTargetGauges() {
+        connectionManager.requestConnection(new HttpRoute(new HttpHost("slow-service", 8080)), null).cancel();
+
+        assertThat(meterRegistry.get(FeignConnectionManager.METRIC_PREFIX + ".max").tag("target", "slow-service:8080").gauge().value())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get(FeignConnectionManager.METRIC_PREFIX + ".leased").tag("target", "slow-service:8080").gauge().value())
+            .isZero();
+    }
+
+    @Test
+    public void testUnusedRoutesAreForgotten() throws Exception {
+        HttpRoute usedRoute = new HttpRoute(new HttpHost("used-instance", 8080));
+        HttpRoute unusedRoute = new HttpRoute(new HttpHost("unused-instance", 8080));
+        HttpClientConnection connection = connectionManager.requestConnection(usedRoute, null).get(1, TimeUnit.SECONDS);
+        connectionManager.requestConnection(unusedRoute, null).cancel();
+        Timer.builder(TimedHttpRequestExecutor.METRIC_NAME).tag("target", "unused-instance:8080").register(meterRegistry);
+
+        connectionManager.removeUnusedRoutes();
+
+        assertThat(meterRegistry.find(FeignConnectionManager.METRIC_PREFIX + ".leased").tag("target", "used-instance:8080").gauge())
+            .isNotNull();
+        assertThat(meterRegistry.find(FeignConnectionManager.METRIC_PREFIX + ".leased").tag("target", "unused-instance:8080").gauge())
+            .isNull();
+        assertThat(meterRegistry.find(TimedHttpRequestExecutor.METRIC_NAME).tag("target", "unused-instance:8080").timer()).isNull();
+
+        // The gauges come back with the next request
+        connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+        connectionManager.requestConnection(unusedRoute, null).cancel();
+        assertThat(meterRegistry.find(FeignConnectionManager.METRIC_PREFIX + ".leased").tag("target", "unused-instance:8080").gauge())
+            .isNotNull();
+    }
+}
@@ -0,0 +1,59 @@
+package com.superleague.microservice.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.apache.http.HttpHeaders;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpEntityEnclosingRequest;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link GzipRequestInterceptor} class.
+ */
+public class GzipRequestInterceptorTest {
+    private static final String BODY = "{\"courseName\":\"Java\"}";
+
+    private final GzipRequestInterceptor interceptor = new GzipRequestInterceptor();
+
+    @Test
+    public void testMarkedBodyIsCompressed() throws IOException {
+        BasicHttpEntityEnclosingRequest request = new BasicHttpEntityEnclosingRequest("POST", "/api/courses");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setEntity(new StringEntity(BODY, ContentType.APPLICATION_JSON));
+
+        interceptor.process(request, new BasicHttpContext());
+
+        assertThat(request.containsHeader(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(request.getEntity().getContentEncoding().getValue()).isEqualTo("gzip");
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        request.getEntity().writeTo(compressed);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+            byte[] buffer = new byte[256];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                decompressed.write(buffer, 0, read);
+            }
+            assertThat(new String(decompressed.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+        }
+    }
+
+    @Test
+    public void testUnmarkedBodyIsLeftAlone() throws IOException {
+        BasicHttpEntityEnclosingRequest request = new BasicHttpEntityEnclosingRequest("POST", "/api/courses");
+        request.setEntity(new StringEntity(BODY, ContentType.APPLICATION_JSON));
+
+        interceptor.process(request, new BasicHttpContext());
+
+        assertThat(request.getEntity().getContentEncoding()).isNull();
+        assertThat(EntityUtils.toString(request.getEntity())).isEqualTo(BODY);
+    }
+}
@@ -0,0 +1,155 @@
+package com.superleague.microservice.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link RequestCoalescer} class.
+ */
+public class RequestCoalescerTest {
+    private static final String URL = "http://user-service/api/users/john";
+
+    private MeterRegistry meterRegistry;
+
+    private RequestCoalescer requestCoalescer;
+
+    private AtomicInteger calls;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestCoalescer = new RequestCoalescer(new ApplicationProperties(), meterRegistry);
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    public void testConcurrentCallsShareOneRequest() throws Exception {
+        CountDownLatch requestSent = new CountDownLatch(1);
+        CountDownLatch releaseResponse = new CountDownLatch(1);
+        Client next = (request, options) -> {
+            calls.incrementAndGet();
+            requestSent.countDown();
+            try {
+                releaseResponse.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return response(request, 200, "{\"login\":\"john\"}", null);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Response> first = executor.submit(() -> requestCoalescer.execute(request("GET", "token"), options(), next));
+            assertThat(requestSent.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Response> second = executor.submit(() -> requestCoalescer.execute(request("GET", "token"), options(), next));
+            // Give the second call the time to join the request in flight
+            Thread.sleep(100);
+            releaseResponse.countDown();
+
+            assertThat(body(first.get(5, TimeUnit.SECONDS))).isEqualTo("{\"login\":\"john\"}");
+            assertThat(body(second.get(5, TimeUnit.SECONDS))).isEqualTo("{\"login\":\"john\"}");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("feign.client.coalesced").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testResponsesAreCachedPerPrincipal() throws IOException {
+        Client next = (request, options) -> {
+            calls.incrementAndGet();
+            return response(request, 200, "{\"login\":\"john\"}", null);
+        };
+
+        requestCoalescer.execute(request("GET", "token"), options(), next);
+        requestCoalescer.execute(request("GET", "token"), options(), next);
+        assertThat(calls.get()).isEqualTo(1);
+
+        requestCoalescer.execute(request("GET", "other-token"), options(), next);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testNoStoreResponsesAreNotCached() throws IOException {
+        Client next = (request, options) -> {
+            calls.incrementAndGet();
+            return response(request, 200, "{\"login\":\"john\"}", "private, no-store");
+        };
+
+        requestCoalescer.execute(request("GET", "token"), options(), next);
+        requestCoalescer.execute(request("GET", "token"), options(), next);
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testErrorResponsesAreNotCached() throws IOException {
+        Client next = (request, options) -> {
+            calls.incrementAndGet();
+            return response(request, 503, "", null);
+        };
+
+        assertThat(requestCoalescer.execute(request("GET", "token"), options(), next).status()).isEqualTo(503);
+        requestCoalescer.execute(request("GET", "token"), options(), next);
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testMarkerIsNeverSent() throws IOException {
+        Client next = (request, options) -> {
+            assertThat(request.headers()).doesNotContainKey(RequestCoalescer.MARKER_HEADER);
+            calls.incrementAndGet();
+            return response(request, 200, "{}", null);
+        };
+
+        requestCoalescer.execute(request("GET", "token"), options(), next);
+
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    private static Request request(String method, String token) {
+        Map<String, Collection<String>> headers = new HashMap<>();
+        headers.put("Authorization", Collections.singletonList("Bearer " + token));
+        headers.put(RequestCoalescer.MARKER_HEADER, Collections.singletonList(RequestCoalescer.DEFAULT_TTL));
+        return Request.create(Request.HttpMethod.valueOf(method), URL, headers, null, StandardCharsets.UTF_8, null);
+    }
+
+    private static Request.Options options() {
+        return new Request.Options();
+    }
+
+    private static Response response(Request request, int status, String body, String cacheControl) {
+        Map<String, Collection<String>> headers = new HashMap<>();
+        if (cacheControl != null) {
+            headers.put("Cache-Control", Collections.singletonList(cacheControl));
+        }
+        return Response.builder().status(status).request(request).headers(headers).body(body, StandardCharsets.UTF_8).build();
+    }
+
+    private static String body(Response response) throws IOException {
+        return new String(Util.toByteArray(response.body().asInputStream()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,136 @@
+package com.superleague.microservice.config.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.domain.PersistentAuditEvent;
+import com.superleague.microservice.repository.PersistenceAuditEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Unit tests for the {@link AsyncAuditEventWriter} class.
+ */
+public class AsyncAuditEventWriterTest {
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private PlatformTransactionManager transactionManager;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private List<Integer> batchSizes;
+
+    private AsyncAuditEventWriter asyncAuditEventWriter;
+
+    @BeforeEach
+    public void setup() {
+        persistenceAuditEventRepository = mock(PersistenceAuditEventRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        batchSizes = new ArrayList<>();
+        when(persistenceAuditEventRepository.saveAll(anyList()))
+            .thenAnswer(
+                invocation -> {
+                    batchSizes.add(invocation.<List<?>>getArgument(0).size());
+                    return invocation.getArgument(0);
+                }
+            );
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getAudit().setBufferSize(5);
+        applicationProperties.getAudit().setFlushSize(2);
+        applicationProperties.getAudit().setOfferTimeout(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        asyncAuditEventWriter =
+            new AsyncAuditEventWriter(persistenceAuditEventRepository, transactionManager, applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        asyncAuditEventWriter.stop();
+    }
+
+    @Test
+    public void testFlushWritesInBatches() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(asyncAuditEventWriter.write(new PersistentAuditEvent())).isTrue();
+        }
+
+        asyncAuditEventWriter.flush();
+
+        assertThat(batchSizes).containsExactly(2, 2, 1);
+        verify(transactionManager, times(3)).commit(any());
+        assertThat(meterRegistry.get("audit.events.written").counter().count()).isEqualTo(5);
+        assertThat(asyncAuditEventWriter.getBufferedCount()).isZero();
+    }
+
+    @Test
+    public void testEventsAreDroppedWhenTheBufferIsFull() {
+        for (int i = 0; i < 5; i++) {
+            asyncAuditEventWriter.write(new PersistentAuditEvent());
+        }
+
+        assertThat(asyncAuditEventWriter.write(new PersistentAuditEvent())).isFalse();
+
+        assertThat(meterRegistry.get("audit.events.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("audit.events.buffered").gauge().value()).isEqualTo(5);
+    }
+
+    @Test
+    public void testFailedBatchesAreWrittenOneByOne() {
+        PersistentAuditEvent invalidEvent = new PersistentAuditEvent();
+        PersistentAuditEvent validEvent = new PersistentAuditEvent();
+        when(persistenceAuditEventRepository.saveAll(anyList())).thenThrow(new IllegalStateException("data too long"));
+        when(persistenceAuditEventRepository.save(invalidEvent)).thenThrow(new IllegalStateException("data too long"));
+        asyncAuditEventWriter.write(invalidEvent);
+        asyncAuditEventWriter.write(validEvent);
+
+        asyncAuditEventWriter.flush();
+
+        verify(persistenceAuditEventRepository).save(validEvent);
+        assertThat(meterRegistry.get("audit.events.written").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("audit.events.failed").counter().count()).isEqualTo(1);
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void testStopDrainsTheBuffer() {
+        asyncAuditEventWriter.start();
+        for (int i = 0; i < 3; i++) {
+            asyncAuditEventWriter.write(new PersistentAuditEvent());
+        }
+
+        asyncAuditEventWriter.stop();
+
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(3);
+        assertThat(asyncAuditEventWriter.getBufferedCount()).isZero();
+    }
+
+    @Test
+    public void testSynchronousWrite() {
+        applicationProperties.getAudit().setAsync(false);
+        PersistentAuditEvent event = new PersistentAuditEvent();
+
+        assertThat(asyncAuditEventWriter.write(event)).isTrue();
+
+        verify(persistenceAuditEventRepository).save(event);
+        // In a new transaction, not in the one of the caller
+        verify(transactionManager).getTransaction(argThat(definition -> definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager).commit(any());
+    }
+}
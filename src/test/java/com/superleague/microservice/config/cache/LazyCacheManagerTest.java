@@ -0,0 +1,55 @@
+package com.superleague.microservice.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/**
+ * Unit tests for the {@link LazyCacheManager} class.
+ */
+public class LazyCacheManagerTest {
+    private static final String CACHE_NAME = "test";
+
+    private AtomicInteger creations;
+
+    private LazyCacheManager lazyCacheManager;
+
+    @BeforeEach
+    public void setup() {
+        creations = new AtomicInteger();
+        lazyCacheManager =
+            new LazyCacheManager(
+                () -> {
+                    creations.incrementAndGet();
+                    return new ConcurrentMapCacheManager(CACHE_NAME);
+                },
+                Collections.singletonList(CACHE_NAME)
+            );
+    }
+
+    @Test
+    public void testCachesAreResolvedWithoutCreatingTheTarget() {
+        assertThat(lazyCacheManager.getCacheNames()).containsExactly(CACHE_NAME);
+        Cache cache = lazyCacheManager.getCache(CACHE_NAME);
+
+        assertThat(cache.getName()).isEqualTo(CACHE_NAME);
+        assertThat(lazyCacheManager.getCache("unknown")).isNull();
+        assertThat(creations.get()).isZero();
+    }
+
+    @Test
+    public void testTargetIsCreatedOnceOnFirstOperation() {
+        Cache cache = lazyCacheManager.getCache(CACHE_NAME);
+
+        cache.put("key", "value");
+
+        assertThat(cache.get("key", String.class)).isEqualTo("value");
+        assertThat(lazyCacheManager.getCache(CACHE_NAME).get("key", String.class)).isEqualTo("value");
+        assertThat(creations.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,133 @@
+package com.superleague.microservice.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/**
+ * Unit tests for the {@link TwoTierCacheManager} class.
+ */
+public class TwoTierCacheManagerTest {
+    private static final String CACHE_NAME = "test";
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+
+    private MeterRegistry meterRegistry;
+
+    private Cache cache;
+
+    @BeforeEach
+    public void setup() {
+        remoteCacheManager = new ConcurrentMapCacheManager(CACHE_NAME);
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties.NearCache properties = new ApplicationProperties().getCache().getNearCache();
+        cache = new TwoTierCacheManager(remoteCacheManager, properties, meterRegistry).getCache(CACHE_NAME);
+    }
+
+    @Test
+    public void testReadsGoToTheNearCacheFirst() {
+        remoteCache().put("key", "value");
+
+        assertThat(cache.get("key", String.class)).isEqualTo("value");
+        assertThat(cache.get("key", String.class)).isEqualTo("value");
+
+        assertThat(count(TwoTierCache.NEAR_TIER, "miss")).isEqualTo(1);
+        assertThat(count(TwoTierCache.NEAR_TIER, "hit")).isEqualTo(1);
+        assertThat(count(TwoTierCache.REMOTE_TIER, "hit")).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.tier.latency").tag("tier", TwoTierCache.NEAR_TIER).timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testEvictionIsSeenByBothTiers() {
+        cache.put("key", "value");
+        assertThat(cache.get("key")).isNotNull();
+
+        cache.evict("key");
+
+        assertThat(remoteCache().get("key")).isNull();
+        assertThat(cache.get("key")).isNull();
+    }
+
+    @Test
+    public void testValueLoaderIsOnlyCalledOnMiss() {
+        assertThat(cache.get("key", () -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.get("key", () -> "reloaded")).isEqualTo("loaded");
+        assertThat(remoteCache().get("key", String.class)).isEqualTo("loaded");
+    }
+
+    @Test
+    public void testReadsReturnACopyOfTheCachedValue() {
+        cache.put("key", new ArrayList<>(Arrays.asList("value")));
+
+        @SuppressWarnings("unchecked")
+        List<String> first = cache.get("key", List.class);
+        first.add("modified");
+
+        assertThat(cache.get("key", List.class)).containsExactly("value");
+    }
+
+    @Test
+    public void testValueLoaderIsCalledOncePerKeyByConcurrentCallers() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(
+                    executor.submit(
+                        () -> {
+                            start.await();
+                            return cache.get(
+                                "key",
+                                () -> {
+                                    calls.incrementAndGet();
+                                    Thread.sleep(100);
+                                    return "loaded";
+                                }
+                            );
+                        }
+                    )
+                );
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testUnknownCache() {
+        ApplicationProperties.NearCache properties = new ApplicationProperties.NearCache();
+
+        assertThat(new TwoTierCacheManager(remoteCacheManager, properties, meterRegistry).getCache("unknown")).isNull();
+    }
+
+    private Cache remoteCache() {
+        return remoteCacheManager.getCache(CACHE_NAME);
+    }
+
+    private double count(String tier, String result) {
+        return meterRegistry.get("cache.tier.gets").tag("tier", tier).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,67 @@
+package com.superleague.microservice.config.liquibase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Test class for the {@link ChangelogDigest} class.
+ */
+public class ChangelogDigestTest {
+    private static final Resource BUILD_DIGEST = new ByteArrayResource("3f2a9c\n".getBytes(StandardCharsets.UTF_8));
+
+    private EmbeddedDatabase dataSource;
+
+    @BeforeEach
+    public void setup() {
+        dataSource = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    public void testDigestDependsOnContextsAndLabels() {
+        String prod = ChangelogDigest.read(BUILD_DIGEST, "prod", null).get().getValue();
+
+        assertThat(ChangelogDigest.read(BUILD_DIGEST, "prod", "").get().getValue()).isEqualTo(prod);
+        assertThat(ChangelogDigest.read(BUILD_DIGEST, "prod, faker", null).get().getValue()).isNotEqualTo(prod);
+        assertThat(ChangelogDigest.read(BUILD_DIGEST, "prod", "v2").get().getValue()).isNotEqualTo(prod);
+    }
+
+    @Test
+    public void testMissingBuildDigestIsEmpty() {
+        assertThat(ChangelogDigest.read(new ByteArrayResource(new byte[0]), "prod", null)).isEmpty();
+    }
+
+    @Test
+    public void testNotAppliedWithoutMarkerTable() {
+        ChangelogDigest digest = ChangelogDigest.read(BUILD_DIGEST, "prod", null).get();
+
+        assertThat(digest.isApplied(dataSource, null)).isFalse();
+    }
+
+    @Test
+    public void testAppliedOnlyWhenMarkerMatches() {
+        ChangelogDigest digest = ChangelogDigest.read(BUILD_DIGEST, "prod", null).get();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table jhi_changelog_digest (id varchar(50) primary key, digest varchar(64), applied_date timestamp)");
+
+        jdbcTemplate.update("insert into jhi_changelog_digest (id, digest) values (?, ?)", ChangelogDigest.MARKER_ID, "other");
+        assertThat(digest.isApplied(dataSource, null)).isFalse();
+
+        jdbcTemplate.update("update jhi_changelog_digest set digest = ? where id = ?", digest.getValue(), ChangelogDigest.MARKER_ID);
+        assertThat(digest.isApplied(dataSource, null)).isTrue();
+    }
+}
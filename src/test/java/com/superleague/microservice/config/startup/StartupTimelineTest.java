@@ -0,0 +1,99 @@
+package com.superleague.microservice.config.startup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Test class for the {@link StartupTimeline} class.
+ */
+public class StartupTimelineTest {
+
+    @Test
+    public void testDependenciesAreNestedInTheirDependents() {
+        StartupTimeline startupTimeline = new StartupTimeline(false);
+        try (AnnotationConfigApplicationContext context = start(startupTimeline)) {
+            Map<String, StartupTimeline.BeanTiming> beans = beans(startupTimeline);
+
+            assertThat(beans).containsKeys("slowDependency", "dependent");
+            StartupTimeline.BeanTiming dependent = beans.get("dependent");
+            StartupTimeline.BeanTiming slowDependency = beans.get("slowDependency");
+            assertThat(dependent.getMillis()).isGreaterThanOrEqualTo(slowDependency.getMillis());
+            assertThat(dependent.getSelfMillis()).isLessThan(slowDependency.getSelfMillis());
+            assertThat(slowDependency.getSelfMillis()).isGreaterThanOrEqualTo(50);
+        }
+    }
+
+    @Test
+    public void testBeansCreatedOnceReadyAreDeferred() {
+        StartupTimeline startupTimeline = new StartupTimeline(true);
+        try (AnnotationConfigApplicationContext context = start(startupTimeline)) {
+            startupTimeline.markReady();
+            assertThat(beans(startupTimeline)).doesNotContainKey("lazyBean");
+
+            context.getBean("lazyBean");
+
+            assertThat(beans(startupTimeline).get("lazyBean").isDeferred()).isTrue();
+            StartupTimeline.Report report = startupTimeline.getReport(10);
+            assertThat(report.isLazyInitialization()).isTrue();
+            assertThat(report.getDeferredBeanCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testReportListsTheSlowestBeansFirst() {
+        StartupTimeline startupTimeline = new StartupTimeline(false);
+        try (AnnotationConfigApplicationContext context = start(startupTimeline)) {
+            startupTimeline.markReady();
+
+            StartupTimeline.Report report = startupTimeline.getReport(1);
+
+            assertThat(report.getSlowestBeans()).extracting(StartupTimeline.BeanTiming::getName).containsExactly("slowDependency");
+            assertThat(report.getBeanCount()).isGreaterThan(1);
+        }
+    }
+
+    private static AnnotationConfigApplicationContext start(StartupTimeline startupTimeline) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().addBeanPostProcessor(startupTimeline);
+        context.register(TestBeans.class);
+        context.refresh();
+        return context;
+    }
+
+    private static Map<String, StartupTimeline.BeanTiming> beans(StartupTimeline startupTimeline) {
+        return startupTimeline
+            .getReport(Integer.MAX_VALUE)
+            .getSlowestBeans()
+            .stream()
+            .collect(Collectors.toMap(StartupTimeline.BeanTiming::getName, Function.identity()));
+    }
+
+    @Configuration
+    static class TestBeans {
+
+        @Bean
+        public String slowDependency() throws InterruptedException {
+            Thread.sleep(50);
+            return "slow";
+        }
+
+        @Bean
+        public StringBuilder dependent(String slowDependency) {
+            return new StringBuilder(slowDependency);
+        }
+
+        @Bean
+        @Lazy
+        public Object lazyBean() {
+            return new Object();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.superleague.microservice.SuperleagueApp;
 import com.superleague.microservice.config.Constants;
 import com.superleague.microservice.config.TestSecurityConfiguration;
+import com.superleague.microservice.config.audit.AsyncAuditEventWriter;
 import com.superleague.microservice.config.audit.AuditEventConverter;
 import com.superleague.microservice.domain.PersistentAuditEvent;
 import java.time.Instant;
@@ -36,11 +37,18 @@ public class CustomAuditEventRepositoryIT {
     @Autowired
     private AuditEventConverter auditEventConverter;
 
+    @Autowired
+    private AsyncAuditEventWriter asyncAuditEventWriter;
+
     private CustomAuditEventRepository customAuditEventRepository;
 
     @BeforeEach
     public void setup() {
-        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository, auditEventConverter);
+        customAuditEventRepository = new CustomAuditEventRepository(
+            persistenceAuditEventRepository,
+            auditEventConverter,
+            asyncAuditEventWriter
+        );
         persistenceAuditEventRepository.deleteAll();
         Instant oneHourAgo = Instant.now().minusSeconds(3600);
 
@@ -0,0 +1,67 @@
+package com.superleague.microservice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.superleague.microservice.SuperleagueApp;
+import com.superleague.microservice.config.TestSecurityConfiguration;
+import com.superleague.microservice.domain.Participant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the id generation of the entities, which must not prevent JDBC insert batching.
+ */
+@SpringBootTest(classes = { SuperleagueApp.class, TestSecurityConfiguration.class })
+@Transactional
+public class EntityIdGenerationIT {
+    private static final int ENTITY_COUNT = 100;
+
+    @Autowired
+    private ParticipantRepository participantRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void testInsertsAreBatched() {
+        List<Participant> participants = new ArrayList<>();
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            participants.add(new Participant().empId("emp-" + i).name("name-" + i).email("participant-" + i + "@localhost"));
+        }
+
+        participantRepository.saveAll(participants);
+        em.flush();
+
+        // Without batching, each insert would be a statement of its own
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(ENTITY_COUNT / 5);
+        assertThat(participants.stream().map(Participant::getId).distinct().collect(Collectors.toList())).hasSize(ENTITY_COUNT);
+    }
+}
@@ -0,0 +1,119 @@
+package com.superleague.microservice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.superleague.microservice.SuperleagueApp;
+import com.superleague.microservice.config.TestSecurityConfiguration;
+import com.superleague.microservice.domain.Course;
+import com.superleague.microservice.domain.enumeration.Status;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the Hibernate second-level cache of the {@link Course} entity.
+ * <p>
+ * The test configuration disables the second-level cache, these tests enable it as in production. Each read commits
+ * its own transaction, so that it goes through the cache, and the tests clean up after themselves.
+ */
+@SpringBootTest(
+    classes = { SuperleagueApp.class, TestSecurityConfiguration.class },
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create-warn",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+    }
+)
+public class SecondLevelCacheIT {
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    private Course course;
+
+    @BeforeEach
+    public void setup() {
+        course = courseRepository.save(new Course().courseNo("AAAAAAAAAA").courseName("AAAAAAAAAA").status(Status.PLANNED));
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        courseRepository.deleteById(course.getId());
+    }
+
+    @Test
+    public void testSecondFindByIdIsACacheHit() {
+        assertThat(courseRepository.findById(course.getId())).isPresent();
+        assertThat(courseRepository.findById(course.getId())).isPresent();
+
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(Course.class.getName());
+        assertThat(region.getMissCount()).isEqualTo(1);
+        assertThat(region.getPutCount()).isEqualTo(1);
+        assertThat(region.getHitCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testUpdateReplacesTheCachedEntry() {
+        assertThat(courseRepository.findById(course.getId())).isPresent();
+
+        Course updatedCourse = courseRepository.findById(course.getId()).get();
+        updatedCourse.setCourseName("BBBBBBBBBB");
+        courseRepository.save(updatedCourse);
+        statistics.clear();
+
+        assertThat(courseRepository.findById(course.getId())).hasValueSatisfying(
+            cached -> assertThat(cached.getCourseName()).isEqualTo("BBBBBBBBBB")
+        );
+        assertThat(statistics.getDomainDataRegionStatistics(Course.class.getName()).getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testBulkUpdateEvictsTheCachedEntry() {
+        assertThat(courseRepository.findById(course.getId())).isPresent();
+        assertThat(entityManagerFactory.getCache().contains(Course.class, course.getId())).isTrue();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.execute(
+            status ->
+                em
+                    .createQuery("update Course course set course.courseName = :courseName where course.id = :id")
+                    .setParameter("courseName", "BBBBBBBBBB")
+                    .setParameter("id", course.getId())
+                    .executeUpdate()
+        );
+
+        assertThat(entityManagerFactory.getCache().contains(Course.class, course.getId())).isFalse();
+        statistics.clear();
+        assertThat(courseRepository.findById(course.getId())).hasValueSatisfying(
+            reloaded -> assertThat(reloaded.getCourseName()).isEqualTo("BBBBBBBBBB")
+        );
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(Course.class.getName());
+        assertThat(region.getHitCount()).isZero();
+        assertThat(region.getMissCount()).isEqualTo(1);
+    }
+}
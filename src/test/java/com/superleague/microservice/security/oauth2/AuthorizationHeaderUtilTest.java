@@ -0,0 +1,208 @@
+package com.superleague.microservice.security.oauth2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+
+/**
+ * Test class for the {@link AuthorizationHeaderUtil} class.
+ */
+public class AuthorizationHeaderUtilTest {
+    private static final String REGISTRATION_ID = "oidc";
+
+    private static final String PRINCIPAL = "user";
+
+    private OAuth2AuthorizedClientService clientService;
+
+    private ApplicationProperties applicationProperties;
+
+    private AtomicReference<OAuth2AuthorizedClient> savedClient;
+
+    private AuthorizationHeaderUtil authorizationHeaderUtil;
+
+    private OAuth2AuthenticationToken oauthToken;
+
+    @BeforeEach
+    public void setup() {
+        savedClient = new AtomicReference<>();
+        clientService = mock(OAuth2AuthorizedClientService.class);
+        when(clientService.loadAuthorizedClient(anyString(), anyString())).thenAnswer(invocation -> savedClient.get());
+        doAnswer(
+                invocation -> {
+                    savedClient.set(invocation.getArgument(0));
+                    return null;
+                }
+            )
+            .when(clientService)
+            .saveAuthorizedClient(any(), any());
+        applicationProperties = new ApplicationProperties();
+        // Background refreshes run right away
+        authorizationHeaderUtil =
+            spy(new AuthorizationHeaderUtil(clientService, new RestTemplateBuilder(), applicationProperties, Runnable::run));
+
+        List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+        DefaultOAuth2User user = new DefaultOAuth2User(authorities, Collections.singletonMap("sub", PRINCIPAL), "sub");
+        oauthToken = new OAuth2AuthenticationToken(user, authorities, REGISTRATION_ID);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        SecurityContextHolder.clearContext();
+        authorizationHeaderUtil.destroy();
+    }
+
+    @Test
+    public void testConcurrentRefreshesShareOneCall() throws Exception {
+        OAuth2AuthorizedClient client = authorizedClient("old", Instant.now().plusSeconds(30));
+        savedClient.set(client);
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch releaseRefresh = new CountDownLatch(1);
+        doAnswer(
+                invocation -> {
+                    refreshStarted.countDown();
+                    releaseRefresh.await(5, TimeUnit.SECONDS);
+                    return tokenResponse("new");
+                }
+            )
+            .when(authorizationHeaderUtil)
+            .refreshTokenClient(any());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<OAuth2AccessToken> first = executor.submit(() -> authorizationHeaderUtil.refreshToken(client, oauthToken));
+            assertThat(refreshStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<OAuth2AccessToken> second = executor.submit(() -> authorizationHeaderUtil.refreshToken(client, oauthToken));
+            // Give the second call the time to join the running refresh
+            Thread.sleep(100);
+            releaseRefresh.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getTokenValue()).isEqualTo("new");
+            assertThat(second.get(5, TimeUnit.SECONDS).getTokenValue()).isEqualTo("new");
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(authorizationHeaderUtil, times(1)).refreshTokenClient(any());
+    }
+
+    @Test
+    public void testRefreshIsSkippedWhenAlreadyDone() {
+        OAuth2AuthorizedClient staleClient = authorizedClient("old", Instant.now().plusSeconds(30));
+        savedClient.set(authorizedClient("new", Instant.now().plusSeconds(600)));
+
+        OAuth2AccessToken accessToken = authorizationHeaderUtil.refreshToken(staleClient, oauthToken);
+
+        assertThat(accessToken.getTokenValue()).isEqualTo("new");
+        verify(authorizationHeaderUtil, never()).refreshTokenClient(any());
+    }
+
+    @Test
+    public void testTokenExpiringSoonIsRefreshedInTheBackground() {
+        savedClient.set(authorizedClient("old", Instant.now().plusSeconds(180)));
+        doReturn(tokenResponse("new")).when(authorizationHeaderUtil).refreshTokenClient(any());
+        SecurityContextHolder.getContext().setAuthentication(oauthToken);
+
+        assertThat(authorizationHeaderUtil.getAuthorizationHeader()).contains("Bearer old");
+        assertThat(authorizationHeaderUtil.getAuthorizationHeader()).contains("Bearer new");
+        verify(authorizationHeaderUtil, times(1)).refreshTokenClient(any());
+    }
+
+    @Test
+    public void testFreshTokenIsNotRefreshed() {
+        savedClient.set(authorizedClient("old", Instant.now().plusSeconds(3600)));
+        SecurityContextHolder.getContext().setAuthentication(oauthToken);
+
+        assertThat(authorizationHeaderUtil.getAuthorizationHeader()).contains("Bearer old");
+        verify(authorizationHeaderUtil, never()).refreshTokenClient(any());
+    }
+
+    @Test
+    public void testShortLivedTokenIsNotRefreshedRightAway() {
+        // Keycloak issues 5 minute tokens, as long as the proactive window
+        Instant now = Instant.now();
+        savedClient.set(authorizedClient("old", now, now.plusSeconds(300)));
+        SecurityContextHolder.getContext().setAuthentication(oauthToken);
+
+        assertThat(authorizationHeaderUtil.getAuthorizationHeader()).contains("Bearer old");
+        verify(authorizationHeaderUtil, never()).refreshTokenClient(any());
+    }
+
+    @Test
+    public void testShortLivedTokenIsRefreshedInTheLastShareOfItsLifetime() {
+        Instant now = Instant.now();
+        savedClient.set(authorizedClient("old", now.minusSeconds(220), now.plusSeconds(80)));
+        doReturn(tokenResponse("new")).when(authorizationHeaderUtil).refreshTokenClient(any());
+        SecurityContextHolder.getContext().setAuthentication(oauthToken);
+
+        assertThat(authorizationHeaderUtil.getAuthorizationHeader()).contains("Bearer old");
+        assertThat(authorizationHeaderUtil.getAuthorizationHeader()).contains("Bearer new");
+        verify(authorizationHeaderUtil, times(1)).refreshTokenClient(any());
+    }
+
+    @Test
+    public void testWindowLongerThanTheLifetimeIsSkipped() {
+        applicationProperties.getTokenRefresh().setProactiveRatio(1.0);
+        applicationProperties.getTokenRefresh().setProactiveWindow(Duration.ofHours(1));
+        Instant now = Instant.now();
+        savedClient.set(authorizedClient("old", now.minusSeconds(100), now.plusSeconds(500)));
+        SecurityContextHolder.getContext().setAuthentication(oauthToken);
+
+        assertThat(authorizationHeaderUtil.getAuthorizationHeader()).contains("Bearer old");
+        verify(authorizationHeaderUtil, never()).refreshTokenClient(any());
+    }
+
+    private OAuth2AuthorizedClient authorizedClient(String tokenValue, Instant expiresAt) {
+        return authorizedClient(tokenValue, expiresAt.minusSeconds(3600), expiresAt);
+    }
+
+    private OAuth2AuthorizedClient authorizedClient(String tokenValue, Instant issuedAt, Instant expiresAt) {
+        ClientRegistration registration = ClientRegistration
+            .withRegistrationId(REGISTRATION_ID)
+            .clientId("client")
+            .clientSecret("secret")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUriTemplate("{baseUrl}/login/oauth2/code/{registrationId}")
+            .authorizationUri("http://localhost:9080/auth")
+            .tokenUri("http://localhost:9080/token")
+            .build();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(
+            OAuth2AccessToken.TokenType.BEARER,
+            tokenValue,
+            issuedAt,
+            expiresAt
+        );
+        return new OAuth2AuthorizedClient(registration, PRINCIPAL, accessToken, new OAuth2RefreshToken("refresh", Instant.now()));
+    }
+
+    private OAuth2AccessTokenResponse tokenResponse(String tokenValue) {
+        return OAuth2AccessTokenResponse.withToken(tokenValue).tokenType(OAuth2AccessToken.TokenType.BEARER).expiresIn(3600).build();
+    }
+}
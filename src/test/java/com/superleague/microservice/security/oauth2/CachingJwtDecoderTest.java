@@ -0,0 +1,106 @@
+package com.superleague.microservice.security.oauth2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Test class for the {@link CachingJwtDecoder} class.
+ */
+public class CachingJwtDecoderTest {
+    private static final String TOKEN = "header.payload.signature";
+
+    private JwtDecoder delegate;
+
+    private MeterRegistry meterRegistry;
+
+    private CachingJwtDecoder cachingJwtDecoder;
+
+    @BeforeEach
+    public void setup() {
+        delegate = mock(JwtDecoder.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cachingJwtDecoder = new CachingJwtDecoder(delegate, new ApplicationProperties(), meterRegistry);
+    }
+
+    @Test
+    public void testValidatedTokenIsReused() {
+        when(delegate.decode(TOKEN)).thenReturn(jwt(TOKEN, Instant.now().plusSeconds(300)));
+
+        Jwt first = cachingJwtDecoder.decode(TOKEN);
+        Jwt second = cachingJwtDecoder.decode(TOKEN);
+
+        assertThat(second).isSameAs(first);
+        verify(delegate, times(1)).decode(TOKEN);
+        assertThat(meterRegistry.get("security.jwt.verification").tag("result", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAuthoritiesAreExtractedOnce() {
+        when(delegate.decode(TOKEN)).thenReturn(jwt(TOKEN, Instant.now().plusSeconds(300)));
+        Jwt jwt = cachingJwtDecoder.decode(TOKEN);
+
+        assertThat(new JwtGrantedAuthorityConverter(cachingJwtDecoder).convert(jwt))
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ADMIN);
+        assertThat(cachingJwtDecoder.getAuthorities(jwt(TOKEN, Instant.now()))).isEmpty();
+    }
+
+    @Test
+    public void testExpiredTokenIsNotReused() {
+        when(delegate.decode(TOKEN)).thenReturn(jwt(TOKEN, Instant.now().minusSeconds(1)));
+
+        cachingJwtDecoder.decode(TOKEN);
+        cachingJwtDecoder.decode(TOKEN);
+
+        verify(delegate, times(2)).decode(TOKEN);
+    }
+
+    @Test
+    public void testRejectedTokenIsNotCached() {
+        when(delegate.decode(TOKEN)).thenThrow(new JwtException("bad signature"));
+
+        assertThatThrownBy(() -> cachingJwtDecoder.decode(TOKEN)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> cachingJwtDecoder.decode(TOKEN)).isInstanceOf(JwtException.class);
+
+        verify(delegate, times(2)).decode(TOKEN);
+        assertThat(meterRegistry.get("security.jwt.verification").tag("result", "failure").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testDisabledCache() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getJwt().setEnabled(false);
+        cachingJwtDecoder = new CachingJwtDecoder(delegate, applicationProperties, meterRegistry);
+        when(delegate.decode(TOKEN)).thenReturn(jwt(TOKEN, Instant.now().plusSeconds(300)));
+
+        cachingJwtDecoder.decode(TOKEN);
+        cachingJwtDecoder.decode(TOKEN);
+
+        verify(delegate, times(2)).decode(TOKEN);
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt
+            .withTokenValue(token)
+            .header("alg", "RS256")
+            .subject("user")
+            .issuedAt(expiresAt.minusSeconds(600))
+            .expiresAt(expiresAt)
+            .claim("groups", Arrays.asList(AuthoritiesConstants.ADMIN, "Everyone"))
+            .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.superleague.microservice.security.oauth2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Test class for the {@link DeferredJwtDecoder} class.
+ */
+public class DeferredJwtDecoderTest {
+    private static final String TOKEN = "header.payload.signature";
+
+    @Test
+    public void testDelegateIsCreatedOnFirstDecode() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        Jwt jwt = Jwt.withTokenValue(TOKEN).header("alg", "RS256").subject("john").expiresAt(Instant.now().plusSeconds(300)).build();
+        when(delegate.decode(TOKEN)).thenReturn(jwt);
+        AtomicInteger discoveries = new AtomicInteger();
+
+        DeferredJwtDecoder deferredJwtDecoder = new DeferredJwtDecoder(
+            () -> {
+                discoveries.incrementAndGet();
+                return delegate;
+            }
+        );
+        assertThat(discoveries.get()).isZero();
+
+        assertThat(deferredJwtDecoder.decode(TOKEN)).isSameAs(jwt);
+        deferredJwtDecoder.decode(TOKEN);
+
+        assertThat(discoveries.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailedDiscoveryIsRetried() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        AtomicInteger discoveries = new AtomicInteger();
+
+        DeferredJwtDecoder deferredJwtDecoder = new DeferredJwtDecoder(
+            () -> {
+                if (discoveries.incrementAndGet() == 1) {
+                    throw new IllegalArgumentException("Unable to resolve the OpenID Configuration");
+                }
+                return delegate;
+            }
+        );
+
+        assertThatThrownBy(() -> deferredJwtDecoder.decode(TOKEN)).isInstanceOf(JwtException.class);
+        deferredJwtDecoder.decode(TOKEN);
+
+        assertThat(discoveries.get()).isEqualTo(2);
+        verify(delegate).decode(TOKEN);
+    }
+}
@@ -0,0 +1,101 @@
+package com.superleague.microservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.superleague.microservice.SuperleagueApp;
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.config.TestSecurityConfiguration;
+import com.superleague.microservice.domain.PersistentAuditEvent;
+import com.superleague.microservice.repository.PersistenceAuditEventRepository;
+import com.superleague.microservice.service.dto.AuditPurgeReportDTO;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Integration tests for {@link AuditEventService}.
+ * <p>
+ * The purge commits one transaction per chunk, so these tests are not transactional and clean up after themselves.
+ */
+@SpringBootTest(classes = { SuperleagueApp.class, TestSecurityConfiguration.class })
+public class AuditEventServiceIT {
+    @Autowired
+    private AuditEventService auditEventService;
+
+    @Autowired
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private int defaultChunkSize;
+
+    private Duration defaultPause;
+
+    @BeforeEach
+    public void init() {
+        persistenceAuditEventRepository.deleteAll();
+        defaultChunkSize = applicationProperties.getAudit().getPurge().getChunkSize();
+        defaultPause = applicationProperties.getAudit().getPurge().getPause();
+        applicationProperties.getAudit().getPurge().setChunkSize(2);
+        applicationProperties.getAudit().getPurge().setPause(Duration.ZERO);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        applicationProperties.getAudit().getPurge().setChunkSize(defaultChunkSize);
+        applicationProperties.getAudit().getPurge().setPause(defaultPause);
+        persistenceAuditEventRepository.deleteAll();
+    }
+
+    @Test
+    public void verifyOldAuditEventsAreDeletedInChunks() {
+        Instant now = Instant.now();
+        List<PersistentAuditEvent> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            events.add(createAuditEvent(now.minus(40, ChronoUnit.DAYS)));
+        }
+        events.add(createAuditEvent(now.minus(1, ChronoUnit.DAYS)));
+        persistenceAuditEventRepository.saveAll(events);
+
+        AuditPurgeReportDTO report = auditEventService.purgeAuditEventsBefore(now.minus(30, ChronoUnit.DAYS));
+
+        assertThat(report.getEventsDeleted()).isEqualTo(5);
+        assertThat(report.getDataRowsDeleted()).isEqualTo(5);
+        assertThat(report.getChunks()).isEqualTo(3);
+        // H2 is not partitioned, everything goes through bulk deletes
+        assertThat(report.getPartitionsDropped()).isZero();
+        List<PersistentAuditEvent> remaining = persistenceAuditEventRepository.findAll();
+        assertThat(remaining).hasSize(1);
+        assertThat(remaining.get(0).getAuditEventDate()).isAfter(now.minus(30, ChronoUnit.DAYS));
+    }
+
+    @Test
+    public void verifyNothingIsDeletedWithoutOldAuditEvents() {
+        persistenceAuditEventRepository.save(createAuditEvent(Instant.now()));
+
+        AuditPurgeReportDTO report = auditEventService.purgeAuditEventsBefore(Instant.now().minus(30, ChronoUnit.DAYS));
+
+        assertThat(report.getEventsDeleted()).isZero();
+        assertThat(report.getChunks()).isZero();
+        assertThat(persistenceAuditEventRepository.count()).isEqualTo(1);
+    }
+
+    private PersistentAuditEvent createAuditEvent(Instant date) {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal("test-user");
+        event.setAuditEventType("test-type");
+        event.setAuditEventDate(date);
+        event.setData(new HashMap<>(Collections.singletonMap("test-key", "test-value")));
+        return event;
+    }
+}
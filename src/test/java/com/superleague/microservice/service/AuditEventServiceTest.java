@@ -0,0 +1,127 @@
+package com.superleague.microservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.config.audit.AuditEventConverter;
+import com.superleague.microservice.repository.AuditEventPartitionRepository;
+import com.superleague.microservice.repository.AuditEventPartitionRepository.AuditEventPartition;
+import com.superleague.microservice.repository.LeaseRepository;
+import com.superleague.microservice.repository.PersistenceAuditEventRepository;
+import com.superleague.microservice.service.dto.AuditPurgeReportDTO;
+import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for the partition maintenance and the lease of the {@link AuditEventService}.
+ */
+public class AuditEventServiceTest {
+    private AuditEventPartitionRepository auditEventPartitionRepository;
+
+    private LeaseRepository leaseRepository;
+
+    private AuditEventService auditEventService;
+
+    @BeforeEach
+    public void setup() {
+        auditEventPartitionRepository = mock(AuditEventPartitionRepository.class);
+        when(auditEventPartitionRepository.isPartitioned()).thenReturn(true);
+        leaseRepository = mock(LeaseRepository.class);
+        when(leaseRepository.acquire(eq(AuditEventService.LEASE_NAME), anyString(), any(), any())).thenReturn(1);
+        auditEventService =
+            new AuditEventService(
+                mock(PersistenceAuditEventRepository.class),
+                auditEventPartitionRepository,
+                mock(AuditEventConverter.class),
+                leaseRepository,
+                new JHipsterProperties(),
+                new ApplicationProperties(),
+                mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry()
+            );
+    }
+
+    @Test
+    public void testMissingMonthsAreAddedInASingleReorganization() {
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+        Instant before = startOf(currentMonth.minusMonths(1)).plusSeconds(3600);
+        when(auditEventPartitionRepository.findPartitions())
+            .thenReturn(
+                Arrays.asList(
+                    new AuditEventPartition("p_initial", startOf(YearMonth.of(2020, 12))),
+                    new AuditEventPartition(AuditEventPartitionRepository.FUTURE_PARTITION, null)
+                )
+            );
+
+        AuditPurgeReportDTO report = auditEventService.purgeAuditEventsBefore(before);
+
+        assertThat(report.getPartitionsDropped()).isEqualTo(1);
+        verify(auditEventPartitionRepository).dropPartition("p_initial");
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AuditEventPartition>> partitions = ArgumentCaptor.forClass(List.class);
+        verify(auditEventPartitionRepository, times(1)).addPartitions(partitions.capture());
+        // The months between the initial bound and the purge date are left to the bulk deletes
+        assertThat(partitions.getValue().stream().map(AuditEventPartition::getUpperBound).collect(Collectors.toList()))
+            .containsExactly(
+                startOf(currentMonth),
+                startOf(currentMonth.plusMonths(1)),
+                startOf(currentMonth.plusMonths(2)),
+                startOf(currentMonth.plusMonths(3))
+            );
+        assertThat(partitions.getValue().get(0).getName())
+            .isEqualTo(currentMonth.minusMonths(1).format(DateTimeFormatter.ofPattern("'p'yyyyMM")));
+    }
+
+    @Test
+    public void testNothingIsAddedWhenThePartitionsAreReady() {
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+        when(auditEventPartitionRepository.findPartitions())
+            .thenReturn(
+                Arrays.asList(
+                    new AuditEventPartition("current", startOf(currentMonth.plusMonths(1))),
+                    new AuditEventPartition("ahead", startOf(currentMonth.plusMonths(3))),
+                    new AuditEventPartition(AuditEventPartitionRepository.FUTURE_PARTITION, null)
+                )
+            );
+
+        auditEventService.purgeAuditEventsBefore(startOf(currentMonth.minusMonths(1)));
+
+        verify(auditEventPartitionRepository, never()).dropPartition(anyString());
+        verify(auditEventPartitionRepository, never()).addPartitions(anyList());
+    }
+
+    @Test
+    public void testPurgeIsSkippedWhileAnotherInstanceHoldsTheLease() {
+        when(leaseRepository.acquire(eq(AuditEventService.LEASE_NAME), anyString(), any(), any())).thenReturn(0);
+
+        AuditPurgeReportDTO report = auditEventService.purgeAuditEventsBefore(Instant.now());
+
+        assertThat(report.isSkipped()).isTrue();
+        verify(auditEventPartitionRepository, never()).findPartitions();
+        verify(auditEventPartitionRepository, never()).addPartitions(anyList());
+    }
+
+    private static Instant startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
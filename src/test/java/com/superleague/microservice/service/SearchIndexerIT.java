@@ -0,0 +1,190 @@
+package com.superleague.microservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.superleague.microservice.SuperleagueApp;
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.config.TestSecurityConfiguration;
+import com.superleague.microservice.domain.Course;
+import com.superleague.microservice.domain.Lease;
+import com.superleague.microservice.domain.SearchOutboxDeadLetter;
+import com.superleague.microservice.domain.SearchOutboxEvent;
+import com.superleague.microservice.domain.enumeration.SearchIndexOperation;
+import com.superleague.microservice.domain.enumeration.Status;
+import com.superleague.microservice.repository.CourseRepository;
+import com.superleague.microservice.repository.LeaseRepository;
+import com.superleague.microservice.repository.SearchOutboxDeadLetterRepository;
+import com.superleague.microservice.repository.SearchOutboxEventRepository;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.indices.DeleteIndex;
+import io.searchbox.indices.aliases.GetAliases;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link SearchIndexer}.
+ * <p>
+ * The indexer commits its own transactions, so these tests are not transactional and clean up after themselves.
+ */
+@SpringBootTest(classes = { SuperleagueApp.class, TestSecurityConfiguration.class })
+public class SearchIndexerIT {
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @Autowired
+    private SearchOutboxEventRepository searchOutboxEventRepository;
+
+    @Autowired
+    private SearchOutboxDeadLetterRepository searchOutboxDeadLetterRepository;
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private SearchOutboxService searchOutboxService;
+
+    @Autowired
+    private SearchQueryService searchQueryService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JestClient jestClient;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void init() {
+        searchOutboxEventRepository.deleteAll();
+        searchOutboxDeadLetterRepository.deleteAll();
+        setLease(null, null);
+        applicationProperties.getSearchIndexer().setEnabled(true);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        applicationProperties.getSearchIndexer().setEnabled(false);
+        searchOutboxEventRepository.deleteAll();
+        searchOutboxDeadLetterRepository.deleteAll();
+        setLease(null, null);
+    }
+
+    @Test
+    public void verifyEventsOfUnknownTypesAreMovedToTheDeadLetters() {
+        SearchOutboxEvent event = searchOutboxEventRepository.saveAndFlush(createEvent("Unknown"));
+
+        searchIndexer.drainOutbox();
+
+        assertThat(searchOutboxEventRepository.findAll()).isEmpty();
+        List<SearchOutboxDeadLetter> deadLetters = searchOutboxDeadLetterRepository.findAll();
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0).getId()).isEqualTo(event.getId());
+        assertThat(deadLetters.get(0).getEntityType()).isEqualTo("Unknown");
+        assertThat(deadLetters.get(0).getError()).contains("Unknown");
+    }
+
+    @Test
+    public void verifyOutboxIsNotDrainedWhileAnotherInstanceHoldsTheLease() {
+        searchOutboxEventRepository.saveAndFlush(createEvent("Unknown"));
+        setLease("another-instance", Instant.now().plus(1, ChronoUnit.MINUTES));
+
+        searchIndexer.drainOutbox();
+
+        assertThat(searchOutboxEventRepository.findAll()).hasSize(1);
+        assertThat(searchOutboxDeadLetterRepository.findAll()).isEmpty();
+
+        // The lease expired, this instance takes over
+        setLease("another-instance", Instant.now().minus(1, ChronoUnit.SECONDS));
+
+        searchIndexer.drainOutbox();
+
+        assertThat(searchOutboxEventRepository.findAll()).isEmpty();
+        assertThat(leaseRepository.findById(SearchIndexer.LEASE_NAME).map(Lease::getOwner)).hasValueSatisfying(
+            owner -> assertThat(owner).isNotEqualTo("another-instance")
+        );
+    }
+
+    @Test
+    public void verifyWritesAreSearchedAsSoonAsTheCacheIsInvalidated() throws IOException {
+        applicationProperties.getCache().getSearch().setEnabled(true);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long id = transactionTemplate.execute(
+            status -> {
+                Course course = courseRepository.save(new Course().courseNo("no").courseName("before").status(Status.PLANNED));
+                searchOutboxService.scheduleIndex(Course.class, course.getId());
+                return course.getId();
+            }
+        );
+        try {
+            searchIndexer.drainOutbox();
+            assertThat(searchCourseNames(id)).containsExactly("before");
+
+            transactionTemplate.execute(
+                status -> {
+                    courseRepository.findById(id).get().setCourseName("after");
+                    searchOutboxService.scheduleIndex(Course.class, id);
+                    return null;
+                }
+            );
+            searchIndexer.drainOutbox();
+
+            // Searched right away, within the refresh interval of the index
+            assertThat(searchCourseNames(id)).containsExactly("after");
+        } finally {
+            applicationProperties.getCache().getSearch().setEnabled(false);
+            courseRepository.deleteById(id);
+            deleteCourseIndices();
+        }
+    }
+
+    private List<String> searchCourseNames(Long id) {
+        return searchQueryService
+            .searchAfter(Course.class, "id:" + id, "", 10, Sort.unsorted(), null)
+            .getContent()
+            .stream()
+            .map(Course::getCourseName)
+            .collect(Collectors.toList());
+    }
+
+    private void deleteCourseIndices() throws IOException {
+        JestResult indices = jestClient.execute(new GetAliases.Builder().addIndex("course").build());
+        if (indices.isSucceeded()) {
+            for (String index : indices.getJsonObject().keySet()) {
+                jestClient.execute(new DeleteIndex.Builder(index).build());
+            }
+        }
+    }
+
+    private void setLease(String owner, Instant lockedUntil) {
+        Lease lease = leaseRepository.findById(SearchIndexer.LEASE_NAME).orElseThrow(IllegalStateException::new);
+        lease.setOwner(owner);
+        lease.setLockedUntil(lockedUntil);
+        leaseRepository.saveAndFlush(lease);
+    }
+
+    private static SearchOutboxEvent createEvent(String entityType) {
+        SearchOutboxEvent event = new SearchOutboxEvent();
+        event.setEntityType(entityType);
+        event.setEntityId(1L);
+        event.setOperation(SearchIndexOperation.INDEX);
+        event.setCreatedDate(Instant.now());
+        return event;
+    }
+}
@@ -0,0 +1,196 @@
+package com.superleague.microservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.gson.JsonObject;
+import com.superleague.microservice.SuperleagueApp;
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.config.TestSecurityConfiguration;
+import com.superleague.microservice.domain.Course;
+import com.superleague.microservice.domain.enumeration.ReindexState;
+import com.superleague.microservice.domain.enumeration.Status;
+import com.superleague.microservice.repository.CourseRepository;
+import com.superleague.microservice.repository.SearchOutboxEventRepository;
+import com.superleague.microservice.repository.SearchReindexJobRepository;
+import com.superleague.microservice.service.dto.ReindexStatusDTO;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.core.Count;
+import io.searchbox.core.DocumentResult;
+import io.searchbox.core.Get;
+import io.searchbox.core.Index;
+import io.searchbox.indices.CreateIndex;
+import io.searchbox.indices.DeleteIndex;
+import io.searchbox.indices.Refresh;
+import io.searchbox.indices.aliases.GetAliases;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link SearchReindexService}, against the embedded Elasticsearch node.
+ * <p>
+ * The reindex and the indexer commit their own transactions, so these tests are not transactional and clean up after
+ * themselves.
+ */
+@SpringBootTest(classes = { SuperleagueApp.class, TestSecurityConfiguration.class })
+public class SearchReindexServiceIT {
+    private static final int COURSE_COUNT = 200;
+
+    private static final String ALIAS = "course";
+
+    @Autowired
+    private SearchReindexService searchReindexService;
+
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @Autowired
+    private SearchOutboxService searchOutboxService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private SearchOutboxEventRepository searchOutboxEventRepository;
+
+    @Autowired
+    private SearchReindexJobRepository searchReindexJobRepository;
+
+    @Autowired
+    private JestClient jestClient;
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private int defaultPageSize;
+
+    private String indexType;
+
+    @BeforeEach
+    public void init() throws IOException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        indexType = elasticsearchOperations.getPersistentEntityFor(Course.class).getIndexType();
+        deleteIndices();
+        defaultPageSize = applicationProperties.getSearchReindex().getPageSize();
+        applicationProperties.getSearchReindex().setPageSize(10);
+        applicationProperties.getSearchIndexer().setEnabled(true);
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        applicationProperties.getSearchIndexer().setEnabled(false);
+        applicationProperties.getSearchReindex().setPageSize(defaultPageSize);
+        searchOutboxEventRepository.deleteAll();
+        searchReindexJobRepository.deleteAll();
+        courseRepository.deleteAll();
+        deleteIndices();
+    }
+
+    @Test
+    public void verifyChangesMadeDuringTheReindexAreKeptAfterTheSwap() throws Exception {
+        // The index of the first run is a concrete index with the name of the alias, holding a stale document
+        jestClient.execute(new CreateIndex.Builder(ALIAS).build());
+        jestClient.execute(new Index.Builder("{\"courseName\":\"stale\"}").index(ALIAS).type(indexType).id("-1").build());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < COURSE_COUNT; i++) {
+            ids.add(courseRepository.save(new Course().courseNo("no-" + i).courseName("name-" + i).status(Status.PLANNED)).getId());
+        }
+
+        assertThat(searchReindexService.start(Course.class)).isPresent();
+        assertThat(searchReindexService.start(Course.class)).isEmpty();
+
+        // Update and delete courses while the reindex is running, each change being drained by the indexer
+        Set<Long> updatedIds = new HashSet<>();
+        Set<Long> deletedIds = new HashSet<>();
+        for (int i = 0; i < COURSE_COUNT; i += 10) {
+            Long updatedId = ids.get(i);
+            Long deletedId = ids.get(i + 1);
+            transactionTemplate.execute(
+                status -> {
+                    Course course = courseRepository.findById(updatedId).get();
+                    course.setCourseName("updated");
+                    searchOutboxService.scheduleIndex(Course.class, updatedId);
+                    courseRepository.deleteById(deletedId);
+                    searchOutboxService.scheduleDelete(Course.class, deletedId);
+                    return null;
+                }
+            );
+            updatedIds.add(updatedId);
+            deletedIds.add(deletedId);
+            searchIndexer.drainOutbox();
+        }
+        ReindexStatusDTO status = awaitReindex();
+        searchIndexer.drainOutbox();
+
+        assertThat(status.getState()).isEqualTo(ReindexState.COMPLETED);
+        assertThat(searchOutboxEventRepository.findAll()).isEmpty();
+        // The concrete index was replaced by the alias
+        JsonObject aliases = jestClient.execute(new GetAliases.Builder().addIndex(ALIAS).build()).getJsonObject();
+        assertThat(aliases.keySet()).containsExactly(status.getIndex());
+        jestClient.execute(new Refresh.Builder().addIndex(ALIAS).build());
+        assertThat(jestClient.execute(new Count.Builder().addIndex(ALIAS).build()).getCount()).isEqualTo(COURSE_COUNT - deletedIds.size());
+        assertThat(getCourseName(-1L)).isEmpty();
+        for (Long id : ids) {
+            if (deletedIds.contains(id)) {
+                assertThat(getCourseName(id)).as("deleted course %s", id).isEmpty();
+            } else if (updatedIds.contains(id)) {
+                assertThat(getCourseName(id)).as("updated course %s", id).contains("updated");
+            } else {
+                assertThat(getCourseName(id)).as("course %s", id).hasValueSatisfying(name -> assertThat(name).startsWith("name-"));
+            }
+        }
+    }
+
+    private ReindexStatusDTO awaitReindex() throws InterruptedException {
+        for (int i = 0; i < 300; i++) {
+            Optional<ReindexStatusDTO> status = searchReindexService
+                .getStatuses()
+                .stream()
+                .filter(reindexStatus -> "Course".equals(reindexStatus.getType()) && reindexStatus.getState() != ReindexState.RUNNING)
+                .findFirst();
+            if (status.isPresent()) {
+                return status.get();
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("The reindex did not finish");
+    }
+
+    private Optional<String> getCourseName(Long id) throws IOException {
+        DocumentResult result = jestClient.execute(new Get.Builder(ALIAS, String.valueOf(id)).type(indexType).build());
+        JsonObject document = result.getJsonObject();
+        if (!document.has("found") || !document.get("found").getAsBoolean()) {
+            return Optional.empty();
+        }
+        return Optional.of(document.getAsJsonObject("_source").get("courseName").getAsString());
+    }
+
+    private void deleteIndices() throws IOException {
+        JestResult aliases = jestClient.execute(new GetAliases.Builder().addIndex(ALIAS).build());
+        if (aliases.isSucceeded()) {
+            for (String index : aliases.getJsonObject().keySet()) {
+                jestClient.execute(new DeleteIndex.Builder(index).build());
+            }
+        }
+    }
+}
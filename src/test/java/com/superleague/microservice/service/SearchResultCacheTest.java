@@ -0,0 +1,82 @@
+package com.superleague.microservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.superleague.microservice.config.ApplicationProperties;
+import com.superleague.microservice.domain.Course;
+import com.superleague.microservice.domain.Participant;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link SearchResultCache} class.
+ */
+public class SearchResultCacheTest {
+    private MeterRegistry meterRegistry;
+
+    private SearchResultCache searchResultCache;
+
+    private AtomicInteger searches;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        searchResultCache = new SearchResultCache(new ApplicationProperties(), meterRegistry);
+        searches = new AtomicInteger();
+    }
+
+    @Test
+    public void testQueriesOnlyDifferingBySpacingShareAnEntry() {
+        assertThat(search(Course.class, "courseName:java AND status:PLANNED")).isEqualTo(1);
+        assertThat(search(Course.class, "  courseName:java   AND status:PLANNED ")).isEqualTo(1);
+        assertThat(search(Course.class, "courseName:java and status:PLANNED")).isEqualTo(2);
+
+        assertThat(count("hit")).isEqualTo(1);
+        assertThat(count("miss")).isEqualTo(2);
+    }
+
+    @Test
+    public void testInvalidateOnlyDropsTheEntriesOfItsType() {
+        search(Course.class, "*");
+        search(Participant.class, "*");
+
+        searchResultCache.invalidate(Course.class);
+
+        assertThat(search(Course.class, "*")).isEqualTo(3);
+        assertThat(search(Participant.class, "*")).isEqualTo(2);
+        assertThat(searchResultCache.getGeneration(Course.class)).isEqualTo(1);
+        assertThat(searchResultCache.getGeneration(Participant.class)).isZero();
+    }
+
+    @Test
+    public void testParametersArePartOfTheKey() {
+        searchResultCache.get(Course.class, "*", Collections.singletonList(0), searches::incrementAndGet);
+        searchResultCache.get(Course.class, "*", Collections.singletonList(1), searches::incrementAndGet);
+
+        assertThat(searches).hasValue(2);
+    }
+
+    @Test
+    public void testDisabledCache() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getCache().getSearch().setEnabled(false);
+        searchResultCache = new SearchResultCache(properties, meterRegistry);
+
+        search(Course.class, "*");
+        search(Course.class, "*");
+
+        assertThat(searches).hasValue(2);
+    }
+
+    private int search(Class<?> entityClass, String query) {
+        return searchResultCache.get(entityClass, query, Collections.emptyList(), searches::incrementAndGet);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("search.cache.requests").tag("type", "Course").tag("result", result).counter().count();
+    }
+}
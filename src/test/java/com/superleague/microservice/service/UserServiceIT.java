@@ -1,6 +1,8 @@
 package com.superleague.microservice.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -29,6 +31,8 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -171,6 +175,28 @@ public class UserServiceIT {
         assertThat(userDTO.getLangKey()).isEqualTo("en");
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @WithMockUser("sync-user")
+    public void testUnchangedUserIsNotSynchronizedAgain() {
+        // Synchronizations are only remembered once committed, so this test is not transactional
+        userDetails.put("preferred_username", "sync-user");
+        try {
+            userService.getUserFromAuthentication(createMockOAuth2AuthenticationToken(userDetails));
+            clearInvocations(mockUserSearchRepository);
+
+            userService.getUserFromAuthentication(createMockOAuth2AuthenticationToken(userDetails));
+            verify(mockUserSearchRepository, never()).save(any(User.class));
+
+            userDetails.put("given_name", "jane");
+            userService.getUserFromAuthentication(createMockOAuth2AuthenticationToken(userDetails));
+            verify(mockUserSearchRepository, times(1)).save(any(User.class));
+            assertThat(userRepository.findOneByLogin("sync-user")).map(User::getFirstName).contains("jane");
+        } finally {
+            userRepository.findOneByLogin("sync-user").ifPresent(userRepository::delete);
+        }
+    }
+
     private OAuth2AuthenticationToken createMockOAuth2AuthenticationToken(Map<String, Object> userDetails) {
         Collection<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
         UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
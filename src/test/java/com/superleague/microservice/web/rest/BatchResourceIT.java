@@ -3,7 +3,11 @@ package com.superleague.microservice.web.rest;
 import com.superleague.microservice.SuperleagueApp;
 import com.superleague.microservice.config.TestSecurityConfiguration;
 import com.superleague.microservice.domain.Batch;
+import com.superleague.microservice.domain.Course;
+import com.superleague.microservice.domain.enumeration.SearchIndexOperation;
 import com.superleague.microservice.repository.BatchRepository;
+import com.superleague.microservice.repository.CourseRepository;
+import com.superleague.microservice.repository.SearchOutboxEventRepository;
 import com.superleague.microservice.repository.search.BatchSearchRepository;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +18,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -25,7 +33,8 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.mockito.Mockito.*;
@@ -71,6 +80,12 @@ public class BatchResourceIT {
     @Autowired
     private BatchSearchRepository mockBatchSearchRepository;
 
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private SearchOutboxEventRepository searchOutboxEventRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -139,7 +154,7 @@ public class BatchResourceIT {
         assertThat(testBatch.getStatus()).isEqualTo(DEFAULT_STATUS);
 
         // Validate the Batch in Elasticsearch
-        verify(mockBatchSearchRepository, times(1)).save(testBatch);
+        TestUtil.assertSearchOutboxContains(em, Batch.class, testBatch.getId(), SearchIndexOperation.INDEX);
     }
 
     @Test
@@ -222,6 +237,61 @@ public class BatchResourceIT {
             .andExpect(jsonPath("$.[*].status").value(hasItem(DEFAULT_STATUS.toString())));
     }
     
+    @Test
+    @Transactional
+    public void getAllBatchsWithKeysetCursor() throws Exception {
+        // Initialize the database
+        batchRepository.saveAndFlush(batch);
+        Batch otherBatch = createEntity(em);
+        batchRepository.saveAndFlush(otherBatch);
+
+        // Get the first slice, starting just before the batch
+        restBatchMockMvc.perform(get("/api/batches?after={after}&size=1", batch.getId() - 1))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(batch.getId().intValue()))
+            .andExpect(jsonPath("$.[0].batchNo").value(DEFAULT_BATCH_NO))
+            .andExpect(header().string("X-Next-Cursor", batch.getId().toString()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + batch.getId())));
+
+        // Get the last slice, which has no next link
+        restBatchMockMvc.perform(get("/api/batches?after={after}&size=1", batch.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(otherBatch.getId().intValue()))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    public void getAllBatchsUnpaged() throws Exception {
+        // Initialize the database
+        batchRepository.saveAndFlush(batch);
+
+        // Get all the batchList, without pagination
+        restBatchMockMvc.perform(get("/api/batches?unpaged=true"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(batch.getId().intValue())))
+            .andExpect(header().doesNotExist("X-Total-Count"));
+    }
+
+    @Test
+    @Transactional
+    public void getAllBatchsWithKeysetCursorAndUnpaged() throws Exception {
+        // Initialize the database
+        batchRepository.saveAndFlush(batch);
+        Batch otherBatch = createEntity(em);
+        batchRepository.saveAndFlush(otherBatch);
+
+        // The keyset pagination wins over unpaged, rather than both mappings matching
+        restBatchMockMvc.perform(get("/api/batches?after={after}&size=1&unpaged=true", batch.getId() - 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(batch.getId().intValue()))
+            .andExpect(header().string("X-Next-Cursor", batch.getId().toString()));
+    }
+
     @Test
     @Transactional
     public void getBatch() throws Exception {
@@ -285,7 +355,7 @@ public class BatchResourceIT {
         assertThat(testBatch.getStatus()).isEqualTo(UPDATED_STATUS);
 
         // Validate the Batch in Elasticsearch
-        verify(mockBatchSearchRepository, times(1)).save(testBatch);
+        TestUtil.assertSearchOutboxContains(em, Batch.class, testBatch.getId(), SearchIndexOperation.INDEX);
     }
 
     @Test
@@ -325,7 +395,51 @@ public class BatchResourceIT {
         assertThat(batchList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Batch in Elasticsearch
-        verify(mockBatchSearchRepository, times(1)).deleteById(batch.getId());
+        TestUtil.assertSearchOutboxContains(em, Batch.class, batch.getId(), SearchIndexOperation.DELETE);
+    }
+
+    @Test
+    public void importBatches() throws Exception {
+        Course course = courseRepository.saveAndFlush(CourseResourceIT.createEntity(em));
+        int databaseSizeBeforeImport = batchRepository.findAll().size();
+        String csv = "id;batch_no;batch_name;participant_count;start_date;end_date;status;course_id\n" +
+            "1;IMPORTED;\"Batch; one\";10;2020-01-01;2020-03-31;PLANNED;" + course.getId() + "\n" +
+            "2;IMPORTED;Batch two;;;;;" + Long.MAX_VALUE + "\n" +
+            "3;IMPORTED;;10;2020-01-01;2020-03-31;PLANNED;\n" +
+            "4;IMPORTED;Batch four;ten;;;;\n";
+
+        restBatchMockMvc.perform(post("/api/batches/_import").with(csrf())
+            .contentType("text/csv")
+            .content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rowsRead").value(4))
+            .andExpect(jsonPath("$.rowsImported").value(1))
+            .andExpect(jsonPath("$.rowsRejected").value(3))
+            .andExpect(jsonPath("$.rejectedRows.[*].line").value(containsInAnyOrder(3, 4, 5)))
+            .andExpect(jsonPath("$.rejectedRows.[?(@.line == 3)].message").value(hasItem(containsString("does not exist"))))
+            .andExpect(jsonPath("$.rejectedRows.[?(@.line == 4)].message").value(hasItem(containsString("batchName"))))
+            .andExpect(jsonPath("$.rejectedRows.[?(@.line == 5)].message").value(hasItem(containsString("participant_count"))));
+
+        List<Batch> batchList = batchRepository.findAll();
+        assertThat(batchList).hasSize(databaseSizeBeforeImport + 1);
+        Batch importedBatch = batchList.stream().filter(b -> "IMPORTED".equals(b.getBatchNo())).findFirst().get();
+        assertThat(importedBatch.getBatchName()).isEqualTo("Batch; one");
+        assertThat(importedBatch.getStartDate()).isEqualTo(LocalDate.of(2020, 1, 1));
+        assertThat(importedBatch.getCourse().getId()).isEqualTo(course.getId());
+        assertThat(searchOutboxEventRepository.findAll())
+            .anyMatch(event -> importedBatch.getId().equals(event.getEntityId()) && "Batch".equals(event.getEntityType()));
+
+        batchRepository.delete(importedBatch);
+        courseRepository.delete(course);
+        searchOutboxEventRepository.deleteAll();
+    }
+
+    @Test
+    public void importBatchesWithUnknownColumn() throws Exception {
+        restBatchMockMvc.perform(post("/api/batches/_import").with(csrf())
+            .contentType("text/csv")
+            .content("batch_no;unknown\nIMPORTED;value\n"))
+            .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -334,13 +448,14 @@ public class BatchResourceIT {
         // Configure the mock search repository
         // Initialize the database
         batchRepository.saveAndFlush(batch);
-        when(mockBatchSearchRepository.search(queryStringQuery("id:" + batch.getId())))
-            .thenReturn(Collections.singletonList(batch));
+        when(mockBatchSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(batch), PageRequest.of(0, 1), 1));
 
         // Search the batch
         restBatchMockMvc.perform(get("/api/_search/batches?query=id:" + batch.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
             .andExpect(jsonPath("$.[*].id").value(hasItem(batch.getId().intValue())))
             .andExpect(jsonPath("$.[*].batchNo").value(hasItem(DEFAULT_BATCH_NO)))
             .andExpect(jsonPath("$.[*].batchName").value(hasItem(DEFAULT_BATCH_NAME)))
@@ -3,9 +3,19 @@ package com.superleague.microservice.web.rest;
 import com.superleague.microservice.SuperleagueApp;
 import com.superleague.microservice.config.TestSecurityConfiguration;
 import com.superleague.microservice.domain.Course;
+import com.superleague.microservice.domain.enumeration.SearchIndexOperation;
 import com.superleague.microservice.repository.CourseRepository;
 import com.superleague.microservice.repository.search.CourseSearchRepository;
 
+import com.google.gson.JsonObject;
+import com.jayway.jsonpath.JsonPath;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.core.Index;
+import io.searchbox.indices.DeleteIndex;
+import io.searchbox.indices.Refresh;
+import io.searchbox.indices.aliases.GetAliases;
+import io.searchbox.indices.mapping.GetMapping;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -14,17 +24,27 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -63,6 +83,12 @@ public class CourseResourceIT {
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private JestClient jestClient;
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
     @Autowired
     private MockMvc restCourseMockMvc;
 
@@ -119,7 +145,7 @@ public class CourseResourceIT {
         assertThat(testCourse.getStatus()).isEqualTo(DEFAULT_STATUS);
 
         // Validate the Course in Elasticsearch
-        verify(mockCourseSearchRepository, times(1)).save(testCourse);
+        TestUtil.assertSearchOutboxContains(em, Course.class, testCourse.getId(), SearchIndexOperation.INDEX);
     }
 
     @Test
@@ -199,6 +225,28 @@ public class CourseResourceIT {
             .andExpect(jsonPath("$.[*].status").value(hasItem(DEFAULT_STATUS.toString())));
     }
     
+    @Test
+    @Transactional
+    public void exportCoursesAsCsv() throws Exception {
+        // Initialize the database
+        courseRepository.saveAndFlush(course);
+
+        // Export all the courses
+        restCourseMockMvc.perform(get("/api/courses/_export?format=csv"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(content().string(startsWith("id;course_no;course_name;status\n")))
+            .andExpect(content().string(containsString(
+                course.getId() + ";" + DEFAULT_COURSE_NO + ";" + DEFAULT_COURSE_NAME + ";" + DEFAULT_STATUS + "\n")));
+    }
+
+    @Test
+    @Transactional
+    public void exportCoursesWithUnknownFormat() throws Exception {
+        restCourseMockMvc.perform(get("/api/courses/_export?format=xml"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getCourse() throws Exception {
@@ -253,7 +301,7 @@ public class CourseResourceIT {
         assertThat(testCourse.getStatus()).isEqualTo(UPDATED_STATUS);
 
         // Validate the Course in Elasticsearch
-        verify(mockCourseSearchRepository, times(1)).save(testCourse);
+        TestUtil.assertSearchOutboxContains(em, Course.class, testCourse.getId(), SearchIndexOperation.INDEX);
     }
 
     @Test
@@ -293,7 +341,7 @@ public class CourseResourceIT {
         assertThat(courseList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Course in Elasticsearch
-        verify(mockCourseSearchRepository, times(1)).deleteById(course.getId());
+        TestUtil.assertSearchOutboxContains(em, Course.class, course.getId(), SearchIndexOperation.DELETE);
     }
 
     @Test
@@ -302,16 +350,96 @@ public class CourseResourceIT {
         // Configure the mock search repository
         // Initialize the database
         courseRepository.saveAndFlush(course);
-        when(mockCourseSearchRepository.search(queryStringQuery("id:" + course.getId())))
-            .thenReturn(Collections.singletonList(course));
+        when(mockCourseSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(course), PageRequest.of(0, 1), 1));
 
         // Search the course
         restCourseMockMvc.perform(get("/api/_search/courses?query=id:" + course.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
             .andExpect(jsonPath("$.[*].id").value(hasItem(course.getId().intValue())))
             .andExpect(jsonPath("$.[*].courseNo").value(hasItem(DEFAULT_COURSE_NO)))
             .andExpect(jsonPath("$.[*].courseName").value(hasItem(DEFAULT_COURSE_NAME)))
             .andExpect(jsonPath("$.[*].status").value(hasItem(DEFAULT_STATUS.toString())));
     }
+
+    @Test
+    public void searchCoursesBeyondTheResultWindow() throws Exception {
+        restCourseMockMvc.perform(get("/api/_search/courses?query=*&page=10000&size=20"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.searchwindowtoolarge"));
+    }
+
+    @Test
+    public void searchCoursesWithUnknownField() throws Exception {
+        restCourseMockMvc.perform(get("/api/_search/courses?query=*&fields=courseNo,unknown"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.searchfieldinvalid"));
+    }
+
+    @Test
+    public void searchCoursesAfterCursor() throws Exception {
+        // Index the courses in Elasticsearch, the search_after cursor does not go through the search repository
+        deleteCourseIndices();
+        String indexType = elasticsearchOperations.getPersistentEntityFor(Course.class).getIndexType();
+        String[] courseNames = { "B", "A", "A", "B", "A" };
+        try {
+            for (int i = 0; i < courseNames.length; i++) {
+                long id = 1001 + i;
+                String source = "{\"id\":" + id + ",\"courseNo\":\"no-" + id + "\",\"courseName\":\"" + courseNames[i] + "\"}";
+                jestClient.execute(new Index.Builder(source).index("course").type(indexType).id(String.valueOf(id)).build());
+            }
+            jestClient.execute(new Refresh.Builder().addIndex("course").build());
+
+            // Sorting on text relies on the keyword sub-field added by the dynamic mapping
+            JsonObject mappings = jestClient.execute(new GetMapping.Builder().addIndex("course").addType(indexType).build()).getJsonObject();
+            JsonObject courseName = mappings.getAsJsonObject("course").getAsJsonObject("mappings").getAsJsonObject(indexType)
+                .getAsJsonObject("properties").getAsJsonObject("courseName");
+            assertThat(courseName.getAsJsonObject("fields").getAsJsonObject("keyword").get("type").getAsString()).isEqualTo("keyword");
+
+            // Read all the pages, the hits with the same name being sorted by id
+            List<Integer> ids = new ArrayList<>();
+            List<String> cursors = new ArrayList<>();
+            String cursor = "";
+            do {
+                MvcResult result = restCourseMockMvc.perform(get("/api/_search/courses?query=*&after={after}&size=2&sort=courseName,asc&fields=courseName", cursor))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                    .andExpect(header().string("X-Total-Count", "5"))
+                    .andExpect(jsonPath("$.[0].courseName").exists())
+                    .andExpect(jsonPath("$.[0].courseNo").doesNotExist())
+                    .andReturn();
+                List<Integer> pageIds = JsonPath.read(result.getResponse().getContentAsString(), "$.[*].id");
+                ids.addAll(pageIds);
+                cursor = result.getResponse().getHeader("X-Next-Cursor");
+                if (cursor != null) {
+                    assertThat(result.getResponse().getHeader("Link")).contains("after=" + cursor);
+                    cursors.add(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+                }
+            } while (cursor != null);
+
+            assertThat(ids).containsExactly(1002, 1003, 1005, 1001, 1004);
+            // The cursor holds the sort values of the last hit of the page, the id breaking the ties
+            assertThat(cursors).containsExactly("[\"A\",1003]", "[\"B\",1001]");
+        } finally {
+            deleteCourseIndices();
+        }
+    }
+
+    @Test
+    public void searchCoursesWithInvalidCursor() throws Exception {
+        restCourseMockMvc.perform(get("/api/_search/courses?query=*&after={after}", "not-a-cursor"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.searchcursorinvalid"));
+    }
+
+    private void deleteCourseIndices() throws IOException {
+        JestResult indices = jestClient.execute(new GetAliases.Builder().addIndex("course").build());
+        if (indices.isSucceeded()) {
+            for (String index : indices.getJsonObject().keySet()) {
+                jestClient.execute(new DeleteIndex.Builder(index).build());
+            }
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.superleague.microservice.web.rest;
 import com.superleague.microservice.SuperleagueApp;
 import com.superleague.microservice.config.TestSecurityConfiguration;
 import com.superleague.microservice.domain.Learning;
+import com.superleague.microservice.domain.enumeration.SearchIndexOperation;
 import com.superleague.microservice.repository.LearningRepository;
 import com.superleague.microservice.repository.search.LearningSearchRepository;
 
@@ -14,6 +15,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -23,7 +27,6 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.mockito.Mockito.*;
@@ -107,7 +110,7 @@ public class LearningResourceIT {
         assertThat(testLearning.getStatus()).isEqualTo(DEFAULT_STATUS);
 
         // Validate the Learning in Elasticsearch
-        verify(mockLearningSearchRepository, times(1)).save(testLearning);
+        TestUtil.assertSearchOutboxContains(em, Learning.class, testLearning.getId(), SearchIndexOperation.INDEX);
     }
 
     @Test
@@ -195,7 +198,7 @@ public class LearningResourceIT {
         assertThat(testLearning.getStatus()).isEqualTo(UPDATED_STATUS);
 
         // Validate the Learning in Elasticsearch
-        verify(mockLearningSearchRepository, times(1)).save(testLearning);
+        TestUtil.assertSearchOutboxContains(em, Learning.class, testLearning.getId(), SearchIndexOperation.INDEX);
     }
 
     @Test
@@ -235,7 +238,7 @@ public class LearningResourceIT {
         assertThat(learningList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Learning in Elasticsearch
-        verify(mockLearningSearchRepository, times(1)).deleteById(learning.getId());
+        TestUtil.assertSearchOutboxContains(em, Learning.class, learning.getId(), SearchIndexOperation.DELETE);
     }
 
     @Test
@@ -244,13 +247,14 @@ public class LearningResourceIT {
         // Configure the mock search repository
         // Initialize the database
         learningRepository.saveAndFlush(learning);
-        when(mockLearningSearchRepository.search(queryStringQuery("id:" + learning.getId())))
-            .thenReturn(Collections.singletonList(learning));
+        when(mockLearningSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(learning), PageRequest.of(0, 1), 1));
 
         // Search the learning
         restLearningMockMvc.perform(get("/api/_search/learnings?query=id:" + learning.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
             .andExpect(jsonPath("$.[*].id").value(hasItem(learning.getId().intValue())))
             .andExpect(jsonPath("$.[*].status").value(hasItem(DEFAULT_STATUS.toString())));
     }
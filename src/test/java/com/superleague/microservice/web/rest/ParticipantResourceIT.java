@@ -2,10 +2,20 @@ package com.superleague.microservice.web.rest;
 
 import com.superleague.microservice.SuperleagueApp;
 import com.superleague.microservice.config.TestSecurityConfiguration;
+import com.superleague.microservice.domain.Batch;
+import com.superleague.microservice.domain.Course;
+import com.superleague.microservice.domain.Learning;
 import com.superleague.microservice.domain.Participant;
+import com.superleague.microservice.domain.SearchOutboxEvent;
+import com.superleague.microservice.domain.enumeration.SearchIndexOperation;
 import com.superleague.microservice.repository.ParticipantRepository;
+import com.superleague.microservice.repository.SearchOutboxEventRepository;
 import com.superleague.microservice.repository.search.ParticipantSearchRepository;
+import com.superleague.microservice.service.BulkEntityService;
 
+import com.jayway.jsonpath.JsonPath;
+
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -14,16 +24,22 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.mockito.Mockito.*;
@@ -59,6 +75,12 @@ public class ParticipantResourceIT {
     @Autowired
     private ParticipantSearchRepository mockParticipantSearchRepository;
 
+    @Autowired
+    private SearchOutboxEventRepository searchOutboxEventRepository;
+
+    @Autowired
+    private BulkEntityService bulkEntityService;
+
     @Autowired
     private EntityManager em;
 
@@ -118,7 +140,7 @@ public class ParticipantResourceIT {
         assertThat(testParticipant.getEmail()).isEqualTo(DEFAULT_EMAIL);
 
         // Validate the Participant in Elasticsearch
-        verify(mockParticipantSearchRepository, times(1)).save(testParticipant);
+        TestUtil.assertSearchOutboxContains(em, Participant.class, testParticipant.getId(), SearchIndexOperation.INDEX);
     }
 
     @Test
@@ -217,6 +239,124 @@ public class ParticipantResourceIT {
             .andExpect(jsonPath("$.[*].email").value(hasItem(DEFAULT_EMAIL)));
     }
     
+    @Test
+    @Transactional
+    public void getAllParticipantsFetchesAssociationsInOneQuery() throws Exception {
+        // Initialize the database with participants in distinct batches
+        Learning learning = LearningResourceIT.createEntity(em);
+        em.persist(learning);
+        Course course = null;
+        for (int i = 0; i < 3; i++) {
+            course = CourseResourceIT.createEntity(em);
+            em.persist(course);
+            Batch batch = BatchResourceIT.createEntity(em).course(course);
+            em.persist(batch);
+            em.persist(createEntity(em).sprint(batch).learning(learning));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = TestUtil.resetStatistics(em);
+        try {
+            restParticipantMockMvc.perform(get("/api/participants?sort=id,desc&size=100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].sprint.course.id").isNotEmpty());
+            restParticipantMockMvc.perform(get("/api/participants/summaries?sort=id,desc&size=100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].courseName").value(hasItem(course.getCourseName())))
+                .andExpect(jsonPath("$.[*].learningId").value(hasItem(learning.getId().intValue())));
+
+            // One query per page, whatever the number of batches, courses and learnings
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void exportParticipantsAsNdjson() throws Exception {
+        // Initialize the database
+        Batch batch = BatchResourceIT.createEntity(em);
+        em.persist(batch);
+        participantRepository.saveAndFlush(participant.sprint(batch));
+        participantRepository.saveAndFlush(createEntity(em));
+
+        // Export all the participants, one JSON document per line
+        MvcResult result = restParticipantMockMvc.perform(get("/api/participants/_export"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andReturn();
+        String content = result.getResponse().getContentAsString();
+        assertThat(content).endsWith("}\n");
+        String[] lines = content.split("\n");
+        assertThat(lines).hasSize(participantRepository.findAll().size());
+        // Each line is a document on its own, without the separator Jackson puts between root values by default
+        assertThat(lines).allSatisfy(line -> assertThat(line).startsWith("{").endsWith("}"));
+        assertThat(lines)
+            .anySatisfy(
+                line -> {
+                    assertThat(JsonPath.parse(line).read("$.id", Long.class)).isEqualTo(participant.getId());
+                    assertThat(JsonPath.parse(line).read("$.sprint.id", Long.class)).isEqualTo(batch.getId());
+                }
+            );
+    }
+
+    @Test
+    @Transactional
+    public void getAllParticipantsWithKeysetCursor() throws Exception {
+        // Initialize the database
+        participantRepository.saveAndFlush(participant);
+        Participant otherParticipant = createEntity(em);
+        participantRepository.saveAndFlush(otherParticipant);
+
+        // Get the first slice, starting just before the participant
+        restParticipantMockMvc.perform(get("/api/participants?after={after}&size=1", participant.getId() - 1))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(participant.getId().intValue()))
+            .andExpect(jsonPath("$.[0].empId").value(DEFAULT_EMP_ID))
+            .andExpect(header().string("X-Next-Cursor", participant.getId().toString()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + participant.getId())));
+
+        // Get the last slice, which has no next link
+        restParticipantMockMvc.perform(get("/api/participants?after={after}&size=1", participant.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(otherParticipant.getId().intValue()))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    public void getAllParticipantsUnpaged() throws Exception {
+        // Initialize the database
+        participantRepository.saveAndFlush(participant);
+
+        // Get all the participantList, without pagination
+        restParticipantMockMvc.perform(get("/api/participants?unpaged=true"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(participant.getId().intValue())))
+            .andExpect(header().doesNotExist("X-Total-Count"));
+    }
+
+    @Test
+    @Transactional
+    public void getAllParticipantsWithKeysetCursorAndUnpaged() throws Exception {
+        // Initialize the database
+        participantRepository.saveAndFlush(participant);
+        Participant otherParticipant = createEntity(em);
+        participantRepository.saveAndFlush(otherParticipant);
+
+        // The keyset pagination wins over unpaged, rather than both mappings matching
+        restParticipantMockMvc.perform(get("/api/participants?after={after}&size=1&unpaged=true", participant.getId() - 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(participant.getId().intValue()))
+            .andExpect(header().string("X-Next-Cursor", participant.getId().toString()));
+    }
+
     @Test
     @Transactional
     public void getParticipant() throws Exception {
@@ -271,7 +411,7 @@ public class ParticipantResourceIT {
         assertThat(testParticipant.getEmail()).isEqualTo(UPDATED_EMAIL);
 
         // Validate the Participant in Elasticsearch
-        verify(mockParticipantSearchRepository, times(1)).save(testParticipant);
+        TestUtil.assertSearchOutboxContains(em, Participant.class, testParticipant.getId(), SearchIndexOperation.INDEX);
     }
 
     @Test
@@ -311,7 +451,64 @@ public class ParticipantResourceIT {
         assertThat(participantList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Participant in Elasticsearch
-        verify(mockParticipantSearchRepository, times(1)).deleteById(participant.getId());
+        TestUtil.assertSearchOutboxContains(em, Participant.class, participant.getId(), SearchIndexOperation.DELETE);
+    }
+
+    @Test
+    public void bulkCreateUpdateAndDeleteParticipants() throws Exception {
+        int databaseSizeBeforeCreate = participantRepository.findAll().size();
+        Participant invalidParticipant = createEntity(em).email(null);
+
+        // Create a valid and an invalid participant in the same request
+        MvcResult createResult = restParticipantMockMvc.perform(post("/api/participants/_bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(participant, invalidParticipant))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].index").value(0))
+            .andExpect(jsonPath("$.[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.[1].index").value(1))
+            .andExpect(jsonPath("$.[1].status").value("INVALID"))
+            .andExpect(jsonPath("$.[1].message").value(containsString("email")))
+            .andReturn();
+        Long id = JsonPath.parse(createResult.getResponse().getContentAsString()).read("$.[0].id", Long.class);
+        assertThat(participantRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+
+        // Update it along with an unknown participant
+        Participant updatedParticipant = createEntity(em).name(UPDATED_NAME);
+        updatedParticipant.setId(id);
+        Participant unknownParticipant = createEntity(em);
+        unknownParticipant.setId(Long.MAX_VALUE);
+        restParticipantMockMvc.perform(put("/api/participants/_bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(updatedParticipant, unknownParticipant))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("UPDATED"))
+            .andExpect(jsonPath("$.[1].status").value("NOT_FOUND"));
+        assertThat(participantRepository.findById(id)).hasValueSatisfying(p -> assertThat(p.getName()).isEqualTo(UPDATED_NAME));
+
+        // Delete it
+        restParticipantMockMvc.perform(delete("/api/participants/_bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(id, Long.MAX_VALUE))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("DELETED"))
+            .andExpect(jsonPath("$.[1].status").value("NOT_FOUND"));
+        assertThat(participantRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+
+        // Validate the Participant in Elasticsearch
+        assertThat(searchOutboxEventRepository.findAll())
+            .filteredOn(event -> id.equals(event.getEntityId()) && "Participant".equals(event.getEntityType()))
+            .extracting(SearchOutboxEvent::getOperation)
+            .containsExactly(SearchIndexOperation.INDEX, SearchIndexOperation.INDEX, SearchIndexOperation.DELETE);
+        searchOutboxEventRepository.deleteAll();
+    }
+
+    @Test
+    public void bulkCreateTooManyParticipants() throws Exception {
+        restParticipantMockMvc.perform(post("/api/participants/_bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Collections.nCopies(bulkEntityService.getMaxItems() + 1, participant))))
+            .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -320,13 +517,14 @@ public class ParticipantResourceIT {
         // Configure the mock search repository
         // Initialize the database
         participantRepository.saveAndFlush(participant);
-        when(mockParticipantSearchRepository.search(queryStringQuery("id:" + participant.getId())))
-            .thenReturn(Collections.singletonList(participant));
+        when(mockParticipantSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(participant), PageRequest.of(0, 1), 1));
 
         // Search the participant
         restParticipantMockMvc.perform(get("/api/_search/participants?query=id:" + participant.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
             .andExpect(jsonPath("$.[*].id").value(hasItem(participant.getId().intValue())))
             .andExpect(jsonPath("$.[*].empId").value(hasItem(DEFAULT_EMP_ID)))
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
@@ -0,0 +1,47 @@
+package com.superleague.microservice.web.rest;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.superleague.microservice.SuperleagueApp;
+import com.superleague.microservice.config.TestSecurityConfiguration;
+import com.superleague.microservice.security.AuthoritiesConstants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link SearchReindexResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@SpringBootTest(classes = { SuperleagueApp.class, TestSecurityConfiguration.class })
+public class SearchReindexResourceIT {
+    @Autowired
+    private MockMvc restSearchReindexMockMvc;
+
+    @Test
+    public void getReindexStatuses() throws Exception {
+        restSearchReindexMockMvc
+            .perform(get("/api/_reindex"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray());
+    }
+
+    @Test
+    public void reindexUnknownType() throws Exception {
+        restSearchReindexMockMvc.perform(post("/api/_reindex/{type}", "Unknown").with(csrf())).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    public void reindexRequiresAdmin() throws Exception {
+        restSearchReindexMockMvc.perform(post("/api/_reindex/{type}", "Batch").with(csrf())).andExpect(status().isForbidden());
+    }
+}
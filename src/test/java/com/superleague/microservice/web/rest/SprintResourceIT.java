@@ -3,6 +3,7 @@ package com.superleague.microservice.web.rest;
 import com.superleague.microservice.SuperleagueApp;
 import com.superleague.microservice.config.TestSecurityConfiguration;
 import com.superleague.microservice.domain.Sprint;
+import com.superleague.microservice.domain.enumeration.SearchIndexOperation;
 import com.superleague.microservice.repository.SprintRepository;
 import com.superleague.microservice.repository.search.SprintSearchRepository;
 
@@ -14,6 +15,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -25,7 +29,6 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.mockito.Mockito.*;
@@ -127,7 +130,7 @@ public class SprintResourceIT {
         assertThat(testSprint.getEndDate()).isEqualTo(DEFAULT_END_DATE);
 
         // Validate the Sprint in Elasticsearch
-        verify(mockSprintSearchRepository, times(1)).save(testSprint);
+        TestUtil.assertSearchOutboxContains(em, Sprint.class, testSprint.getId(), SearchIndexOperation.INDEX);
     }
 
     @Test
@@ -246,7 +249,7 @@ public class SprintResourceIT {
         assertThat(testSprint.getEndDate()).isEqualTo(UPDATED_END_DATE);
 
         // Validate the Sprint in Elasticsearch
-        verify(mockSprintSearchRepository, times(1)).save(testSprint);
+        TestUtil.assertSearchOutboxContains(em, Sprint.class, testSprint.getId(), SearchIndexOperation.INDEX);
     }
 
     @Test
@@ -286,7 +289,7 @@ public class SprintResourceIT {
         assertThat(sprintList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Sprint in Elasticsearch
-        verify(mockSprintSearchRepository, times(1)).deleteById(sprint.getId());
+        TestUtil.assertSearchOutboxContains(em, Sprint.class, sprint.getId(), SearchIndexOperation.DELETE);
     }
 
     @Test
@@ -295,13 +298,14 @@ public class SprintResourceIT {
         // Configure the mock search repository
         // Initialize the database
         sprintRepository.saveAndFlush(sprint);
-        when(mockSprintSearchRepository.search(queryStringQuery("id:" + sprint.getId())))
-            .thenReturn(Collections.singletonList(sprint));
+        when(mockSprintSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(sprint), PageRequest.of(0, 1), 1));
 
         // Search the sprint
         restSprintMockMvc.perform(get("/api/_search/sprints?query=id:" + sprint.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
             .andExpect(jsonPath("$.[*].id").value(hasItem(sprint.getId().intValue())))
             .andExpect(jsonPath("$.[*].sprintNo").value(hasItem(DEFAULT_SPRINT_NO)))
             .andExpect(jsonPath("$.[*].status").value(hasItem(DEFAULT_STATUS.toString())))
@@ -2,10 +2,20 @@ package com.superleague.microservice.web.rest;
 
 import com.superleague.microservice.SuperleagueApp;
 import com.superleague.microservice.config.TestSecurityConfiguration;
+import com.superleague.microservice.domain.Batch;
+import com.superleague.microservice.domain.Course;
+import com.superleague.microservice.domain.Sprint;
+import com.superleague.microservice.domain.SearchOutboxEvent;
 import com.superleague.microservice.domain.SubjectMatterExpert;
+import com.superleague.microservice.domain.enumeration.SearchIndexOperation;
+import com.superleague.microservice.repository.SearchOutboxEventRepository;
 import com.superleague.microservice.repository.SubjectMatterExpertRepository;
 import com.superleague.microservice.repository.search.SubjectMatterExpertSearchRepository;
+import com.superleague.microservice.service.BulkEntityService;
 
+import com.jayway.jsonpath.JsonPath;
+
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -14,16 +24,21 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.mockito.Mockito.*;
@@ -62,6 +77,12 @@ public class SubjectMatterExpertResourceIT {
     @Autowired
     private SubjectMatterExpertSearchRepository mockSubjectMatterExpertSearchRepository;
 
+    @Autowired
+    private SearchOutboxEventRepository searchOutboxEventRepository;
+
+    @Autowired
+    private BulkEntityService bulkEntityService;
+
     @Autowired
     private EntityManager em;
 
@@ -124,7 +145,7 @@ public class SubjectMatterExpertResourceIT {
         assertThat(testSubjectMatterExpert.getContactNumber()).isEqualTo(DEFAULT_CONTACT_NUMBER);
 
         // Validate the SubjectMatterExpert in Elasticsearch
-        verify(mockSubjectMatterExpertSearchRepository, times(1)).save(testSubjectMatterExpert);
+        TestUtil.assertSearchOutboxContains(em, SubjectMatterExpert.class, testSubjectMatterExpert.getId(), SearchIndexOperation.INDEX);
     }
 
     @Test
@@ -243,6 +264,39 @@ public class SubjectMatterExpertResourceIT {
             .andExpect(jsonPath("$.[*].contactNumber").value(hasItem(DEFAULT_CONTACT_NUMBER)));
     }
     
+    @Test
+    @Transactional
+    public void getAllSubjectMatterExpertsFetchesAssociationsInOneQuery() throws Exception {
+        // Initialize the database with subject matter experts in distinct sprints
+        Course course = null;
+        for (int i = 0; i < 3; i++) {
+            course = CourseResourceIT.createEntity(em);
+            em.persist(course);
+            Batch batch = BatchResourceIT.createEntity(em).course(course);
+            em.persist(batch);
+            Sprint sprint = SprintResourceIT.createEntity(em).batch(batch);
+            em.persist(sprint);
+            em.persist(createEntity(em).sprint(sprint));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = TestUtil.resetStatistics(em);
+        try {
+            restSubjectMatterExpertMockMvc.perform(get("/api/subject-matter-experts?sort=id,desc&size=100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].sprint.batch.course.id").isNotEmpty());
+            restSubjectMatterExpertMockMvc.perform(get("/api/subject-matter-experts/summaries?sort=id,desc&size=100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].courseName").value(hasItem(course.getCourseName())));
+
+            // One query per page, whatever the number of sprints, batches and courses
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
     @Test
     @Transactional
     public void getSubjectMatterExpert() throws Exception {
@@ -300,7 +354,7 @@ public class SubjectMatterExpertResourceIT {
         assertThat(testSubjectMatterExpert.getContactNumber()).isEqualTo(UPDATED_CONTACT_NUMBER);
 
         // Validate the SubjectMatterExpert in Elasticsearch
-        verify(mockSubjectMatterExpertSearchRepository, times(1)).save(testSubjectMatterExpert);
+        TestUtil.assertSearchOutboxContains(em, SubjectMatterExpert.class, testSubjectMatterExpert.getId(), SearchIndexOperation.INDEX);
     }
 
     @Test
@@ -340,7 +394,64 @@ public class SubjectMatterExpertResourceIT {
         assertThat(subjectMatterExpertList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the SubjectMatterExpert in Elasticsearch
-        verify(mockSubjectMatterExpertSearchRepository, times(1)).deleteById(subjectMatterExpert.getId());
+        TestUtil.assertSearchOutboxContains(em, SubjectMatterExpert.class, subjectMatterExpert.getId(), SearchIndexOperation.DELETE);
+    }
+
+    @Test
+    public void bulkCreateUpdateAndDeleteSubjectMatterExperts() throws Exception {
+        int databaseSizeBeforeCreate = subjectMatterExpertRepository.findAll().size();
+        SubjectMatterExpert invalidSubjectMatterExpert = createEntity(em).email(null);
+
+        // Create a valid and an invalid subject matter expert in the same request
+        MvcResult createResult = restSubjectMatterExpertMockMvc.perform(post("/api/subject-matter-experts/_bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(subjectMatterExpert, invalidSubjectMatterExpert))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].index").value(0))
+            .andExpect(jsonPath("$.[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.[1].index").value(1))
+            .andExpect(jsonPath("$.[1].status").value("INVALID"))
+            .andExpect(jsonPath("$.[1].message").value(containsString("email")))
+            .andReturn();
+        Long id = JsonPath.parse(createResult.getResponse().getContentAsString()).read("$.[0].id", Long.class);
+        assertThat(subjectMatterExpertRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+
+        // Update it along with an unknown subject matter expert
+        SubjectMatterExpert updatedSubjectMatterExpert = createEntity(em).name(UPDATED_NAME);
+        updatedSubjectMatterExpert.setId(id);
+        SubjectMatterExpert unknownSubjectMatterExpert = createEntity(em);
+        unknownSubjectMatterExpert.setId(Long.MAX_VALUE);
+        restSubjectMatterExpertMockMvc.perform(put("/api/subject-matter-experts/_bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(updatedSubjectMatterExpert, unknownSubjectMatterExpert))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("UPDATED"))
+            .andExpect(jsonPath("$.[1].status").value("NOT_FOUND"));
+        assertThat(subjectMatterExpertRepository.findById(id)).hasValueSatisfying(sme -> assertThat(sme.getName()).isEqualTo(UPDATED_NAME));
+
+        // Delete it
+        restSubjectMatterExpertMockMvc.perform(delete("/api/subject-matter-experts/_bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(id, Long.MAX_VALUE))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("DELETED"))
+            .andExpect(jsonPath("$.[1].status").value("NOT_FOUND"));
+        assertThat(subjectMatterExpertRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+
+        // Validate the SubjectMatterExpert in Elasticsearch
+        assertThat(searchOutboxEventRepository.findAll())
+            .filteredOn(event -> id.equals(event.getEntityId()) && "SubjectMatterExpert".equals(event.getEntityType()))
+            .extracting(SearchOutboxEvent::getOperation)
+            .containsExactly(SearchIndexOperation.INDEX, SearchIndexOperation.INDEX, SearchIndexOperation.DELETE);
+        searchOutboxEventRepository.deleteAll();
+    }
+
+    @Test
+    public void bulkCreateTooManySubjectMatterExperts() throws Exception {
+        restSubjectMatterExpertMockMvc.perform(post("/api/subject-matter-experts/_bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Collections.nCopies(bulkEntityService.getMaxItems() + 1, subjectMatterExpert))))
+            .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -349,13 +460,14 @@ public class SubjectMatterExpertResourceIT {
         // Configure the mock search repository
         // Initialize the database
         subjectMatterExpertRepository.saveAndFlush(subjectMatterExpert);
-        when(mockSubjectMatterExpertSearchRepository.search(queryStringQuery("id:" + subjectMatterExpert.getId())))
-            .thenReturn(Collections.singletonList(subjectMatterExpert));
+        when(mockSubjectMatterExpertSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(subjectMatterExpert), PageRequest.of(0, 1), 1));
 
         // Search the subjectMatterExpert
         restSubjectMatterExpertMockMvc.perform(get("/api/_search/subject-matter-experts?query=id:" + subjectMatterExpert.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
             .andExpect(jsonPath("$.[*].id").value(hasItem(subjectMatterExpert.getId().intValue())))
             .andExpect(jsonPath("$.[*].empId").value(hasItem(DEFAULT_EMP_ID)))
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
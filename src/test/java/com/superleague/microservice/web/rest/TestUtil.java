@@ -6,6 +6,8 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.superleague.microservice.domain.SearchOutboxEvent;
+import com.superleague.microservice.domain.enumeration.SearchIndexOperation;
 import com.superleague.microservice.security.SecurityUtils;
 import java.io.IOException;
 import java.time.ZonedDateTime;
@@ -19,6 +21,8 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
 import org.hamcrest.Description;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.springframework.format.datetime.standard.DateTimeFormatterRegistrar;
 import org.springframework.format.support.DefaultFormattingConversionService;
 import org.springframework.format.support.FormattingConversionService;
@@ -154,6 +158,36 @@ public final class TestUtil {
         return allQuery.getResultList();
     }
 
+    /**
+     * Verifies that an entity has been scheduled for (re)indexing or deletion in Elasticsearch.
+     * @param em The instance of the EntityManager
+     * @param entityClass The indexed entity class
+     * @param id The id of the entity
+     * @param operation The expected search index operation
+     */
+    public static void assertSearchOutboxContains(EntityManager em, Class<?> entityClass, Long id, SearchIndexOperation operation) {
+        em.flush();
+        assertThat(findAll(em, SearchOutboxEvent.class))
+            .anyMatch(
+                event ->
+                    entityClass.getSimpleName().equals(event.getEntityType()) &&
+                    id.equals(event.getEntityId()) &&
+                    event.getOperation() == operation
+            );
+    }
+
+    /**
+     * Enables and resets the Hibernate statistics, to count the statements run by a request.
+     * @param em The instance of the EntityManager
+     * @return the statistics, to be disabled once read.
+     */
+    public static Statistics resetStatistics(EntityManager em) {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
     static final String ID_TOKEN =
         "eyJ0eXAiOiJKV1QiLCJhbGciOiJIUzI1NiJ9" +
         ".eyJzdWIiOiIxMjM0NTY3ODkwIiwibmFtZSI6IkpvaG4gRG9lIiwiYWRtaW4iOnRydWUsIm" +